@@ -1,14 +1,26 @@
 package org.uptrack;
 
+import javafx.animation.PauseTransition;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class DashboardController {
+    /** Wartezeit nach dem letzten Tastendruck, bevor gesucht wird */
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+    /** Ziel des Metrik-Exports im Arbeitsverzeichnis */
+    private static final String METRICS_FILE = "uptrack-metrics.json";
 
     private final UserControllerService userControllerService;
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
 
     @FXML
     private Label usernameLabel;
@@ -46,6 +58,9 @@ public class DashboardController {
     @FXML
     private TextArea notesTextArea;
 
+    @FXML
+    private TextArea metricsTextArea;
+
     public DashboardController(UserControllerService userControllerService) {
         this.userControllerService = userControllerService;
     }
@@ -86,13 +101,25 @@ public class DashboardController {
             }
         });
 
+        // Die Liste ist virtualisiert: die Tabelle fragt nur sichtbare Zeilen ab,
+        // deren Seiten im Hintergrund nachgeladen werden
         userTableView.setItems(userControllerService.getUserViewModels());
 
         // Daten laden
         userControllerService.loadUsers();
 
+        // Suche während der Eingabe: jeder Tastendruck bricht die laufende Suche ab,
+        // gesucht wird erst, wenn die Eingabe kurz ruht
+        searchDebounce.setOnFinished(event -> startSearch(searchField.getText()));
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            userControllerService.cancelSearch();
+            searchDebounce.playFromStart();
+        });
+
         // Beispiel: Angenommener eingeloggter Benutzer
         usernameLabel.setText("Angemeldet als: admin");
+
+        refreshMetrics();
     }
 
     @FXML
@@ -106,9 +133,23 @@ public class DashboardController {
 
     @FXML
     public void handleSearch(ActionEvent actionEvent) {
-        String searchTerm = searchField.getText();
-        userControllerService.searchUsers(searchTerm);
+        searchDebounce.stop();
+        startSearch(searchField.getText());
+    }
+
+    private void startSearch(String searchTerm) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            userControllerService.cancelSearch();
+            userTableView.setItems(userControllerService.getUserViewModels());
+            statusLabel.setText("");
+            return;
+        }
         statusLabel.setText("Suche nach: " + searchTerm);
+        userControllerService.searchUsers(searchTerm.trim(), result -> {
+            userTableView.setItems(userControllerService.getSearchResults());
+            statusLabel.setText(result.getHitCount() + " Treffer für \"" + result.getSearchTerm()
+                    + "\" in " + result.getElapsedMillis() + " ms");
+        });
     }
 
     @FXML
@@ -120,16 +161,38 @@ public class DashboardController {
     }
 
     private void handleEditUser(UserViewModel user) {
+        if (user == PagedUserList.PLACEHOLDER) {
+            return;
+        }
         // In einer echten Anwendung würde hier ein Dialog geöffnet werden
         statusLabel.setText("Benutzer wird bearbeitet: " + user.getUsername());
     }
 
     private void handleDeleteUser(UserViewModel user) {
+        if (user == PagedUserList.PLACEHOLDER) {
+            return;
+        }
         // In einer echten Anwendung würde hier eine Bestätigung angefordert werden
         userControllerService.deleteUser(user);
         statusLabel.setText("Benutzer wurde gelöscht: " + user.getUsername());
     }
 
+    @FXML
+    public void refreshMetrics() {
+        metricsTextArea.setText(MetricsRegistry.getDefault().toText());
+    }
+
+    @FXML
+    public void exportMetrics() {
+        Path target = Path.of(METRICS_FILE).toAbsolutePath();
+        try {
+            Files.writeString(target, MetricsRegistry.getDefault().toJson(), StandardCharsets.UTF_8);
+            statusLabel.setText("Metriken gespeichert: " + target);
+        } catch (IOException e) {
+            statusLabel.setText("Metriken konnten nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+
     @FXML
     public void saveNotes() {
         // Code zum Speichern der Notizen
@@ -0,0 +1,47 @@
+package org.uptrack;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Leitet Änderungen einer Ablage gebündelt an die Oberfläche weiter. Änderungen aus
+ * beliebigen Threads werden je Schlüssel zusammengefasst; pro Bündel wird nur ein
+ * einziges Platform.runLater eingeplant. Alles, was bis zu dessen Ausführung eintrifft,
+ * wird mit ausgeliefert, so dass auch bei vielen Schreibzugriffen höchstens eine
+ * Auslieferung je Durchlauf des FX-Anwendungsthreads ansteht.
+ */
+public class FxChangeDispatcher implements RepositoryChangeListener {
+    private final ChangeCoalescer coalescer = new ChangeCoalescer();
+    private final Executor fxExecutor;
+    private final Consumer<List<RepositoryChange>> consumer;
+
+    public FxChangeDispatcher(Consumer<List<RepositoryChange>> consumer) {
+        this(Platform::runLater, consumer);
+    }
+
+    /**
+     * @param fxExecutor führt die Auslieferung im FX-Anwendungsthread aus
+     * @param consumer   erhält die zusammengefassten Änderungen im FX-Anwendungsthread
+     */
+    public FxChangeDispatcher(Executor fxExecutor, Consumer<List<RepositoryChange>> consumer) {
+        this.fxExecutor = fxExecutor;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void onChange(RepositoryChange change) {
+        if (coalescer.add(change)) {
+            fxExecutor.execute(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        List<RepositoryChange> batch = coalescer.drain();
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.uptrack;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+
+/**
+ * Virtualisierte Benutzerliste für die Benutzertabelle. Die Liste kennt nur die
+ * Gesamtzahl der Benutzer; Einträge werden erst geladen, wenn die TableView sie für
+ * sichtbare Zeilen abfragt. Geladen wird seitenweise im Hintergrund, bis dahin liefert
+ * die Liste einen leeren Platzhalter. Es bleiben höchstens maxPages Seiten im
+ * Speicher, die am längsten nicht benutzte Seite wird verworfen.
+ * <p>
+ * Alle Methoden müssen im FX-Anwendungsthread aufgerufen werden; Ergebnisse aus dem
+ * Hintergrund werden über den übergebenen FX-Executor zurückgegeben.
+ */
+public class PagedUserList extends ObservableListBase<UserViewModel> {
+    /** Platzhalter für Zeilen, deren Seite noch geladen wird */
+    public static final UserViewModel PLACEHOLDER = new UserViewModel("", "", "");
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int DEFAULT_MAX_PAGES = 10;
+
+    /**
+     * Lädt einen Ausschnitt der Benutzer, wird im Hintergrund aufgerufen
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        List<UserViewModel> load(int offset, int limit);
+    }
+
+    private final IntSupplier counter;
+    private final PageLoader loader;
+    private final Executor backgroundExecutor;
+    private final Executor fxExecutor;
+    private final int pageSize;
+    private final Map<Integer, List<UserViewModel>> pages;
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private int size;
+    private int generation;
+
+    public PagedUserList(IntSupplier counter, PageLoader loader, Executor backgroundExecutor, Executor fxExecutor) {
+        this(counter, loader, backgroundExecutor, fxExecutor, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedUserList(IntSupplier counter, PageLoader loader, Executor backgroundExecutor, Executor fxExecutor,
+                         int pageSize, int maxPages) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("Seitengröße und Seitenzahl müssen positiv sein");
+        }
+        this.counter = counter;
+        this.loader = loader;
+        this.backgroundExecutor = backgroundExecutor;
+        this.fxExecutor = fxExecutor;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<UserViewModel>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Liefert den Eintrag, falls seine Seite geladen ist, sonst den Platzhalter und
+     * stößt das Laden der Seite an
+     */
+    @Override
+    public UserViewModel get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Größe: " + size);
+        }
+        int page = index / pageSize;
+        if (!pages.containsKey(page)) {
+            requestPage(page);
+            return PLACEHOLDER;
+        }
+        return loadedOrPlaceholder(index);
+    }
+
+    /**
+     * Zählt die Benutzer neu und verwirft alle geladenen Seiten. Noch laufende Ladevorgänge
+     * werden nach ihrer Rückkehr ignoriert.
+     */
+    public void reset() {
+        generation++;
+        pages.clear();
+        pendingPages.clear();
+        int oldSize = size;
+        size = Math.max(counter.getAsInt(), 0);
+
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.nCopies(oldSize, PLACEHOLDER));
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    /**
+     * Gleicht die Liste inkrementell mit dem aktuellen Bestand ab. Nur die Größenänderung
+     * am Ende wird sofort gemeldet; die geladenen Seiten bleiben sichtbar, werden in einem
+     * Hintergrundauftrag gemeinsam neu geladen und je Seite über den Benutzernamen
+     * verglichen. Alle Seiten werden in einer einzigen Änderung gemeldet: wird ein
+     * Benutzer entfernt, meldet jede verschobene Seite nur eine Entfernung und eine
+     * Einfügung am Seitenende. Geänderte Werte desselben Benutzers werden in die
+     * vorhandene Zeile übernommen.
+     */
+    public void refresh() {
+        generation++;
+        pendingPages.clear();
+        int oldSize = size;
+        size = Math.max(counter.getAsInt(), 0);
+
+        if (size != oldSize) {
+            beginChange();
+            if (size > oldSize) {
+                nextAdd(oldSize, size);
+            } else {
+                List<UserViewModel> removed = new ArrayList<>(oldSize - size);
+                for (int i = size; i < oldSize; i++) {
+                    removed.add(loadedOrPlaceholder(i));
+                }
+                nextRemove(size, removed);
+            }
+            endChange();
+        }
+
+        int lastPage = size == 0 ? -1 : (size - 1) / pageSize;
+        pages.keySet().removeIf(page -> page > lastPage);
+        List<Integer> loaded = new ArrayList<>(pages.keySet());
+        Collections.sort(loaded);
+        requestPages(loaded);
+    }
+
+    /**
+     * Liefert die Position eines geladenen Eintrags oder -1. Anders als {@link #indexOf}
+     * werden dabei keine Seiten nachgeladen.
+     */
+    public int indexOfLoaded(UserViewModel viewModel) {
+        for (Map.Entry<Integer, List<UserViewModel>> entry : pages.entrySet()) {
+            int offset = entry.getValue().indexOf(viewModel);
+            if (offset >= 0) {
+                return entry.getKey() * pageSize + offset;
+            }
+        }
+        return -1;
+    }
+
+    int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    private void requestPage(int page) {
+        requestPages(List.of(page));
+    }
+
+    /**
+     * Lädt die Seiten in einem gemeinsamen Hintergrundauftrag und übernimmt sie in
+     * einer einzigen Änderung; bereits angeforderte Seiten werden übersprungen
+     */
+    private void requestPages(List<Integer> requested) {
+        List<Integer> batch = new ArrayList<>(requested.size());
+        for (Integer page : requested) {
+            if (pendingPages.add(page)) {
+                batch.add(page);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int requestedGeneration = generation;
+        backgroundExecutor.execute(() -> {
+            List<List<UserViewModel>> loaded = new ArrayList<>(batch.size());
+            try {
+                for (int page : batch) {
+                    loaded.add(loader.load(page * pageSize, pageSize));
+                }
+            } catch (RuntimeException e) {
+                // Seiten beim nächsten Zugriff erneut anfordern
+                fxExecutor.execute(() -> {
+                    if (requestedGeneration == generation) {
+                        pendingPages.removeAll(batch);
+                    }
+                });
+                throw e;
+            }
+            fxExecutor.execute(() -> applyPages(requestedGeneration, batch, loaded));
+        });
+    }
+
+    private void applyPages(int requestedGeneration, List<Integer> batch, List<List<UserViewModel>> loaded) {
+        if (requestedGeneration != generation) {
+            return;
+        }
+        pendingPages.removeAll(batch);
+        beginChange();
+        for (int i = 0; i < batch.size(); i++) {
+            applyPage(batch.get(i), loaded.get(i));
+        }
+        endChange();
+    }
+
+    /**
+     * Vergleicht das Fenster der Seite über den Benutzernamen mit dem neuen Stand. Die
+     * Länge des Fensters bleibt gleich, die Positionen späterer Seiten verschieben sich
+     * dadurch nicht.
+     */
+    private void applyPage(int page, List<UserViewModel> entries) {
+        int from = page * pageSize;
+        int length = Math.max(Math.min(pageSize, size - from), 0);
+        List<UserViewModel> previous = new ArrayList<>(length);
+        Map<String, Integer> previousIndex = new HashMap<>();
+        for (int i = 0; i < length; i++) {
+            UserViewModel old = loadedOrPlaceholder(from + i);
+            previous.add(old);
+            if (old != PLACEHOLDER) {
+                previousIndex.putIfAbsent(old.getUsername(), i);
+            }
+        }
+
+        List<UserViewModel> rows = new ArrayList<>(entries);
+        int[] sourceIndex = new int[length];
+        boolean[] retained = new boolean[length];
+        boolean ordered = true;
+        boolean changed = false;
+        int lastRetained = -1;
+        for (int i = 0; i < length; i++) {
+            UserViewModel fresh = i < rows.size() ? rows.get(i) : PLACEHOLDER;
+            Integer index = fresh == PLACEHOLDER ? null : previousIndex.get(fresh.getUsername());
+            if (index != null && !retained[index]) {
+                UserViewModel old = previous.get(index);
+                old.setUserType(fresh.getUserType());
+                old.setStatus(fresh.getStatus());
+                rows.set(i, old);
+                retained[index] = true;
+                sourceIndex[i] = index;
+                ordered &= index > lastRetained;
+                lastRetained = index;
+                changed |= index != i;
+            } else {
+                sourceIndex[i] = -1;
+                changed = true;
+            }
+        }
+        pages.put(page, rows);
+
+        if (!changed) {
+            return;
+        }
+        if (!ordered) {
+            nextReplace(from, from + length, previous);
+            return;
+        }
+        // Änderungen in Listenreihenfolge melden; pos ist die Position im bereits
+        // geänderten Teil der Liste
+        int pos = from;
+        int old = 0;
+        for (int i = 0; i < length; i++) {
+            if (sourceIndex[i] >= 0) {
+                for (; old < sourceIndex[i]; old++) {
+                    nextRemove(pos, previous.get(old));
+                }
+                old++;
+            } else {
+                nextAdd(pos, pos + 1);
+            }
+            pos++;
+        }
+        for (; old < length; old++) {
+            nextRemove(pos, previous.get(old));
+        }
+    }
+
+    private UserViewModel loadedOrPlaceholder(int index) {
+        List<UserViewModel> entries = pages.get(index / pageSize);
+        int offset = index % pageSize;
+        return entries != null && offset < entries.size() ? entries.get(offset) : PLACEHOLDER;
+    }
+}
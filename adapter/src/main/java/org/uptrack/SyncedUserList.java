@@ -0,0 +1,154 @@
+package org.uptrack;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Beobachtbare Benutzerliste, die inkrementell mit einem neuen Stand abgeglichen wird.
+ * {@link #sync(List)} vergleicht über den Benutzernamen, übernimmt vorhandene Zeilen
+ * und meldet nur Einfügungen und Entfernungen, gesammelt in einer einzigen Änderung.
+ * Geänderte Werte vorhandener Zeilen werden über deren Properties übernommen, die
+ * Tabelle muss dafür keine Zeilen neu aufbauen.
+ * <p>
+ * Über eine Zuordnung Benutzername → Position werden Zeilen ohne Durchsuchen der
+ * Liste gefunden; sie wird nach jeder Änderung einmal neu aufgebaut. Nicht
+ * threadsicher, nur im FX-Anwendungsthread verwenden.
+ */
+public class SyncedUserList extends ObservableListBase<UserViewModel> {
+    private List<UserViewModel> rows = new ArrayList<>();
+    private final Map<String, Integer> indexByUsername = new HashMap<>();
+
+    @Override
+    public UserViewModel get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Gleicht die Liste mit dem neuen Stand ab. Bleibt die Reihenfolge der erhaltenen
+     * Zeilen gleich, werden nur die Unterschiede gemeldet, sonst wird die Liste als
+     * Ganzes ersetzt.
+     */
+    public void sync(List<UserViewModel> target) {
+        List<UserViewModel> previous = rows;
+        int[] sourceIndex = new int[target.size()];
+        boolean[] retained = new boolean[previous.size()];
+        List<UserViewModel> next = new ArrayList<>(target.size());
+        boolean ordered = true;
+        int lastRetained = -1;
+
+        for (int i = 0; i < target.size(); i++) {
+            UserViewModel fresh = target.get(i);
+            int index = indexOfUsername(fresh.getUsername());
+            if (index >= 0 && !retained[index]) {
+                UserViewModel existing = previous.get(index);
+                existing.setUserType(fresh.getUserType());
+                existing.setStatus(fresh.getStatus());
+                retained[index] = true;
+                sourceIndex[i] = index;
+                ordered &= index > lastRetained;
+                lastRetained = index;
+                next.add(existing);
+            } else {
+                sourceIndex[i] = -1;
+                next.add(fresh);
+            }
+        }
+
+        rows = next;
+        rebuildIndex();
+
+        beginChange();
+        if (!ordered) {
+            nextReplace(0, next.size(), previous);
+        } else {
+            // Änderungen in Listenreihenfolge melden; pos ist die Position im bereits
+            // geänderten Teil der Liste
+            int pos = 0;
+            int old = 0;
+            for (int i = 0; i < next.size(); i++) {
+                if (sourceIndex[i] >= 0) {
+                    for (; old < sourceIndex[i]; old++) {
+                        nextRemove(pos, previous.get(old));
+                    }
+                    old++;
+                } else {
+                    nextAdd(pos, pos + 1);
+                }
+                pos++;
+            }
+            for (; old < previous.size(); old++) {
+                nextRemove(pos, previous.get(old));
+            }
+        }
+        endChange();
+    }
+
+    /**
+     * Liefert die Position des Benutzers oder -1
+     */
+    public int indexOfUsername(String username) {
+        Integer index = indexByUsername.get(username);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Entfernt die Zeilen der angegebenen Benutzer in einer einzigen Änderung. Die
+     * Zuordnung der Positionen wird dabei höchstens einmal neu aufgebaut, ein Bündel
+     * von k Entfernungen kostet so O(n + k log k) statt k einzelner Abgleiche.
+     *
+     * @return Anzahl der entfernten Zeilen
+     */
+    public int removeAllByUsername(Collection<String> usernames) {
+        int[] indices = new int[usernames.size()];
+        int count = 0;
+        for (String username : usernames) {
+            Integer index = indexByUsername.remove(username);
+            if (index != null) {
+                indices[count++] = index;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(indices, 0, count);
+
+        List<UserViewModel> previous = rows;
+        List<UserViewModel> next = new ArrayList<>(previous.size() - count);
+        int removedIndex = 0;
+        for (int i = 0; i < previous.size(); i++) {
+            if (removedIndex < count && indices[removedIndex] == i) {
+                removedIndex++;
+            } else {
+                next.add(previous.get(i));
+            }
+        }
+        rows = next;
+        rebuildIndex();
+
+        beginChange();
+        for (int i = 0; i < count; i++) {
+            // Position im bereits geänderten Teil der Liste
+            nextRemove(indices[i] - i, previous.get(indices[i]));
+        }
+        endChange();
+        return count;
+    }
+
+    private void rebuildIndex() {
+        indexByUsername.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            indexByUsername.put(rows.get(i).getUsername(), i);
+        }
+    }
+}
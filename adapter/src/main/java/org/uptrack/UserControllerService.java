@@ -1,57 +1,182 @@
 package org.uptrack;
 
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
 public class UserControllerService {
+    /** Höchstzahl angezeigter Suchtreffer */
+    static final int SEARCH_LIMIT = 500;
+
+    private final ConcurrentUserRepository repository;
     private final UserService userService;
-    private final ObservableList<UserViewModel> userViewModels = FXCollections.observableArrayList();
+    private final ExecutorService backgroundExecutor = BackgroundExecutors.newTaskExecutor("user-background");
+    private final Executor fxExecutor = Platform::runLater;
+    private final PagedUserList userViewModels;
+    private final SyncedUserList searchResults = new SyncedUserList();
+    private Future<?> runningSearch;
+    private long searchGeneration;
 
     public UserControllerService() {
-        this.userService = new UserService(new Repository());
+        this.repository = new ConcurrentUserRepository();
+        // Mit eingeschalteten Metriken wird jede Ablageoperation gemessen
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        this.userService = new UserService(metrics.isEnabled()
+                ? new InstrumentedUserRepository(repository, metrics) : repository);
+        this.userViewModels = new PagedUserList(userService::countUsers, this::loadUserPage,
+                backgroundExecutor, fxExecutor);
+        // Änderungen, auch die anderer Komponenten, gebündelt in die Ansicht übernehmen
+        repository.addChangeListener(new FxChangeDispatcher(fxExecutor, this::applyChanges));
+    }
+
+    /**
+     * Ergebnis einer abgeschlossenen Suche
+     */
+    public static class SearchResult {
+        private final String searchTerm;
+        private final int hitCount;
+        private final long elapsedNanos;
+
+        SearchResult(String searchTerm, int hitCount, long elapsedNanos) {
+            this.searchTerm = searchTerm;
+            this.hitCount = hitCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getSearchTerm() {
+            return searchTerm;
+        }
+
+        public int getHitCount() {
+            return hitCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
     }
 
     public ObservableList<UserViewModel> getUserViewModels() {
         return userViewModels;
     }
 
+    /**
+     * Liste der Treffer der letzten Suche, wird je Suche in einem Schritt abgeglichen
+     */
+    public ObservableList<UserViewModel> getSearchResults() {
+        return searchResults;
+    }
+
+    /**
+     * Lädt die Benutzerliste neu. Dabei wird nur die Anzahl der Benutzer ermittelt,
+     * die sichtbaren Seiten lädt die Tabelle im Hintergrund nach.
+     */
     public void loadUsers() {
-        // Hier würden wir normalerweise die Benutzer vom UserService laden
-        // und in UserViewModels umwandeln
-        userViewModels.clear();
-        userViewModels.add(new UserViewModel("admin", "Administrator", "Aktiv"));
-        userViewModels.add(new UserViewModel("user1", "Benutzer", "Aktiv"));
-        userViewModels.add(new UserViewModel("user2", "Benutzer", "Inaktiv"));
+        userViewModels.refresh();
     }
 
-    public void searchUsers(String searchTerm) {
-        // Hier würden wir die Suche an den UserService delegieren
-        System.out.println("Suche nach Benutzern mit Begriff: " + searchTerm);
+    /**
+     * Übernimmt ein Bündel von Änderungen: die Tabelle wird inkrementell abgeglichen,
+     * entfernte Benutzer verschwinden in einer einzigen Änderung aus den Suchergebnissen
+     */
+    private void applyChanges(List<RepositoryChange> changes) {
+        List<String> removed = new ArrayList<>();
+        for (RepositoryChange change : changes) {
+            if (change.getType() == RepositoryChange.Type.REMOVED) {
+                removed.add(change.getKey());
+            }
+        }
+        searchResults.removeAllByUsername(removed);
+        userViewModels.refresh();
+    }
+
+    private List<UserViewModel> loadUserPage(int offset, int limit) {
+        List<User> users = userService.getUserPage(offset, limit);
+        List<UserViewModel> page = new ArrayList<>(users.size());
+        for (User user : users) {
+            page.add(toViewModel(user));
+        }
+        return page;
+    }
+
+    private static UserViewModel toViewModel(User user) {
+        String userType = user instanceof Admin ? "Administrator" : "Benutzer";
+        return new UserViewModel(user.getUsername(), userType, "Aktiv");
+    }
+
+    /**
+     * Startet eine Suche im Hintergrund und bricht eine noch laufende Suche ab. Die
+     * Treffer werden in einer einzigen Änderung mit der Suchergebnisliste abgeglichen,
+     * danach wird onResult im FX-Anwendungsthread aufgerufen. Ergebnisse überholter Suchen werden
+     * verworfen. Muss im FX-Anwendungsthread aufgerufen werden.
+     */
+    public void searchUsers(String searchTerm, Consumer<SearchResult> onResult) {
+        cancelSearch();
+        long generation = searchGeneration;
+        runningSearch = backgroundExecutor.submit(() -> {
+            long start = System.nanoTime();
+            List<User> users = userService.searchUsers(searchTerm,
+                    SearchableUserRepository.MatchMode.SUBSTRING, true, SEARCH_LIMIT);
+            // Eine abgebrochene Suche endet schon im Durchlauf des Index, ihr Teilergebnis
+            // wird verworfen
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            List<UserViewModel> hits = new ArrayList<>(users.size());
+            for (User user : users) {
+                hits.add(toViewModel(user));
+            }
+            long elapsed = System.nanoTime() - start;
+            fxExecutor.execute(() -> {
+                if (generation != searchGeneration) {
+                    return;
+                }
+                runningSearch = null;
+                searchResults.sync(hits);
+                onResult.accept(new SearchResult(searchTerm, hits.size(), elapsed));
+            });
+        });
+    }
+
+    /**
+     * Bricht die laufende Suche ab, ihr Ergebnis wird nicht mehr angezeigt
+     */
+    public void cancelSearch() {
+        searchGeneration++;
+        if (runningSearch != null) {
+            runningSearch.cancel(true);
+            runningSearch = null;
+        }
     }
 
     public void createUser(String username, String password, String userType) {
+        // Die Ansicht wird über die Änderungsmeldung der Ablage aktualisiert
         userService.registerUser(username, password);
-        userViewModels.add(new UserViewModel(username, userType, "Aktiv"));
     }
 
     public void editUser(UserViewModel userViewModel, String newUsername, String newUserType, String newStatus) {
         // Hier würden wir die Bearbeitung an den UserService delegieren
         System.out.println("Benutzer bearbeitet: " + userViewModel.getUsername());
 
-        // UI aktualisieren
-        int index = userViewModels.indexOf(userViewModel);
-        userViewModels.set(index, new UserViewModel(newUsername, newUserType, newStatus));
+        // UI aktualisieren: gebundene Zellen sehen die Änderung über die Properties,
+        // ungebundene Zeilen bekommen nur neue Feldwerte
+        userViewModel.setUsername(newUsername);
+        userViewModel.setUserType(newUserType);
+        userViewModel.setStatus(newStatus);
     }
 
     public void deleteUser(UserViewModel userViewModel) {
-        // Hier würden wir das Löschen an den UserService delegieren
+        userService.deleteUser(userViewModel.getUsername());
         System.out.println("Benutzer gelöscht: " + userViewModel.getUsername());
-
-        // Aus der Ansicht entfernen
-        userViewModels.remove(userViewModel);
     }
 
     public void logoutUser(String username) {
         userService.logoutUser(username);
     }
-}
\ No newline at end of file
+}
@@ -3,38 +3,82 @@ package org.uptrack;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
+/**
+ * Zeile der Benutzertabelle. Die Werte liegen in einfachen Feldern, die JavaFX-Properties
+ * werden erst erzeugt, wenn eine Zelle sich an sie bindet. Zeilen, die nie sichtbar
+ * werden, kosten so nur das Objekt selbst.
+ */
 public class UserViewModel {
-    private final StringProperty username;
-    private final StringProperty userType;
-    private final StringProperty status;
+    private String username;
+    private String userType;
+    private String status;
+    private StringProperty usernameProperty;
+    private StringProperty userTypeProperty;
+    private StringProperty statusProperty;
 
     public UserViewModel(String username, String userType, String status) {
-        this.username = new SimpleStringProperty(username);
-        this.userType = new SimpleStringProperty(userType);
-        this.status = new SimpleStringProperty(status);
+        this.username = username;
+        this.userType = userType;
+        this.status = status;
     }
 
     public String getUsername() {
-        return username.get();
+        return usernameProperty != null ? usernameProperty.get() : username;
+    }
+
+    public void setUsername(String username) {
+        if (usernameProperty != null) {
+            usernameProperty.set(username);
+        } else {
+            this.username = username;
+        }
     }
 
     public StringProperty usernameProperty() {
-        return username;
+        if (usernameProperty == null) {
+            usernameProperty = new SimpleStringProperty(this, "username", username);
+            username = null;
+        }
+        return usernameProperty;
     }
 
     public String getUserType() {
-        return userType.get();
+        return userTypeProperty != null ? userTypeProperty.get() : userType;
+    }
+
+    public void setUserType(String userType) {
+        if (userTypeProperty != null) {
+            userTypeProperty.set(userType);
+        } else {
+            this.userType = userType;
+        }
     }
 
     public StringProperty userTypeProperty() {
-        return userType;
+        if (userTypeProperty == null) {
+            userTypeProperty = new SimpleStringProperty(this, "userType", userType);
+            userType = null;
+        }
+        return userTypeProperty;
     }
 
     public String getStatus() {
-        return status.get();
+        return statusProperty != null ? statusProperty.get() : status;
+    }
+
+    public void setStatus(String status) {
+        if (statusProperty != null) {
+            statusProperty.set(status);
+        } else {
+            this.status = status;
+        }
     }
 
     public StringProperty statusProperty() {
-        return status;
+        if (statusProperty == null) {
+            statusProperty = new SimpleStringProperty(this, "status", status);
+            status = null;
+        }
+        return statusProperty;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package org.uptrack;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedUserListTest {
+
+    private final List<UserViewModel> store = new ArrayList<>();
+
+    private PagedUserList newList() {
+        for (int i = 0; i < 50; i++) {
+            store.add(new UserViewModel(String.format("user%03d", i), "Benutzer", "Aktiv"));
+        }
+        return new PagedUserList(store::size,
+                (offset, limit) -> copy(store.subList(Math.min(offset, store.size()),
+                        Math.min(offset + limit, store.size()))),
+                Runnable::run, Runnable::run, 10, 5);
+    }
+
+    private static List<UserViewModel> copy(List<UserViewModel> rows) {
+        List<UserViewModel> copies = new ArrayList<>(rows.size());
+        for (UserViewModel row : rows) {
+            copies.add(new UserViewModel(row.getUsername(), row.getUserType(), row.getStatus()));
+        }
+        return copies;
+    }
+
+    @Test
+    void refresh_afterRemovalNearTop_shouldReportOneRemoveAndTailInsertPerPageInOneChange() {
+        // Arrange
+        PagedUserList list = newList();
+        list.reset();
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i);
+        }
+        // alle fünf Seiten sind geladen
+        List<UserViewModel> mirror = new ArrayList<>(list);
+        UserViewModel retained = list.get(5);
+        int[] changes = new int[1];
+        int[] removedRows = new int[1];
+        list.addListener((ListChangeListener<UserViewModel>) change -> {
+            changes[0]++;
+            while (change.next()) {
+                removedRows[0] += change.getRemovedSize();
+                mirror.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+                mirror.addAll(change.getFrom(), change.getAddedSubList());
+            }
+        });
+
+        // Act
+        store.remove(2);
+        list.refresh();
+
+        // Assert
+        // eine Änderung für die Größe, eine für alle neu geladenen Seiten
+        assertEquals(2, changes[0]);
+        // je Seite eine Entfernung, dazu die letzte Zeile durch die Verkleinerung
+        assertEquals(6, removedRows[0]);
+        assertSame(retained, list.get(4));
+        assertEquals(store.size(), mirror.size());
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(store.get(i).getUsername(), list.get(i).getUsername());
+            assertSame(list.get(i), mirror.get(i));
+        }
+    }
+
+    @Test
+    void refresh_withUnchangedStore_shouldNotReportChanges() {
+        // Arrange
+        PagedUserList list = newList();
+        list.reset();
+        for (int i = 0; i < 20; i++) {
+            list.get(i);
+        }
+        int[] changes = new int[1];
+        list.addListener((ListChangeListener<UserViewModel>) change -> changes[0]++);
+
+        // Act
+        list.refresh();
+
+        // Assert
+        assertEquals(0, changes[0]);
+        assertEquals(2, list.getLoadedPageCount());
+    }
+}
@@ -0,0 +1,73 @@
+package org.uptrack;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncedUserListTest {
+
+    private static List<UserViewModel> users(int count) {
+        List<UserViewModel> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new UserViewModel(String.format("user%03d", i), "Benutzer", "Aktiv"));
+        }
+        return users;
+    }
+
+    private static List<String> usernames(List<UserViewModel> rows) {
+        List<String> names = new ArrayList<>(rows.size());
+        for (UserViewModel row : rows) {
+            names.add(row.getUsername());
+        }
+        return names;
+    }
+
+    @Test
+    void removeAllByUsername_shouldRemoveInOneChangeAndKeepIndexExact() {
+        // Arrange
+        SyncedUserList list = new SyncedUserList();
+        list.sync(users(10));
+        List<UserViewModel> mirror = new ArrayList<>(list);
+        int[] changes = new int[1];
+        list.addListener((ListChangeListener<UserViewModel>) change -> {
+            changes[0]++;
+            while (change.next()) {
+                mirror.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+                mirror.addAll(change.getFrom(), change.getAddedSubList());
+            }
+        });
+
+        // Act
+        int removed = list.removeAllByUsername(List.of("user007", "user001", "fehlt", "user002", "user001"));
+
+        // Assert
+        assertEquals(3, removed);
+        assertEquals(1, changes[0]);
+        assertEquals(usernames(list), usernames(mirror));
+        assertEquals(List.of("user000", "user003", "user004", "user005", "user006", "user008", "user009"),
+                usernames(list));
+        assertEquals(5, list.indexOfUsername("user008"));
+        assertEquals(-1, list.indexOfUsername("user007"));
+    }
+
+    @Test
+    void removeAllByUsername_withUnknownUsers_shouldNotFireChange() {
+        // Arrange
+        SyncedUserList list = new SyncedUserList();
+        list.sync(users(3));
+        int[] changes = new int[1];
+        list.addListener((ListChangeListener<UserViewModel>) change -> changes[0]++);
+
+        // Act
+        int removed = list.removeAllByUsername(List.of("fehlt"));
+
+        // Assert
+        assertEquals(0, removed);
+        assertEquals(0, changes[0]);
+        assertEquals(3, list.size());
+    }
+}
@@ -0,0 +1,60 @@
+package org.uptrack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Erzeugt Executor für Hintergrundarbeit. Läuft die Anwendung auf einer JVM mit
+ * virtuellen Threads (ab Java 21), wird je Aufgabe ein virtueller Thread verwendet;
+ * auf älteren JVMs ein Pool aus Daemon-Threads. Das Projekt wird für Java 17 übersetzt,
+ * daher wird die Java-21-API per Reflection aufgerufen.
+ */
+public final class BackgroundExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundExecutors.class);
+
+    private BackgroundExecutors() {
+    }
+
+    /**
+     * Liefert einen Executor mit einem Thread je Aufgabe oder einen Daemon-Pool
+     *
+     * @param name Präfix für die Threadnamen
+     */
+    public static ExecutorService newTaskExecutor(String name) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        return virtual != null ? virtual : Executors.newCachedThreadPool(daemonThreadFactory(name));
+    }
+
+    /**
+     * Liefert einen Executor mit virtuellen Threads oder null, wenn die JVM sie nicht anbietet
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Virtuelle Threads nicht verfügbar: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Erzeugt Daemon-Threads mit fortlaufend nummerierten Namen
+     */
+    public static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package org.uptrack;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hilfsmethoden für das Binärformat von Snapshots und Änderungsprotokollen
+ */
+final class BinaryCodec {
+    private static final int NULL_LENGTH = -1;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Schreibt einen Text als UTF-8 mit vorangestellter Länge, null ist erlaubt
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        in.readFully(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+}
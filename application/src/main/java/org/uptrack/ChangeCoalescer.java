@@ -0,0 +1,68 @@
+package org.uptrack;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sammelt Änderungen aus beliebigen Threads und fasst sie je Schlüssel zusammen, bis
+ * sie gebündelt abgeholt werden. Aus "angelegt" und "geändert" wird "angelegt", aus
+ * "angelegt" und "entfernt" wird nichts, aus "entfernt" und "angelegt" wird "geändert".
+ * <p>
+ * {@link #add} meldet, ob eine Auslieferung eingeplant werden muss: nur die erste
+ * Änderung nach dem letzten {@link #drain} liefert true, so ist höchstens eine
+ * Auslieferung gleichzeitig ausstehend.
+ */
+public final class ChangeCoalescer {
+    private final Object lock = new Object();
+    private Map<String, RepositoryChange.Type> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    /**
+     * Nimmt eine Änderung auf
+     *
+     * @return true, wenn der Aufrufer eine Auslieferung einplanen muss
+     */
+    public boolean add(RepositoryChange change) {
+        synchronized (lock) {
+            RepositoryChange.Type merged = merge(pending.get(change.getKey()), change.getType());
+            if (merged == null) {
+                pending.remove(change.getKey());
+            } else {
+                pending.put(change.getKey(), merged);
+            }
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+    }
+
+    /**
+     * Liefert alle gesammelten Änderungen in der Reihenfolge ihres ersten Auftretens und
+     * leert den Puffer
+     */
+    public List<RepositoryChange> drain() {
+        Map<String, RepositoryChange.Type> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            scheduled = false;
+        }
+        List<RepositoryChange> changes = new ArrayList<>(batch.size());
+        batch.forEach((key, type) -> changes.add(new RepositoryChange(type, key)));
+        return changes;
+    }
+
+    private static RepositoryChange.Type merge(RepositoryChange.Type previous, RepositoryChange.Type next) {
+        if (previous == null) {
+            return next;
+        }
+        if (previous == RepositoryChange.Type.ADDED) {
+            return next == RepositoryChange.Type.REMOVED ? null : RepositoryChange.Type.ADDED;
+        }
+        return next == RepositoryChange.Type.REMOVED ? RepositoryChange.Type.REMOVED : RepositoryChange.Type.UPDATED;
+    }
+}
@@ -0,0 +1,47 @@
+package org.uptrack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verwaltet die Listener und den Versionszähler einer Ablage. Das Melden kostet ohne
+ * Listener nur das Erhöhen der Version; ein fehlschlagender Listener hält die übrigen
+ * nicht auf.
+ */
+final class ChangeNotifier {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeNotifier.class);
+
+    private final List<RepositoryChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+
+    void addListener(RepositoryChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(RepositoryChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    long getVersion() {
+        return version.get();
+    }
+
+    void fire(RepositoryChange.Type type, String key) {
+        version.incrementAndGet();
+        if (listeners.isEmpty()) {
+            return;
+        }
+        RepositoryChange change = new RepositoryChange(type, key);
+        for (RepositoryChangeListener listener : listeners) {
+            try {
+                listener.onChange(change);
+            } catch (RuntimeException e) {
+                logger.warn("Änderungs-Listener fehlgeschlagen für {}", change, e);
+            }
+        }
+    }
+}
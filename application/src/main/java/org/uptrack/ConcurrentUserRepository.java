@@ -0,0 +1,178 @@
+package org.uptrack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Threadsichere Benutzerablage für den gleichzeitigen Zugriff aus mehreren Threads.
+ * Lesezugriffe sind sperrfrei, Schreibzugriffe sperren nur den betroffenen Eintrag
+ * (feingranulare Sperren der ConcurrentHashMap) statt der gesamten Ablage.
+ * Benutzernamen werden innerhalb derselben atomaren Operation in einem
+ * Trigramm-Index gepflegt, über den {@link #searchUsers} sucht. Änderungen werden
+ * nach der atomaren Operation an registrierte Listener gemeldet.
+ */
+public class ConcurrentUserRepository implements SearchableUserRepository, ObservableRepository {
+    private final ConcurrentHashMap<String, User> users;
+    private final UsernameTrigramIndex index = new UsernameTrigramIndex();
+    private final ChangeNotifier notifier = new ChangeNotifier();
+
+    public ConcurrentUserRepository() {
+        this(true);
+    }
+
+    /**
+     * @param seedAdmin false für Unterklassen, die ihren Bestand selbst laden
+     */
+    protected ConcurrentUserRepository(boolean seedAdmin) {
+        users = new ConcurrentHashMap<>();
+        if (seedAdmin) {
+            // Initialisiere mit Admin-Benutzer
+            users.put("admin", new Admin("admin", "password"));
+            index.add("admin");
+        }
+    }
+
+    @Override
+    public void addUser(User user) {
+        boolean[] added = new boolean[1];
+        users.compute(user.getUsername(), (username, existing) -> {
+            if (existing == null) {
+                index.add(username);
+                added[0] = true;
+            }
+            return user;
+        });
+        notifier.fire(added[0] ? RepositoryChange.Type.ADDED : RepositoryChange.Type.UPDATED, user.getUsername());
+    }
+
+    /**
+     * Legt den Benutzer nur an, wenn der Benutzername noch frei ist
+     *
+     * @return true, wenn der Benutzer angelegt wurde
+     */
+    @Override
+    public boolean addUserIfAbsent(User user) {
+        boolean[] added = new boolean[1];
+        users.computeIfAbsent(user.getUsername(), username -> {
+            index.add(username);
+            added[0] = true;
+            return user;
+        });
+        if (added[0]) {
+            notifier.fire(RepositoryChange.Type.ADDED, user.getUsername());
+        }
+        return added[0];
+    }
+
+    @Override
+    public User getUserByUsername(String username) {
+        return users.get(username);
+    }
+
+    /**
+     * Liefert eine Momentaufnahme aller Benutzer. Die Iteration ist schwach
+     * konsistent und blockiert keine gleichzeitigen Schreibzugriffe.
+     */
+    @Override
+    public List<User> getAllUsers() {
+        return new ArrayList<>(users.values());
+    }
+
+    /**
+     * Ersetzt einen vorhandenen Benutzer atomar, unbekannte Benutzer werden ignoriert
+     */
+    @Override
+    public void updateUser(User user) {
+        if (users.replace(user.getUsername(), user) != null) {
+            notifier.fire(RepositoryChange.Type.UPDATED, user.getUsername());
+        }
+    }
+
+    /**
+     * Berechnet den Eintrag eines Benutzers atomar neu. Liefert die Funktion null,
+     * wird der Benutzer entfernt.
+     */
+    public User computeUser(String username, BiFunction<String, User, User> remapping) {
+        RepositoryChange.Type[] change = new RepositoryChange.Type[1];
+        User result = users.compute(username, (name, existing) -> {
+            User updated = remapping.apply(name, existing);
+            if (existing == null && updated != null) {
+                index.add(name);
+                change[0] = RepositoryChange.Type.ADDED;
+            } else if (existing != null && updated == null) {
+                index.remove(name);
+                change[0] = RepositoryChange.Type.REMOVED;
+            } else if (existing != updated) {
+                change[0] = RepositoryChange.Type.UPDATED;
+            }
+            return updated;
+        });
+        if (change[0] != null) {
+            notifier.fire(change[0], username);
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        boolean[] removed = new boolean[1];
+        users.computeIfPresent(username, (name, existing) -> {
+            index.remove(name);
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            notifier.fire(RepositoryChange.Type.REMOVED, username);
+        }
+    }
+
+    @Override
+    public void addChangeListener(RepositoryChangeListener listener) {
+        notifier.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RepositoryChangeListener listener) {
+        notifier.removeListener(listener);
+    }
+
+    @Override
+    public long getDataVersion() {
+        return notifier.getVersion();
+    }
+
+    @Override
+    public List<User> searchUsers(String term, MatchMode mode, boolean ignoreCase, int limit) {
+        List<User> result = new ArrayList<>();
+        for (String username : index.search(term, mode, ignoreCase, limit, users::containsKey)) {
+            User user = users.get(username);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int countUsers() {
+        return users.size();
+    }
+
+    /**
+     * Liefert einen Ausschnitt der sortierten Benutzer über den Namensindex, ohne alle
+     * Benutzer zu kopieren oder zu sortieren
+     */
+    @Override
+    public List<User> getUsers(int offset, int limit) {
+        List<User> page = new ArrayList<>();
+        for (String username : index.namesInOrder(offset, limit)) {
+            User user = users.get(username);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+}
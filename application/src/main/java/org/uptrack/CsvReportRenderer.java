@@ -0,0 +1,120 @@
+package org.uptrack;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Gibt den Bericht als CSV mit den Spalten Kategorie, Name und Wert aus.
+ * Felder mit Komma, Anführungszeichen oder Zeilenumbruch werden nach RFC 4180 maskiert.
+ */
+class CsvReportRenderer implements ReportRenderer {
+    private final Writer out;
+
+    CsvReportRenderer(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginReport(LocalDateTime generatedAt) throws IOException {
+        out.write("Kategorie,Name,Wert\n");
+        writeRow("Bericht", "Generiert am", generatedAt.format(GENERATED_AT_FORMAT));
+    }
+
+    @Override
+    public void beginUserSection(int totalUsers) throws IOException {
+        writeRow("Benutzerstatistik", "Gesamtanzahl Benutzer", Integer.toString(totalUsers));
+    }
+
+    @Override
+    public void userRow(User user, String userType, boolean active) throws IOException {
+        writeRow("Benutzer", user.getUsername(), active ? "Aktiv" : "Inaktiv");
+    }
+
+    @Override
+    public void endUserSection() {
+        // CSV benötigt keinen Abschnittsabschluss
+    }
+
+    @Override
+    public void userStatistics(ReportData data) throws IOException {
+        writeRow("Benutzerstatistik", "Aktive Benutzer", Integer.toString(data.activeUserCount));
+        writeRow("Benutzerstatistik", "Inaktive Benutzer", Integer.toString(data.inactiveUserCount));
+        for (Map.Entry<String, Integer> entry : data.userTypeCounts.entrySet()) {
+            writeRow("Benutzertyp", entry.getKey(), Integer.toString(entry.getValue()));
+        }
+    }
+
+    @Override
+    public void beginTaskSection(int totalTasks) throws IOException {
+        writeRow("Aufgabenstatistik", "Gesamtanzahl Aufgaben", Integer.toString(totalTasks));
+    }
+
+    @Override
+    public void taskRow(Tasks task, String assignedUser) throws IOException {
+        writeRow("Aufgabe", task.getTitle(), task.getStatus());
+    }
+
+    @Override
+    public void endTaskSection() {
+        // CSV benötigt keinen Abschnittsabschluss
+    }
+
+    @Override
+    public void taskStatistics(ReportData data) throws IOException {
+        writeRow("Aufgabenstatistik", "Abgeschlossene Aufgaben", Integer.toString(data.completedTasks));
+        writeRow("Aufgabenstatistik", "Abschlussquote", ReportRenderer.percent(data.completionRate));
+        writeRow("Aufgabenstatistik", "Offene Aufgaben", Integer.toString(data.openTasks));
+        writeRow("Aufgabenstatistik", "Abgebrochene Aufgaben", Integer.toString(data.canceledTasks));
+        writeRow("Aufgabenstatistik", "Überfällige Aufgaben", Integer.toString(data.overdueCount));
+        writeRow("Aufgabenstatistik", "In den nächsten 7 Tagen fällig", Integer.toString(data.dueSoonCount));
+        for (Map.Entry<String, Integer> entry : data.taskStatusCounts.entrySet()) {
+            writeRow("Aufgabenstatus", entry.getKey(), Integer.toString(entry.getValue()));
+        }
+
+        for (Map.Entry<String, ReportData.Productivity> entry : data.userProductivity.entrySet()) {
+            ReportData.Productivity productivity = entry.getValue();
+            writeRow("Produktivität", entry.getKey(), productivity.totalTasks + " Aufgaben insgesamt, "
+                    + productivity.completedTasks + " abgeschlossen ("
+                    + ReportRenderer.percent(productivity.completionRate()) + "%)");
+        }
+    }
+
+    @Override
+    public void visualizations(ReportData data) {
+        // Diagramme sind im CSV-Format nicht vorgesehen
+    }
+
+    @Override
+    public void endReport() {
+        // CSV benötigt keinen Abschluss
+    }
+
+    private void writeRow(String category, String name, String value) throws IOException {
+        writeField(category);
+        out.write(',');
+        writeField(name);
+        out.write(',');
+        writeField(value);
+        out.write('\n');
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(field);
+            return;
+        }
+        out.write('"');
+        out.write(field.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
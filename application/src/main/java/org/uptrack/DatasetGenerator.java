@@ -0,0 +1,190 @@
+package org.uptrack;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Erzeugt reproduzierbare Testdaten für Last- und Skalierungstests. Gleicher Seed und
+ * gleicher Stichtag liefern dieselben Benutzer und Aufgaben samt Historie und
+ * Zeitstempeln, unabhängig davon, wie viele Benutzer zuvor erzeugt wurden.
+ * <p>
+ * Aufgaben werden einzeln erzeugt und an einen Empfänger übergeben, so lassen sich auch
+ * zehn Millionen Aufgaben ohne Zwischenliste in eine Ablage schreiben. Verteilungen:
+ * <ul>
+ *     <li>Status: 55 % offen, 30 % abgeschlossen, 5 % wiedereröffnet, 10 % abgebrochen</li>
+ *     <li>Fälligkeit: 15 % ohne Datum, sonst normalverteilt um Stichtag + 5 Tage
+ *     (Standardabweichung 14 Tage), also ein Teil überfällig und ein Teil bald fällig</li>
+ *     <li>Historie: Erstellung, Fälligkeit, geometrisch verteilte Bearbeitungen
+ *     (im Mittel 1,5, höchstens 50) und die Statuswechsel bis zum Endstatus</li>
+ * </ul>
+ */
+public final class DatasetGenerator {
+    static final int MAX_EDITS = 50;
+
+    private static final long USER_STREAM = 0x5DEECE66DL;
+    private static final long TASK_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int CREATION_WINDOW_DAYS = 365;
+
+    private static final String[] FIRST_NAMES = {
+            "anna", "ben", "clara", "david", "emma", "felix", "greta", "hannes", "ida", "jonas",
+            "lena", "max", "mia", "noah", "paula", "ralf", "sophie", "tim", "ute", "yusuf"};
+    private static final String[] LAST_NAMES = {
+            "meier", "schmidt", "mueller", "schneider", "fischer", "weber", "wagner", "becker",
+            "hoffmann", "koch", "richter", "klein", "wolf", "neumann", "braun", "zimmermann"};
+    private static final String[] TOPICS = {
+            "Dashboard", "Login", "Datenbank", "Export", "Suche", "Berichte", "Benachrichtigungen",
+            "Rechteverwaltung", "Import", "Einstellungen", "Protokollierung", "Schnittstelle"};
+    private static final String[] ACTIONS = {
+            "implementieren", "überarbeiten", "testen", "dokumentieren", "beschleunigen", "absichern"};
+
+    private final long seed;
+    private final LocalDate referenceDay;
+
+    /**
+     * Erzeugt Daten relativ zum heutigen Tag; reproduzierbar nur am selben Tag
+     */
+    public DatasetGenerator(long seed) {
+        this(seed, LocalDate.now());
+    }
+
+    /**
+     * @param referenceDay Stichtag, auf den sich Fälligkeiten und Zeitstempel beziehen
+     */
+    public DatasetGenerator(long seed, LocalDate referenceDay) {
+        this.seed = seed;
+        this.referenceDay = referenceDay;
+    }
+
+    /**
+     * Liefert eine neue Zufallsquelle aus dem Seed, z.B. für {@link ReportGenerator}
+     */
+    public Random newRandom() {
+        return new Random(seed);
+    }
+
+    public List<User> generateUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        generateUsers(count, users::add);
+        return users;
+    }
+
+    /**
+     * Erzeugt count Benutzer mit eindeutigen Namen wie "anna.meier17"
+     */
+    public void generateUsers(int count, Consumer<? super User> sink) {
+        Random random = new Random(seed ^ USER_STREAM);
+        for (int i = 0; i < count; i++) {
+            String username = pick(random, FIRST_NAMES) + "." + pick(random, LAST_NAMES) + (i + 1);
+            sink.accept(new Admin(username, "pw" + random.nextInt(1_000_000)));
+        }
+    }
+
+    public List<Tasks> generateTasks(int count) {
+        List<Tasks> tasks = new ArrayList<>(count);
+        generateTasks(count, tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Erzeugt count Aufgaben mit eindeutigen Titeln und übergibt sie nacheinander an sink
+     */
+    public void generateTasks(int count, Consumer<? super Tasks> sink) {
+        Random random = new Random(seed ^ TASK_STREAM);
+        long referenceMillis = referenceDay.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long referenceEpochDay = referenceDay.toEpochDay();
+        for (int i = 0; i < count; i++) {
+            sink.accept(nextTask(random, i, referenceMillis, referenceEpochDay));
+        }
+    }
+
+    /**
+     * Füllt beide Ablagen; eine Ablage darf null sein, wenn nur die andere gebraucht wird
+     */
+    public void populate(UserRepository users, int userCount, TaskRepository tasks, int taskCount) {
+        if (users != null) {
+            generateUsers(userCount, users::addUser);
+        }
+        if (tasks != null) {
+            generateTasks(taskCount, tasks::addTask);
+        }
+    }
+
+    private Tasks nextTask(Random random, int index, long referenceMillis, long referenceEpochDay) {
+        String topic = pick(random, TOPICS);
+        String title = topic + " " + pick(random, ACTIONS) + " #" + (index + 1);
+        String description = topic + ": Umsetzung und Abnahme laut Anforderung " + (index + 1);
+
+        // Endstatus
+        double roll = random.nextDouble();
+        String status;
+        if (roll < 0.55) {
+            status = TaskStatistics.STATUS_OFFEN;
+        } else if (roll < 0.85) {
+            status = TaskStatistics.STATUS_ABGESCHLOSSEN;
+        } else if (roll < 0.90) {
+            status = "Wiedereröffnet";
+        } else {
+            status = TaskStatistics.STATUS_ABGEBROCHEN;
+        }
+
+        // Fälligkeit
+        long dueEpochDay = Tasks.NO_DUE_DATE;
+        if (random.nextDouble() >= 0.15) {
+            dueEpochDay = referenceEpochDay + Math.round(random.nextGaussian() * 14 + 5);
+        }
+
+        // Anzahl der Bearbeitungen, geometrisch verteilt
+        int edits = 0;
+        while (edits < MAX_EDITS && random.nextDouble() < 0.6) {
+            edits++;
+        }
+
+        int statusEvents;
+        if (TaskStatistics.STATUS_OFFEN.equals(status)) {
+            statusEvents = 0;
+        } else if ("Wiedereröffnet".equals(status)) {
+            statusEvents = 2;
+        } else {
+            statusEvents = 1;
+        }
+        int events = 1 + (dueEpochDay != Tasks.NO_DUE_DATE ? 1 : 0) + edits + statusEvents;
+
+        // Zeitstempel gleichmäßig zwischen Erstellung und Stichtag verteilen
+        long created = referenceMillis - 1000L * random.nextInt(CREATION_WINDOW_DAYS * (int) (DAY_MILLIS / 1000));
+        long step = (referenceMillis - created) / events;
+        long timestamp = created;
+
+        RecordHistory history = new RecordHistory();
+        history.restoreEntry(HistoryEvent.CREATED, timestamp, null);
+        if (dueEpochDay != Tasks.NO_DUE_DATE) {
+            timestamp += step;
+            history.restoreEntry(HistoryEvent.DUE_DATE_SET, timestamp, LocalDate.ofEpochDay(dueEpochDay).toString());
+        }
+        for (int e = 0; e < edits; e++) {
+            timestamp += step;
+            history.restoreEntry(random.nextBoolean() ? HistoryEvent.DESCRIPTION_CHANGED : HistoryEvent.TITLE_CHANGED,
+                    timestamp, null);
+        }
+        if (statusEvents == 1) {
+            timestamp += step;
+            history.restoreEntry(TaskStatistics.STATUS_ABGEBROCHEN.equals(status)
+                    ? HistoryEvent.CANCELED : HistoryEvent.COMPLETED, timestamp, null);
+        } else if (statusEvents == 2) {
+            timestamp += step;
+            history.restoreEntry(HistoryEvent.COMPLETED, timestamp, null);
+            timestamp += step;
+            history.restoreEntry(HistoryEvent.REOPENED, timestamp, null);
+        }
+
+        return Tasks.restore(title, description, status, dueEpochDay, history);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
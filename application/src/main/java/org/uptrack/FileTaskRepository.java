@@ -0,0 +1,522 @@
+package org.uptrack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dauerhafte Aufgabenablage. Der Bestand liegt indiziert in einer
+ * {@link InMemoryTaskRepository}; jede Änderung wird vorher in ein Änderungsprotokoll
+ * mit Gruppen-Commit geschrieben. Nach einer festen Anzahl von Einträgen wird im
+ * Hintergrund ein binärer Snapshot erstellt und das Protokoll damit verkürzt. Beim Start werden der
+ * letzte Snapshot geladen und die danach protokollierten Änderungen eingespielt.
+ * Von Aktualisierungen wird nur der seit dem letzten Schreiben hinzugekommene Teil
+ * der Historie protokolliert.
+ * <p>
+ * Status- und Fälligkeitsänderungen meldet die Aufgabe selbst über einen
+ * {@link TaskListener}; sie werden sofort protokolliert, z.B. nach {@link Tasks#complete()}.
+ * Titel und Beschreibung melden keine Änderung, danach muss {@link #updateTask(Tasks)}
+ * aufgerufen werden, sonst fehlen sie nach einem Neustart.
+ * <p>
+ * Eine Änderung ist im Speicher sichtbar, bevor ihr Gruppen-Commit geschrieben ist.
+ * Schlägt der Commit fehl, wird sie nicht zurückgenommen; die Ablage gilt dann als
+ * fehlerhaft und lehnt alle weiteren Änderungen und Snapshots mit einer Ausnahme ab.
+ * Lesen bleibt möglich, nach einem Neustart gilt der Stand des Protokolls.
+ */
+public class FileTaskRepository implements TaskRepository, ObservableRepository, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(FileTaskRepository.class);
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final String NAME = "tasks";
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_DELETE = 3;
+
+    private final InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+    private final Map<Tasks, Persisted> persisted = new IdentityHashMap<>();
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final ExecutorService checkpointExecutor =
+            Executors.newSingleThreadExecutor(BackgroundExecutors.daemonThreadFactory("tasks-checkpoint"));
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final int snapshotInterval;
+    private final SnapshotLog log;
+    private final TaskListener persistListener = new TaskListener() {
+        @Override
+        public void statusChanged(Tasks task, String oldStatus) {
+            persistDirectChange(task);
+        }
+
+        @Override
+        public void dueDateChanged(Tasks task, long oldDueEpochDay) {
+            persistDirectChange(task);
+        }
+    };
+
+    /**
+     * Zuletzt geschriebener Titel und Historienumfang einer Aufgabe
+     */
+    private static class Persisted {
+        String title;
+        int historyCount;
+
+        Persisted(String title, int historyCount) {
+            this.title = title;
+            this.historyCount = historyCount;
+        }
+    }
+
+    /**
+     * Unter der Sperre festgehaltener Stand einer Aufgabe, der danach ohne Sperre
+     * geschrieben werden kann
+     */
+    private static class TaskImage {
+        final String title;
+        final String description;
+        final String status;
+        final long dueEpochDay;
+        final RecordHistory.Entries history;
+
+        TaskImage(Tasks task) {
+            this.title = task.getTitle();
+            this.description = task.getDescription();
+            this.status = task.getStatus();
+            this.dueEpochDay = task.getDueEpochDay();
+            this.history = task.getHistoryEntries();
+        }
+    }
+
+    /**
+     * Zustand einer Aufgabe während des Wiedereinspielens
+     */
+    private static class TaskState {
+        String title;
+        String description;
+        String status;
+        long dueEpochDay;
+        final RecordHistory history;
+
+        TaskState(HistoryRetention retention) {
+            this.history = new RecordHistory(retention);
+        }
+    }
+
+    public FileTaskRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL, true);
+    }
+
+    /**
+     * @param snapshotInterval Anzahl protokollierter Änderungen, nach der ein Snapshot erstellt wird
+     * @param syncOnCommit     true, wenn jeder Gruppen-Commit per fsync geschrieben wird
+     */
+    public FileTaskRepository(Path directory, int snapshotInterval, boolean syncOnCommit) throws IOException {
+        this(directory, snapshotInterval, syncOnCommit, HistoryRetention.getDefault());
+    }
+
+    /**
+     * @param historyRetention Aufbewahrungsregel für die Historie der geladenen Aufgaben
+     */
+    public FileTaskRepository(Path directory, int snapshotInterval, boolean syncOnCommit,
+                              HistoryRetention historyRetention) throws IOException {
+        this.snapshotInterval = snapshotInterval;
+        Map<String, TaskState> states = new LinkedHashMap<>();
+        this.log = SnapshotLog.open(directory, NAME, syncOnCommit,
+                in -> readSnapshot(in, states, historyRetention), in -> readRecord(in, states, historyRetention));
+        for (TaskState state : states.values()) {
+            Tasks task = Tasks.restore(state.title, state.description, state.status, state.dueEpochDay,
+                    state.history);
+            tasks.addTask(task);
+            persisted.put(task, new Persisted(state.title, task.getHistoryEntryCount()));
+            task.addListener(persistListener);
+        }
+    }
+
+    @Override
+    public List<Tasks> getAllTasks() {
+        return tasks.getAllTasks();
+    }
+
+    /**
+     * Legt eine Aufgabe an. Eine vorhandene Aufgabe mit gleichem Titel wird ersetzt.
+     */
+    @Override
+    public void addTask(Tasks task) {
+        WriteAheadLog.Commit commit;
+        mutationLock.lock();
+        try {
+            if (persisted.containsKey(task)) {
+                // Bereits gespeicherte Instanz: wie eine Aktualisierung protokollieren
+                commit = enqueueUpdate(task, persisted.get(task));
+            } else {
+                commit = log.enqueue(encode(OP_ADD, null, task, 0));
+                persisted.put(task, new Persisted(task.getTitle(), task.getHistoryEntryCount()));
+                task.addListener(persistListener);
+            }
+            Tasks sameTitle = tasks.getTaskByTitle(task.getTitle());
+            if (sameTitle != task) {
+                forget(sameTitle);
+            }
+            tasks.addTask(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Aufgabe konnte nicht gespeichert werden: " + task.getTitle(), e);
+        } finally {
+            mutationLock.unlock();
+        }
+        commit(commit);
+    }
+
+    /**
+     * Speichert die Änderungen an einer Aufgabe. Ist die Instanz unbekannt, ersetzt sie
+     * die Aufgabe mit gleichem Titel; unbekannte Titel werden ignoriert.
+     */
+    @Override
+    public void updateTask(Tasks task) {
+        WriteAheadLog.Commit commit;
+        mutationLock.lock();
+        try {
+            Persisted state = persisted.get(task);
+            Tasks sameTitle = tasks.getTaskByTitle(task.getTitle());
+            if (state != null) {
+                commit = enqueueUpdate(task, state);
+            } else if (sameTitle != null) {
+                commit = log.enqueue(encode(OP_ADD, null, task, 0));
+                persisted.put(task, new Persisted(task.getTitle(), task.getHistoryEntryCount()));
+                task.addListener(persistListener);
+            } else {
+                return;
+            }
+            if (sameTitle != task) {
+                forget(sameTitle);
+            }
+            tasks.updateTask(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Aufgabe konnte nicht gespeichert werden: " + task.getTitle(), e);
+        } finally {
+            mutationLock.unlock();
+        }
+        commit(commit);
+    }
+
+    @Override
+    public void deleteTask(String title) {
+        WriteAheadLog.Commit commit;
+        mutationLock.lock();
+        try {
+            Tasks task = tasks.getTaskByTitle(title);
+            if (task == null) {
+                return;
+            }
+            commit = log.enqueue(encodeDelete(title));
+            forget(task);
+            tasks.deleteTask(title);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Aufgabe konnte nicht gelöscht werden: " + title, e);
+        } finally {
+            mutationLock.unlock();
+        }
+        commit(commit);
+    }
+
+    @Override
+    public Tasks getTaskByTitle(String title) {
+        return tasks.getTaskByTitle(title);
+    }
+
+    @Override
+    public List<Tasks> getTasksByStatus(String status) {
+        return tasks.getTasksByStatus(status);
+    }
+
+    @Override
+    public List<Tasks> getTasksDueBetween(LocalDate from, LocalDate to) {
+        return tasks.getTasksDueBetween(from, to);
+    }
+
+    @Override
+    public int countTasksDueBetween(String status, LocalDate from, LocalDate to) {
+        return tasks.countTasksDueBetween(status, from, to);
+    }
+
+    @Override
+    public int countTasks() {
+        return tasks.countTasks();
+    }
+
+    @Override
+    public List<Tasks> getTasks(int offset, int limit) {
+        return tasks.getTasks(offset, limit);
+    }
+
+    @Override
+    public TaskStatistics getStatistics(LocalDate today) {
+        return tasks.getStatistics(today);
+    }
+
+    @Override
+    public TaskSnapshot getSnapshot(LocalDate today) {
+        return tasks.getSnapshot(today);
+    }
+
+    public void verifyStatistics(LocalDate today) {
+        tasks.verifyStatistics(today);
+    }
+
+    /**
+     * Registriert einen Listener. Änderungen werden gemeldet, sobald sie im Speicher
+     * sichtbar sind, also bereits bevor der zugehörige Commit auf der Platte ist.
+     */
+    @Override
+    public void addChangeListener(RepositoryChangeListener listener) {
+        tasks.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RepositoryChangeListener listener) {
+        tasks.removeChangeListener(listener);
+    }
+
+    @Override
+    public long getDataVersion() {
+        return tasks.getDataVersion();
+    }
+
+    /**
+     * Erstellt einen Snapshot des aktuellen Bestands und verkürzt das Protokoll. Unter der
+     * Sperre werden nur die Felder und der Historienumfang jeder Aufgabe festgehalten;
+     * geschrieben wird danach, während weitere Änderungen ins neue Protokoll gehen.
+     */
+    public void checkpoint() throws IOException {
+        checkpointLock.lock();
+        try {
+            List<TaskImage> images;
+            long generation;
+            mutationLock.lock();
+            try {
+                List<Tasks> all = tasks.getAllTasks();
+                images = new ArrayList<>(all.size());
+                for (Tasks task : all) {
+                    images.add(new TaskImage(task));
+                }
+                generation = log.rotate();
+            } finally {
+                mutationLock.unlock();
+            }
+            long bytes = log.writeSnapshot(generation, out -> writeSnapshot(out, images));
+            logger.info("Snapshot der Aufgaben geschrieben ({} Aufgaben, {} Bytes)", images.size(), bytes);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Wartet auf einen laufenden Snapshot und schließt das Protokoll
+     */
+    @Override
+    public void close() throws IOException {
+        checkpointExecutor.shutdown();
+        try {
+            if (!checkpointExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("Snapshot der Aufgaben läuft beim Schließen noch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private void commit(WriteAheadLog.Commit commit) {
+        try {
+            log.await(commit);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Änderungsprotokoll der Aufgaben konnte nicht geschrieben werden", e);
+        }
+        if (log.getRecordsSinceSnapshot() >= snapshotInterval) {
+            scheduleCheckpoint();
+        }
+    }
+
+    /**
+     * Startet einen Snapshot im Hintergrund, sofern nicht bereits einer geplant ist
+     */
+    private void scheduleCheckpoint() {
+        if (!checkpointScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            checkpointExecutor.execute(() -> {
+                try {
+                    if (log.getRecordsSinceSnapshot() >= snapshotInterval) {
+                        checkpoint();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Snapshot der Aufgaben fehlgeschlagen", e);
+                } finally {
+                    checkpointScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Ablage wird geschlossen
+            checkpointScheduled.set(false);
+        }
+    }
+
+    private WriteAheadLog.Commit enqueueUpdate(Tasks task, Persisted state) throws IOException {
+        int historyFrom = Math.min(state.historyCount, task.getHistoryEntryCount());
+        WriteAheadLog.Commit commit = log.enqueue(encode(OP_UPDATE, state.title, task, historyFrom));
+        state.title = task.getTitle();
+        state.historyCount = task.getHistoryEntryCount();
+        return commit;
+    }
+
+    private void forget(Tasks task) {
+        if (task != null) {
+            persisted.remove(task);
+            task.removeListener(persistListener);
+        }
+    }
+
+    /**
+     * Protokolliert eine direkt an der Aufgabe vorgenommene Status- oder Fälligkeitsänderung
+     */
+    private void persistDirectChange(Tasks task) {
+        WriteAheadLog.Commit commit;
+        mutationLock.lock();
+        try {
+            Persisted state = persisted.get(task);
+            if (state == null) {
+                // nicht mehr in der Ablage
+                return;
+            }
+            commit = enqueueUpdate(task, state);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Aufgabe konnte nicht gespeichert werden: " + task.getTitle(), e);
+        } finally {
+            mutationLock.unlock();
+        }
+        commit(commit);
+    }
+
+    private byte[] encode(byte operation, String previousTitle, Tasks task, int historyFrom) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(operation);
+        if (operation == OP_UPDATE) {
+            BinaryCodec.writeString(out, previousTitle);
+        }
+        writeTask(out, new TaskImage(task), historyFrom);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelete(String title) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_DELETE);
+        BinaryCodec.writeString(out, title);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeSnapshot(DataOutputStream out, List<TaskImage> images) throws IOException {
+        out.writeInt(images.size());
+        for (TaskImage image : images) {
+            writeTask(out, image, 0);
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, TaskImage task, int historyFrom) throws IOException {
+        BinaryCodec.writeString(out, task.title);
+        BinaryCodec.writeString(out, task.description);
+        BinaryCodec.writeString(out, task.status);
+        out.writeLong(task.dueEpochDay);
+        out.writeInt(task.history.size() - historyFrom);
+        try {
+            task.history.forEachEntry(historyFrom, (event, timestamp, argument) -> {
+                try {
+                    out.writeByte(event.ordinal());
+                    out.writeLong(timestamp);
+                    BinaryCodec.writeString(out, argument);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void readTask(DataInputStream in, TaskState state) throws IOException {
+        state.title = BinaryCodec.readString(in);
+        state.description = BinaryCodec.readString(in);
+        state.status = BinaryCodec.readString(in);
+        state.dueEpochDay = in.readLong();
+        int entries = in.readInt();
+        HistoryEvent[] events = HistoryEvent.values();
+        for (int i = 0; i < entries; i++) {
+            HistoryEvent event = events[in.readByte()];
+            long timestamp = in.readLong();
+            state.history.restoreEntry(event, timestamp, BinaryCodec.readString(in));
+        }
+    }
+
+    private static void readSnapshot(DataInputStream in, Map<String, TaskState> states, HistoryRetention retention)
+            throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            TaskState state = new TaskState(retention);
+            readTask(in, state);
+            states.put(state.title, state);
+        }
+    }
+
+    private static void readRecord(DataInputStream in, Map<String, TaskState> states, HistoryRetention retention)
+            throws IOException {
+        byte operation = in.readByte();
+        switch (operation) {
+            case OP_ADD: {
+                TaskState state = new TaskState(retention);
+                readTask(in, state);
+                states.remove(state.title);
+                states.put(state.title, state);
+                break;
+            }
+            case OP_UPDATE: {
+                String previousTitle = BinaryCodec.readString(in);
+                TaskState state = states.remove(previousTitle);
+                if (state == null) {
+                    logger.warn("Aktualisierung einer unbekannten Aufgabe im Protokoll: {}", previousTitle);
+                    state = new TaskState(retention);
+                }
+                readTask(in, state);
+                states.remove(state.title);
+                states.put(state.title, state);
+                break;
+            }
+            case OP_DELETE:
+                states.remove(BinaryCodec.readString(in));
+                break;
+            default:
+                throw new IOException("Unbekannter Protokolleintrag: " + operation);
+        }
+    }
+}
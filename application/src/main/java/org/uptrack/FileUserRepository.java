@@ -0,0 +1,296 @@
+package org.uptrack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * Dauerhafte Benutzerablage. Änderungen werden innerhalb der atomaren Operationen der
+ * {@link ConcurrentUserRepository} in ein Änderungsprotokoll mit Gruppen-Commit
+ * aufgenommen, sodass die Reihenfolge je Benutzer im Protokoll der im Speicher
+ * entspricht. Gewartet wird erst nach Freigabe des Eintrags, gleichzeitige Änderungen
+ * werden so gemeinsam geschrieben. Der Admin-Benutzer wird nur in einem leeren
+ * Verzeichnis angelegt.
+ * <p>
+ * Passwörter werden wie im Speicher im Klartext abgelegt. Das Verzeichnis wird daher,
+ * wo das Dateisystem POSIX-Rechte kennt, beim Öffnen auf den Eigentümer beschränkt
+ * (rwx------); auf anderen Systemen muss der Zugriff anderweitig geschützt werden.
+ * Benutzertypen außer {@link Admin} werden mit ihrem Klassennamen gespeichert und beim
+ * Laden über einen Konstruktor (Benutzername, Passwort) erzeugt.
+ * <p>
+ * Schlägt ein Gruppen-Commit fehl, bleibt die Änderung im Speicher sichtbar; die Ablage
+ * gilt dann als fehlerhaft und lehnt alle weiteren Änderungen und Snapshots mit einer
+ * Ausnahme ab. Nach einem Neustart gilt der Stand des Protokolls.
+ */
+public class FileUserRepository extends ConcurrentUserRepository implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(FileUserRepository.class);
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+    private static final String NAME = "users";
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte TYPE_ADMIN = 1;
+    private static final byte TYPE_CLASS = 2;
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private static final Map<String, Constructor<? extends User>> constructors = new ConcurrentHashMap<>();
+
+    // Änderungen teilen sich die Sperre, der Snapshot erfasst den Stand exklusiv
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final int snapshotInterval;
+    private final SnapshotLog log;
+
+    public FileUserRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL, true);
+    }
+
+    /**
+     * @param snapshotInterval Anzahl protokollierter Änderungen, nach der ein Snapshot erstellt wird
+     * @param syncOnCommit     true, wenn jeder Gruppen-Commit per fsync geschrieben wird
+     */
+    public FileUserRepository(Path directory, int snapshotInterval, boolean syncOnCommit) throws IOException {
+        super(false);
+        this.snapshotInterval = snapshotInterval;
+        Files.createDirectories(directory);
+        restrictToOwner(directory);
+        Map<String, User> users = new LinkedHashMap<>();
+        boolean[] recovered = new boolean[1];
+        this.log = SnapshotLog.open(directory, NAME, syncOnCommit,
+                in -> {
+                    recovered[0] = true;
+                    readSnapshot(in, users);
+                },
+                in -> {
+                    recovered[0] = true;
+                    readRecord(in, users);
+                });
+        for (User user : users.values()) {
+            super.addUser(user);
+        }
+        if (!recovered[0]) {
+            // Initialisiere mit Admin-Benutzer
+            addUser(new Admin("admin", "password"));
+        }
+    }
+
+    @Override
+    public void addUser(User user) {
+        mutate(user.getUsername(), (name, existing) -> user, true);
+    }
+
+    @Override
+    public boolean addUserIfAbsent(User user) {
+        boolean[] added = new boolean[1];
+        mutate(user.getUsername(), (name, existing) -> {
+            added[0] = existing == null;
+            return existing == null ? user : existing;
+        }, false);
+        return added[0];
+    }
+
+    @Override
+    public void updateUser(User user) {
+        mutate(user.getUsername(), (name, existing) -> existing == null ? null : user, true);
+    }
+
+    @Override
+    public User computeUser(String username, BiFunction<String, User, User> remapping) {
+        return mutate(username, remapping, true);
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        mutate(username, (name, existing) -> null, true);
+    }
+
+    /**
+     * Erstellt einen Snapshot des aktuellen Bestands und verkürzt das Protokoll
+     */
+    public void checkpoint() throws IOException {
+        checkpointLock.lock();
+        try {
+            List<User> users;
+            long generation;
+            snapshotLock.writeLock().lock();
+            try {
+                users = getAllUsers();
+                generation = log.rotate();
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+            // Spätere Änderungen stehen vollständig im neuen Protokoll und überschreiben beim
+            // Einspielen, was der Snapshot davon bereits enthält
+            long bytes = log.writeSnapshot(generation, out -> writeSnapshot(out, users));
+            logger.info("Snapshot der Benutzer geschrieben ({} Bytes)", bytes);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * Führt eine Änderung atomar aus und protokolliert sie. Da Benutzer veränderlich sind,
+     * wird auch ein unverändert zurückgegebener Eintrag protokolliert, außer bei logUnchanged false.
+     */
+    private User mutate(String username, BiFunction<String, User, User> remapping, boolean logUnchanged) {
+        WriteAheadLog.Commit[] commit = new WriteAheadLog.Commit[1];
+        User result;
+        snapshotLock.readLock().lock();
+        try {
+            result = super.computeUser(username, (name, existing) -> {
+                User updated = remapping.apply(name, existing);
+                try {
+                    if (updated != null && (logUnchanged || updated != existing)) {
+                        commit[0] = log.enqueue(encodePut(updated));
+                    } else if (updated == null && existing != null) {
+                        commit[0] = log.enqueue(encodeDelete(name));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Benutzer konnte nicht gespeichert werden: " + name, e);
+                }
+                return updated;
+            });
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if (commit[0] != null) {
+            commit(commit[0]);
+        }
+        return result;
+    }
+
+    private void commit(WriteAheadLog.Commit commit) {
+        try {
+            log.await(commit);
+            if (log.getRecordsSinceSnapshot() >= snapshotInterval && checkpointLock.tryLock()) {
+                try {
+                    if (log.getRecordsSinceSnapshot() >= snapshotInterval) {
+                        checkpoint();
+                    }
+                } finally {
+                    checkpointLock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Änderungsprotokoll der Benutzer konnte nicht geschrieben werden", e);
+        }
+    }
+
+    private static byte[] encodePut(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_PUT);
+        writeUser(out, user);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelete(String username) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_DELETE);
+        BinaryCodec.writeString(out, username);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeSnapshot(DataOutputStream out, List<User> users) throws IOException {
+        out.writeInt(users.size());
+        for (User user : users) {
+            writeUser(out, user);
+        }
+    }
+
+    private static void restrictToOwner(Path directory) throws IOException {
+        if (Files.getFileAttributeView(directory, PosixFileAttributeView.class) == null) {
+            logger.debug("Keine POSIX-Rechte für {}, Zugriff wird nicht eingeschränkt", directory);
+            return;
+        }
+        Files.setPosixFilePermissions(directory, OWNER_ONLY);
+    }
+
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        if (user.getClass() == Admin.class) {
+            out.writeByte(TYPE_ADMIN);
+        } else {
+            out.writeByte(TYPE_CLASS);
+            BinaryCodec.writeString(out, user.getClass().getName());
+        }
+        BinaryCodec.writeString(out, user.getUsername());
+        BinaryCodec.writeString(out, user.getPassword());
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == TYPE_ADMIN) {
+            return new Admin(BinaryCodec.readString(in), BinaryCodec.readString(in));
+        }
+        if (type != TYPE_CLASS) {
+            throw new IOException("Unbekannter Benutzertyp im Protokoll: " + type);
+        }
+        String className = BinaryCodec.readString(in);
+        String username = BinaryCodec.readString(in);
+        String password = BinaryCodec.readString(in);
+        try {
+            return constructorOf(className).newInstance(username, password);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IOException("Benutzertyp kann nicht erzeugt werden: " + className, e);
+        }
+    }
+
+    private static Constructor<? extends User> constructorOf(String className) throws ReflectiveOperationException {
+        Constructor<? extends User> constructor = constructors.get(className);
+        if (constructor == null) {
+            Class<? extends User> type = Class.forName(className).asSubclass(User.class);
+            constructor = type.getDeclaredConstructor(String.class, String.class);
+            constructors.put(className, constructor);
+        }
+        return constructor;
+    }
+
+    private static void readSnapshot(DataInputStream in, Map<String, User> users) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            User user = readUser(in);
+            users.put(user.getUsername(), user);
+        }
+    }
+
+    private static void readRecord(DataInputStream in, Map<String, User> users) throws IOException {
+        byte operation = in.readByte();
+        if (operation == OP_PUT) {
+            User user = readUser(in);
+            users.put(user.getUsername(), user);
+        } else if (operation == OP_DELETE) {
+            users.remove(BinaryCodec.readString(in));
+        } else {
+            throw new IOException("Unbekannter Protokolleintrag: " + operation);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.uptrack;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gibt den Bericht als eigenständiges HTML-Dokument aus
+ */
+class HtmlReportRenderer implements ReportRenderer {
+    private final Writer out;
+
+    HtmlReportRenderer(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginReport(LocalDateTime generatedAt) throws IOException {
+        out.write("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>UpTrack Report</title></head><body>\n");
+        out.write("<h1>UpTrack Systemreport</h1>\n");
+        out.write("<p>Generiert am: ");
+        out.write(generatedAt.format(GENERATED_AT_FORMAT));
+        out.write("</p>\n");
+    }
+
+    @Override
+    public void beginUserSection(int totalUsers) throws IOException {
+        out.write("<h2>Benutzerinformationen</h2>\n");
+        out.write("<p>Gesamtanzahl Benutzer: ");
+        out.write(Integer.toString(totalUsers));
+        out.write("</p>\n");
+        out.write("<table>\n<tr><th>Benutzername</th><th>Benutzertyp</th><th>Status</th></tr>\n");
+    }
+
+    @Override
+    public void userRow(User user, String userType, boolean active) throws IOException {
+        out.write("<tr><td>");
+        writeEscaped(user.getUsername());
+        out.write("</td><td>");
+        writeEscaped(userType);
+        out.write("</td><td>");
+        out.write(active ? "Aktiv" : "Inaktiv");
+        out.write("</td></tr>\n");
+    }
+
+    @Override
+    public void endUserSection() throws IOException {
+        out.write("</table>\n");
+    }
+
+    @Override
+    public void userStatistics(ReportData data) throws IOException {
+        out.write("<h3>Benutzerstatistiken</h3>\n<ul>\n");
+        writeItem("Aktive Benutzer", Integer.toString(data.activeUserCount));
+        writeItem("Inaktive Benutzer", Integer.toString(data.inactiveUserCount));
+        out.write("</ul>\n<p>Benutzertypen:</p>\n");
+        writeCounts(data.userTypeCounts);
+    }
+
+    @Override
+    public void beginTaskSection(int totalTasks) throws IOException {
+        out.write("<h2>Aufgabeninformationen</h2>\n");
+        out.write("<p>Gesamtanzahl Aufgaben: ");
+        out.write(Integer.toString(totalTasks));
+        out.write("</p>\n");
+        out.write("<table>\n<tr><th>Titel</th><th>Beschreibung</th><th>Status</th>"
+                + "<th>Fälligkeitsdatum</th><th>Zugewiesen an</th><th>Historie</th></tr>\n");
+    }
+
+    @Override
+    public void taskRow(Tasks task, String assignedUser) throws IOException {
+        out.write("<tr><td>");
+        writeEscaped(task.getTitle());
+        out.write("</td><td>");
+        writeEscaped(task.getDescription());
+        out.write("</td><td>");
+        writeEscaped(task.getStatus());
+        out.write("</td><td>");
+        writeEscaped(task.getDueDate());
+        out.write("</td><td>");
+        writeEscaped(assignedUser);
+        out.write("</td><td>");
+
+        // Aufgabenhistorie ausgeben
+        List<String> history = task.getHistory();
+        if (!history.isEmpty()) {
+            out.write("<ol>");
+            for (String entry : history) {
+                out.write("<li>");
+                writeEscaped(entry);
+                out.write("</li>");
+            }
+            out.write("</ol>");
+        }
+        out.write("</td></tr>\n");
+    }
+
+    @Override
+    public void endTaskSection() throws IOException {
+        out.write("</table>\n");
+    }
+
+    @Override
+    public void taskStatistics(ReportData data) throws IOException {
+        out.write("<h3>Aufgabenstatistiken</h3>\n<ul>\n");
+        writeItem("Abgeschlossene Aufgaben", data.completedTasks
+                + " (" + ReportRenderer.percent(data.completionRate) + "%)");
+        writeItem("Offene Aufgaben", Integer.toString(data.openTasks));
+        writeItem("Abgebrochene Aufgaben", Integer.toString(data.canceledTasks));
+        writeItem("Überfällige Aufgaben", Integer.toString(data.overdueCount));
+        writeItem("In den nächsten 7 Tagen fällig", Integer.toString(data.dueSoonCount));
+        out.write("</ul>\n<p>Status-Übersicht:</p>\n");
+        writeCounts(data.taskStatusCounts);
+
+        // Benutzerproduktivität ausgeben
+        out.write("<h3>Benutzerproduktivität</h3>\n");
+        out.write("<table>\n<tr><th>Benutzer</th><th>Aufgaben</th><th>Abgeschlossen</th><th>Quote</th></tr>\n");
+        for (Map.Entry<String, ReportData.Productivity> entry : data.userProductivity.entrySet()) {
+            ReportData.Productivity productivity = entry.getValue();
+
+            out.write("<tr><td>");
+            writeEscaped(entry.getKey());
+            out.write("</td><td>");
+            out.write(Integer.toString(productivity.totalTasks));
+            out.write("</td><td>");
+            out.write(Integer.toString(productivity.completedTasks));
+            out.write("</td><td>");
+            out.write(ReportRenderer.percent(productivity.completionRate()));
+            out.write("%</td></tr>\n");
+        }
+        out.write("</table>\n");
+    }
+
+    @Override
+    public void visualizations(ReportData data) throws IOException {
+        out.write("<h2>Visualisierungen</h2>\n");
+        out.write("<h3>Aufgabenstatus-Verteilung</h3>\n");
+        out.write("<p>[Hier würde ein Statusverteilungs-Diagramm angezeigt]</p>\n");
+        out.write("<h3>Benutzeraktivität</h3>\n");
+        out.write("<p>[Hier würde ein Benutzeraktivitäts-Diagramm angezeigt]</p>\n");
+    }
+
+    @Override
+    public void endReport() throws IOException {
+        out.write("</body></html>\n");
+    }
+
+    private void writeCounts(Map<String, Integer> counts) throws IOException {
+        out.write("<ul>\n");
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            writeItem(entry.getKey(), Integer.toString(entry.getValue()));
+        }
+        out.write("</ul>\n");
+    }
+
+    private void writeItem(String label, String value) throws IOException {
+        out.write("<li>");
+        writeEscaped(label);
+        out.write(": ");
+        writeEscaped(value);
+        out.write("</li>\n");
+    }
+
+    /**
+     * Schreibt Text mit maskierten HTML-Sonderzeichen
+     */
+    private void writeEscaped(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '&': replacement = "&amp;"; break;
+                case '"': replacement = "&quot;"; break;
+                default: continue;
+            }
+            out.write(text, start, i - start);
+            out.write(replacement);
+            start = i + 1;
+        }
+        out.write(text, start, text.length() - start);
+    }
+}
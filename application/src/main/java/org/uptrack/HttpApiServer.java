@@ -0,0 +1,721 @@
+package org.uptrack;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eingebetteter HTTP-Server mit JSON-Schnittstelle, über den andere Systeme Benutzer
+ * verwalten, Aufgaben abfragen und Berichte erzeugen, ohne die Oberfläche zu benutzen.
+ * Jede Anfrage läuft auf einem eigenen virtuellen Thread (ab Java 21), auf älteren JVMs
+ * auf einem Pool aus Daemon-Threads (siehe {@link BackgroundExecutors}). Anfragen, die
+ * auf eine Ablage warten, belegen so keinen knappen Worker. Berichte werden im
+ * Hintergrund erzeugt; die Anfrage kehrt sofort mit einer Auftragsnummer zurück.
+ * <pre>
+ * GET    /api/users?offset=0&amp;limit=100              Seite, nach Benutzername sortiert
+ * GET    /api/users?q=anna&amp;mode=prefix&amp;ignoreCase=true&amp;limit=20
+ * POST   /api/users                                 {"username": "...", "password": "..."}
+ * GET    /api/users/{name}
+ * PUT    /api/users/{name}                          {"password": "..."}
+ * DELETE /api/users/{name}
+ * GET    /api/tasks?status=Offen&amp;dueFrom=2024-01-01&amp;dueTo=2024-01-31&amp;offset=0&amp;limit=100
+ * GET    /api/tasks/{title}
+ * GET    /api/statistics?today=2024-01-15
+ * POST   /api/reports                               {"format": "html", "includeTasks": true, ...}
+ * GET    /api/reports
+ * GET    /api/reports/{id}                          Fortschritt bzw. Ergebnis
+ * GET    /api/reports/{id}/file
+ * DELETE /api/reports/{id}                          bricht die Erzeugung ab
+ * GET    /api/metrics                               Messwerte, siehe {@link MetricsRegistry#toJson()}
+ * </pre>
+ * Passwörter werden nie ausgegeben. Berichte landen immer im beim Erzeugen angegebenen
+ * Verzeichnis, Aufrufer können keinen Pfad wählen. Die Schnittstelle prüft keine
+ * Anmeldung und sollte daher nur an localhost oder hinter einem Proxy gebunden werden.
+ */
+public class HttpApiServer {
+    private static final Logger logger = LoggerFactory.getLogger(HttpApiServer.class);
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+    static final int MAX_BODY_BYTES = 64 * 1024;
+    /** Anzahl fertiger Berichtsaufträge, deren Ergebnis abrufbar bleibt */
+    static final int MAX_REPORT_JOBS = 256;
+    /** Warteschlange für noch nicht angenommene Verbindungen */
+    private static final int BACKLOG = 1024;
+    private static final String PREFIX = "/api/";
+
+    private final UserService userService;
+    private final TaskRepository taskRepository;
+    private final ReportGenerator reportGenerator;
+    private final String reportDirectory;
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final ConcurrentNavigableMap<Long, ReportJob> reportJobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong reportIds = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param reportDirectory Verzeichnis für alle über die Schnittstelle erzeugten Berichte
+     */
+    public HttpApiServer(UserService userService, TaskRepository taskRepository, ReportGenerator reportGenerator,
+                         String reportDirectory) {
+        this.userService = userService;
+        this.taskRepository = taskRepository;
+        this.reportGenerator = reportGenerator;
+        this.reportDirectory = reportDirectory;
+    }
+
+    /**
+     * Startet den Server; Port 0 wählt einen freien Port, siehe {@link #getPort()}
+     */
+    public synchronized void start(InetSocketAddress address) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server läuft bereits");
+        }
+        HttpServer created = HttpServer.create(address, BACKLOG);
+        created.createContext(PREFIX, this::handle);
+        executor = BackgroundExecutors.newTaskExecutor("http");
+        created.setExecutor(executor);
+        created.start();
+        server = created;
+        logger.info("HTTP-Schnittstelle läuft auf {}:{}", address.getHostString(), getPort());
+    }
+
+    /**
+     * Beendet den Server. Laufende Anfragen haben höchstens delaySeconds Zeit, laufende
+     * Berichte werden im Hintergrund fertiggestellt.
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+        server.stop(delaySeconds);
+        executor.shutdown();
+        server = null;
+        executor = null;
+        logger.info("HTTP-Schnittstelle beendet");
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Server läuft nicht");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Fehler, der als Antwort mit eigenem Statuscode gemeldet wird
+     */
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Ein über die Schnittstelle gestarteter Bericht
+     */
+    private static class ReportJob {
+        final long id;
+        final String format;
+        /** wird vor der Aufnahme in {@link #reportJobs} gesetzt */
+        CompletableFuture<ReportResult> future;
+        volatile int completedSections;
+        volatile int totalSections;
+
+        ReportJob(long id, String format) {
+            this.id = id;
+            this.format = format;
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        long start = metrics.startTimer();
+        int status = -1;
+        try {
+            status = dispatch(exchange);
+        } catch (ApiException e) {
+            status = sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // meist hat der Aufrufer die Verbindung vorher geschlossen
+            logger.debug("Antwort auf {} {} nicht zustellbar: {}", exchange.getRequestMethod(),
+                    exchange.getRequestURI(), e.toString());
+        } catch (RuntimeException e) {
+            logger.error("Fehler bei {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            status = sendError(exchange, 500, "Interner Fehler");
+        } finally {
+            exchange.close();
+        }
+        metrics.stopTimer("http.requests", start);
+        metrics.increment(status < 0 ? "http.aborted" : "http.status." + status);
+    }
+
+    private int dispatch(HttpExchange exchange) throws IOException {
+        List<String> path = pathSegments(exchange);
+        Map<String, String> query = queryParameters(exchange);
+        switch (path.isEmpty() ? "" : path.get(0)) {
+            case "users":
+                return handleUsers(exchange, path, query);
+            case "tasks":
+                return handleTasks(exchange, path, query);
+            case "statistics":
+                requireMethod(exchange, "GET");
+                if (path.size() != 1) {
+                    throw notFound(exchange);
+                }
+                return sendStatistics(exchange, query);
+            case "reports":
+                return handleReports(exchange, path);
+            case "metrics":
+                requireMethod(exchange, "GET");
+                return send(exchange, 200, metrics.toJson());
+            default:
+                throw notFound(exchange);
+        }
+    }
+
+    // Benutzer
+
+    private int handleUsers(HttpExchange exchange, List<String> path, Map<String, String> query) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.size() == 1) {
+            if ("GET".equals(method)) {
+                return query.containsKey("q") ? searchUsers(exchange, query) : listUsers(exchange, query);
+            }
+            if ("POST".equals(method)) {
+                return createUser(exchange);
+            }
+            throw methodNotAllowed(method);
+        }
+        if (path.size() != 2) {
+            throw notFound(exchange);
+        }
+        String username = path.get(1);
+        switch (method) {
+            case "GET": {
+                User user = userService.getUser(username);
+                if (user == null) {
+                    throw userNotFound(username);
+                }
+                StringBuilder json = new StringBuilder();
+                appendUser(json, user);
+                return send(exchange, 200, json);
+            }
+            case "PUT": {
+                String password = requiredString(readBody(exchange), "password");
+                User updated = userService.updateUser(username, password);
+                if (updated == null) {
+                    throw userNotFound(username);
+                }
+                // Nicht erneut lesen, ein gleichzeitiges DELETE könnte ihn schon entfernt haben
+                StringBuilder json = new StringBuilder();
+                appendUser(json, updated);
+                return send(exchange, 200, json);
+            }
+            case "DELETE":
+                if (userService.getUser(username) == null) {
+                    throw userNotFound(username);
+                }
+                userService.deleteUser(username);
+                return sendEmpty(exchange, 204);
+            default:
+                throw methodNotAllowed(method);
+        }
+    }
+
+    private int listUsers(HttpExchange exchange, Map<String, String> query) throws IOException {
+        int offset = intParameter(query, "offset", 0);
+        int limit = limit(query);
+        List<User> page = userService.getUserPage(offset, limit);
+        StringBuilder json = new StringBuilder(64 + page.size() * 48);
+        json.append("{\"total\": ").append(userService.countUsers())
+                .append(", \"offset\": ").append(offset)
+                .append(", \"limit\": ").append(limit)
+                .append(", \"users\": ");
+        appendUsers(json, page);
+        return send(exchange, 200, json.append('}'));
+    }
+
+    private int searchUsers(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String term = query.get("q");
+        String mode = query.getOrDefault("mode", "substring");
+        SearchableUserRepository.MatchMode matchMode;
+        if ("prefix".equals(mode)) {
+            matchMode = SearchableUserRepository.MatchMode.PREFIX;
+        } else if ("substring".equals(mode)) {
+            matchMode = SearchableUserRepository.MatchMode.SUBSTRING;
+        } else {
+            throw new IllegalArgumentException("Parameter mode erwartet prefix oder substring: " + mode);
+        }
+        boolean ignoreCase = Boolean.parseBoolean(query.get("ignoreCase"));
+        List<User> found = userService.searchUsers(term, matchMode, ignoreCase, limit(query));
+        StringBuilder json = new StringBuilder(32 + found.size() * 48);
+        json.append("{\"count\": ").append(found.size()).append(", \"users\": ");
+        appendUsers(json, found);
+        return send(exchange, 200, json.append('}'));
+    }
+
+    private int createUser(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String username = requiredString(body, "username");
+        String password = requiredString(body, "password");
+        if (username.isBlank() || username.contains("/")) {
+            throw new IllegalArgumentException("Ungültiger Benutzername: " + username);
+        }
+        if (!userService.registerUserIfAbsent(username, password)) {
+            throw new ApiException(409, "Benutzer existiert bereits: " + username);
+        }
+        exchange.getResponseHeaders().set("Location", PREFIX + "users/" + username);
+        StringBuilder json = new StringBuilder();
+        appendUser(json, userService.getUser(username));
+        return send(exchange, 201, json);
+    }
+
+    private static void appendUsers(StringBuilder json, List<User> users) {
+        json.append('[');
+        for (int i = 0; i < users.size(); i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            appendUser(json, users.get(i));
+        }
+        json.append(']');
+    }
+
+    private static void appendUser(StringBuilder json, User user) {
+        json.append("{\"username\": ");
+        Json.appendString(json, user.getUsername());
+        json.append(", \"type\": ");
+        Json.appendString(json, user.getClass().getSimpleName());
+        json.append('}');
+    }
+
+    private static ApiException userNotFound(String username) {
+        return new ApiException(404, "Benutzer nicht gefunden: " + username);
+    }
+
+    // Aufgaben
+
+    private int handleTasks(HttpExchange exchange, List<String> path, Map<String, String> query) throws IOException {
+        requireMethod(exchange, "GET");
+        if (path.size() == 2) {
+            Tasks task = taskRepository.getTaskByTitle(path.get(1));
+            if (task == null) {
+                throw new ApiException(404, "Aufgabe nicht gefunden: " + path.get(1));
+            }
+            StringBuilder json = new StringBuilder();
+            appendTask(json, task);
+            return send(exchange, 200, json);
+        }
+        if (path.size() != 1) {
+            throw notFound(exchange);
+        }
+
+        int offset = intParameter(query, "offset", 0);
+        int limit = limit(query);
+        String status = query.get("status");
+        String dueFrom = query.get("dueFrom");
+        String dueTo = query.get("dueTo");
+        if (status == null && dueFrom == null && dueTo == null) {
+            // Ohne Filter nur den Ausschnitt lesen statt alle Aufgaben zu kopieren
+            return sendTaskPage(exchange, taskRepository.countTasks(), offset, limit,
+                    taskRepository.getTasks(offset, limit));
+        }
+        List<Tasks> tasks;
+        if (dueFrom != null || dueTo != null) {
+            LocalDate from = dueFrom != null ? date(dueFrom, "dueFrom") : LocalDate.MIN;
+            LocalDate to = dueTo != null ? date(dueTo, "dueTo") : LocalDate.MAX;
+            tasks = taskRepository.getTasksDueBetween(from, to);
+            if (status != null) {
+                List<Tasks> withStatus = new ArrayList<>();
+                for (Tasks task : tasks) {
+                    if (status.equals(task.getStatus())) {
+                        withStatus.add(task);
+                    }
+                }
+                tasks = withStatus;
+            }
+        } else {
+            tasks = taskRepository.getTasksByStatus(status);
+        }
+
+        int from = Math.min(offset, tasks.size());
+        int to = (int) Math.min((long) from + limit, tasks.size());
+        return sendTaskPage(exchange, tasks.size(), offset, limit, tasks.subList(from, to));
+    }
+
+    private int sendTaskPage(HttpExchange exchange, int total, int offset, int limit, List<Tasks> page)
+            throws IOException {
+        StringBuilder json = new StringBuilder(64 + page.size() * 128);
+        json.append("{\"total\": ").append(total)
+                .append(", \"offset\": ").append(offset)
+                .append(", \"limit\": ").append(limit)
+                .append(", \"tasks\": [");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            appendTask(json, page.get(i));
+        }
+        return send(exchange, 200, json.append("]}"));
+    }
+
+    private static void appendTask(StringBuilder json, Tasks task) {
+        json.append("{\"title\": ");
+        Json.appendString(json, task.getTitle());
+        json.append(", \"description\": ");
+        Json.appendString(json, task.getDescription());
+        json.append(", \"status\": ");
+        Json.appendString(json, task.getStatus());
+        json.append(", \"dueDate\": ");
+        Json.appendString(json, task.getDueDate());
+        json.append(", \"historyEntries\": ").append(task.getHistoryEntryCount()).append('}');
+    }
+
+    private int sendStatistics(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String today = query.get("today");
+        TaskStatistics statistics = taskRepository.getStatistics(today != null ? date(today, "today") : LocalDate.now());
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"total\": ").append(statistics.getTotalTasks())
+                .append(", \"open\": ").append(statistics.getOpenTasks())
+                .append(", \"completed\": ").append(statistics.getCompletedTasks())
+                .append(", \"canceled\": ").append(statistics.getCanceledTasks())
+                .append(", \"overdue\": ").append(statistics.getOverdueTasks())
+                .append(", \"dueSoon\": ").append(statistics.getDueSoonTasks())
+                .append(", \"completionRate\": ").append(statistics.getCompletionRate())
+                .append(", \"statusCounts\": {");
+        String separator = "";
+        for (Map.Entry<String, Integer> entry : statistics.getStatusCounts().entrySet()) {
+            json.append(separator);
+            Json.appendString(json, entry.getKey());
+            json.append(": ").append(entry.getValue());
+            separator = ", ";
+        }
+        return send(exchange, 200, json.append("}}"));
+    }
+
+    // Berichte
+
+    private int handleReports(HttpExchange exchange, List<String> path) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.size() == 1) {
+            if ("POST".equals(method)) {
+                return startReport(exchange);
+            }
+            if ("GET".equals(method)) {
+                StringBuilder json = new StringBuilder("{\"reports\": [");
+                String separator = "";
+                for (ReportJob job : reportJobs.values()) {
+                    json.append(separator);
+                    appendJob(json, job);
+                    separator = ", ";
+                }
+                return send(exchange, 200, json.append("]}"));
+            }
+            throw methodNotAllowed(method);
+        }
+
+        ReportJob job = reportJob(path.get(1));
+        if (path.size() == 3 && "file".equals(path.get(2))) {
+            requireMethod(exchange, "GET");
+            return sendReportFile(exchange, job);
+        }
+        if (path.size() != 2) {
+            throw notFound(exchange);
+        }
+        switch (method) {
+            case "GET":
+                break;
+            case "DELETE":
+                job.future.cancel(true);
+                break;
+            default:
+                throw methodNotAllowed(method);
+        }
+        StringBuilder json = new StringBuilder();
+        appendJob(json, job);
+        return send(exchange, 200, json);
+    }
+
+    private int startReport(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String format = requiredString(body, "format");
+        if (!ReportGenerator.isValidFormat(format)) {
+            throw new IllegalArgumentException("Ungültiges Format: " + format + ". Erlaubte Formate: html, txt, csv, pdf");
+        }
+        ReportGenerator.ReportConfig config = new ReportGenerator.ReportConfig(format, reportDirectory)
+                .setIncludeUsers(optionalBoolean(body, "includeUsers", true))
+                .setIncludeTasks(optionalBoolean(body, "includeTasks", true))
+                .setIncludeStatistics(optionalBoolean(body, "includeStatistics", true))
+                .setIncludeCharts(optionalBoolean(body, "includeCharts", false));
+
+        long id = reportIds.incrementAndGet();
+        ReportJob job = new ReportJob(id, format);
+        job.future = reportGenerator.generateReportAsync(config, (section, completedSections, totalSections) -> {
+            job.totalSections = totalSections;
+            job.completedSections = completedSections;
+        });
+        reportJobs.put(id, job);
+        pruneReportJobs();
+
+        exchange.getResponseHeaders().set("Location", PREFIX + "reports/" + id);
+        StringBuilder json = new StringBuilder();
+        appendJob(json, job);
+        return send(exchange, 202, json);
+    }
+
+    /**
+     * Vergisst die ältesten fertigen Aufträge, laufende bleiben erhalten
+     */
+    private void pruneReportJobs() {
+        Iterator<ReportJob> jobs = reportJobs.values().iterator();
+        while (reportJobs.size() > MAX_REPORT_JOBS && jobs.hasNext()) {
+            if (jobs.next().future.isDone()) {
+                jobs.remove();
+            }
+        }
+    }
+
+    private ReportJob reportJob(String id) {
+        ReportJob job = null;
+        try {
+            job = reportJobs.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            // unbekannt wie jede andere Nummer
+        }
+        if (job == null) {
+            throw new ApiException(404, "Bericht nicht gefunden: " + id);
+        }
+        return job;
+    }
+
+    private static void appendJob(StringBuilder json, ReportJob job) {
+        json.append("{\"id\": ").append(job.id).append(", \"format\": ");
+        Json.appendString(json, job.format);
+        json.append(", \"status\": ");
+        CompletableFuture<ReportResult> future = job.future;
+        if (!future.isDone()) {
+            json.append("\"running\", \"completedSections\": ").append(job.completedSections)
+                    .append(", \"totalSections\": ").append(job.totalSections);
+        } else if (future.isCancelled()) {
+            json.append("\"cancelled\"");
+        } else if (future.isCompletedExceptionally()) {
+            json.append("\"failed\", \"error\": ");
+            Json.appendString(json, failure(future).getMessage());
+        } else {
+            ReportResult result = future.join();
+            json.append("\"done\", \"file\": ");
+            Json.appendString(json, result.getFile().getPath());
+            json.append(", \"userRows\": ").append(result.getUserRows())
+                    .append(", \"taskRows\": ").append(result.getTaskRows())
+                    .append(", \"elapsedMillis\": ").append(result.getElapsed().toMillis())
+                    .append(", \"cached\": ").append(result.isCached());
+        }
+        json.append('}');
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        try {
+            future.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (CancellationException | InterruptedException e) {
+            return e;
+        }
+    }
+
+    private int sendReportFile(HttpExchange exchange, ReportJob job) throws IOException {
+        CompletableFuture<ReportResult> future = job.future;
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            throw new ApiException(409, "Bericht " + job.id + " liegt nicht vor");
+        }
+        File file = future.join().getFile();
+        if (!file.isFile()) {
+            throw new ApiException(410, "Berichtsdatei wurde entfernt: " + file.getName());
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType(job.format));
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + file.getName() + "\"");
+        exchange.sendResponseHeaders(200, file.length());
+        try (OutputStream out = exchange.getResponseBody()) {
+            Files.copy(file.toPath(), out);
+        }
+        return 200;
+    }
+
+    private static String contentType(String format) {
+        switch (format) {
+            case "html":
+                return "text/html; charset=utf-8";
+            case "csv":
+                return "text/csv; charset=utf-8";
+            case "pdf":
+                return "application/pdf";
+            default:
+                return "text/plain; charset=utf-8";
+        }
+    }
+
+    // Anfragen lesen und beantworten
+
+    private static List<String> pathSegments(HttpExchange exchange) {
+        String rawPath = exchange.getRequestURI().getRawPath();
+        if (!rawPath.startsWith(PREFIX)) {
+            return Collections.emptyList();
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.substring(PREFIX.length()).split("/")) {
+            if (!segment.isEmpty()) {
+                // + ist im Pfad ein gewöhnliches Zeichen, kein Leerzeichen
+                segments.add(URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> parameters = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Anfrage größer als " + MAX_BODY_BYTES + " Bytes");
+        }
+        return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static String requiredString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Feld " + field + " fehlt oder ist keine Zeichenkette");
+        }
+        return (String) value;
+    }
+
+    private static boolean optionalBoolean(Map<String, Object> body, String field, boolean defaultValue) {
+        Object value = body.get(field);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException("Feld " + field + " erwartet true oder false");
+        }
+        return (Boolean) value;
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new IllegalArgumentException("Parameter " + name + " darf nicht negativ sein: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " erwartet eine Zahl: " + value);
+        }
+    }
+
+    private static int limit(Map<String, String> query) {
+        return Math.min(intParameter(query, "limit", DEFAULT_LIMIT), MAX_LIMIT);
+    }
+
+    private static LocalDate date(String value, String name) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Parameter " + name + " erwartet ein Datum (yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!method.equals(exchange.getRequestMethod())) {
+            throw methodNotAllowed(exchange.getRequestMethod());
+        }
+    }
+
+    private static ApiException methodNotAllowed(String method) {
+        return new ApiException(405, "Methode nicht erlaubt: " + method);
+    }
+
+    private static ApiException notFound(HttpExchange exchange) {
+        return new ApiException(404, "Unbekannter Pfad: " + exchange.getRequestURI().getPath());
+    }
+
+    private static int send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        return status;
+    }
+
+    private static int sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        return status;
+    }
+
+    private static int sendError(HttpExchange exchange, int status, String message) {
+        StringBuilder json = new StringBuilder("{\"error\": ");
+        Json.appendString(json, message);
+        try {
+            return send(exchange, status, json.append('}'));
+        } catch (IOException e) {
+            logger.debug("Fehlermeldung nicht zustellbar: {}", e.toString());
+            return status;
+        }
+    }
+}
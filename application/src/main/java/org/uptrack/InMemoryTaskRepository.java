@@ -0,0 +1,453 @@
+package org.uptrack;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Aufgabenablage im Speicher mit Indizes nach Titel, Status und Fälligkeitsdatum.
+ * Abfragen kosten die Größe des Ergebnisses statt der Größe der Ablage. Neben dem
+ * Gesamtindex nach Fälligkeit gibt es je Status einen sortierten Fälligkeitsindex,
+ * über den z.B. bald fällige offene Aufgaben per Bereichsabfrage gezählt werden.
+ * Überfällige offene Aufgaben werden laufend gezählt; der Zähler bezieht sich auf
+ * einen Stichtag und wird beim Tageswechsel über die übersprungenen Tage nachgezogen.
+ * Da Aufgaben veränderlich sind, merkt sich die Ablage je Aufgabe die indizierten
+ * Schlüssel. Status und Fälligkeit meldet die Aufgabe selbst über einen
+ * {@link TaskListener}, so dass Status- und Fälligkeitsindex und damit die
+ * Statistik ohne weiteren Aufruf aktuell bleiben; nach einer Titeländerung muss
+ * {@link #updateTask(Tasks)} aufgerufen werden. Änderungen werden nach dem Freigeben
+ * der Sperre an registrierte Listener gemeldet.
+ */
+public class InMemoryTaskRepository implements TaskRepository, ObservableRepository {
+    private final Map<String, Tasks> byTitle = new LinkedHashMap<>();
+    private final Map<String, Set<Tasks>> byStatus = new HashMap<>();
+    private final TreeMap<Long, Set<Tasks>> byDueDate = new TreeMap<>();
+    private final Map<String, TreeMap<Long, Set<Tasks>>> byStatusAndDueDate = new HashMap<>();
+    private final Map<Tasks, IndexKeys> indexedKeys = new IdentityHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ChangeNotifier notifier = new ChangeNotifier();
+    private final Object overdueLock = new Object();
+    // Stichtag und Anzahl offener Aufgaben, die davor fällig waren. Leser ziehen beide
+    // unter overdueLock nach, Schreiber passen den Zähler unter der Schreibsperre an.
+    private long overdueDay = Long.MIN_VALUE;
+    private int overdueCount;
+    private final TaskListener taskListener = new TaskListener() {
+        @Override
+        public void statusChanged(Tasks task, String oldStatus) {
+            reindexStatusAndDueDate(task);
+        }
+
+        @Override
+        public void dueDateChanged(Tasks task, long oldDueEpochDay) {
+            reindexStatusAndDueDate(task);
+        }
+    };
+
+    /**
+     * Schlüssel, unter denen eine Aufgabe zuletzt indiziert wurde
+     */
+    private static class IndexKeys {
+        final String title;
+        final String status;
+        final long dueDate;
+
+        IndexKeys(String title, String status, long dueDate) {
+            this.title = title;
+            this.status = status;
+            this.dueDate = dueDate;
+        }
+    }
+
+    @Override
+    public List<Tasks> getAllTasks() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byTitle.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Legt eine Aufgabe an. Eine vorhandene Aufgabe mit gleichem Titel wird ersetzt.
+     */
+    @Override
+    public void addTask(Tasks task) {
+        String previousTitle;
+        boolean replaced;
+        lock.writeLock().lock();
+        try {
+            Tasks existing = byTitle.get(task.getTitle());
+            replaced = existing != null;
+            if (existing != null) {
+                unindex(existing);
+                existing.removeListener(taskListener);
+            }
+            previousTitle = unindex(task);
+            index(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        fireTitleChange(previousTitle, task.getTitle(), replaced);
+    }
+
+    /**
+     * Zieht die Indizes einer geänderten Aufgabe nach. Ist die Instanz unbekannt,
+     * ersetzt sie die Aufgabe mit gleichem Titel; unbekannte Titel werden ignoriert.
+     */
+    @Override
+    public void updateTask(Tasks task) {
+        String previousTitle;
+        boolean replaced;
+        lock.writeLock().lock();
+        try {
+            if (indexedKeys.containsKey(task)) {
+                previousTitle = unindex(task);
+                Tasks sameTitle = byTitle.get(task.getTitle());
+                replaced = sameTitle != null;
+                if (sameTitle != null) {
+                    unindex(sameTitle);
+                    sameTitle.removeListener(taskListener);
+                }
+                index(task);
+            } else {
+                Tasks existing = byTitle.get(task.getTitle());
+                if (existing == null) {
+                    return;
+                }
+                previousTitle = null;
+                replaced = true;
+                unindex(existing);
+                existing.removeListener(taskListener);
+                index(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        fireTitleChange(previousTitle, task.getTitle(), replaced);
+    }
+
+    @Override
+    public void deleteTask(String title) {
+        Tasks task;
+        lock.writeLock().lock();
+        try {
+            task = byTitle.get(title);
+            if (task != null) {
+                unindex(task);
+                task.removeListener(taskListener);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (task != null) {
+            notifier.fire(RepositoryChange.Type.REMOVED, title);
+        }
+    }
+
+    @Override
+    public Tasks getTaskByTitle(String title) {
+        lock.readLock().lock();
+        try {
+            return byTitle.get(title);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Tasks> getTasksByStatus(String status) {
+        lock.readLock().lock();
+        try {
+            Set<Tasks> tasks = byStatus.get(status);
+            return tasks == null ? new ArrayList<>() : new ArrayList<>(tasks);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Tasks> getTasksDueBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            List<Tasks> result = new ArrayList<>();
+            if (from.isAfter(to)) {
+                return result;
+            }
+            for (Set<Tasks> tasks : byDueDate.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+                result.addAll(tasks);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countTasksDueBetween(String status, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            TreeMap<Long, Set<Tasks>> dueDates = byStatusAndDueDate.get(status);
+            if (dueDates == null || from.isAfter(to)) {
+                return 0;
+            }
+            int count = 0;
+            for (Set<Tasks> tasks : dueDates.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+                count += tasks.size();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addChangeListener(RepositoryChangeListener listener) {
+        notifier.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RepositoryChangeListener listener) {
+        notifier.removeListener(listener);
+    }
+
+    @Override
+    public long getDataVersion() {
+        return notifier.getVersion();
+    }
+
+    @Override
+    public int countTasks() {
+        lock.readLock().lock();
+        try {
+            return byTitle.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liefert einen Ausschnitt in Anlagereihenfolge. Die ersten offset Aufgaben werden
+     * unter der Lesesperre übersprungen, kopiert wird nur der Ausschnitt selbst.
+     */
+    @Override
+    public List<Tasks> getTasks(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = Math.min(Math.max(offset, 0), byTitle.size());
+            int count = (int) Math.min(Math.max(limit, 0), (long) byTitle.size() - from);
+            List<Tasks> page = new ArrayList<>(count);
+            Iterator<Tasks> iterator = byTitle.values().iterator();
+            for (int i = 0; i < from; i++) {
+                iterator.next();
+            }
+            for (int i = 0; i < count; i++) {
+                page.add(iterator.next());
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liefert die Statistik aus den Indizes: Anzahl und Statuszähler kosten O(Anzahl
+     * Status), überfällige Aufgaben O(1) bei gleichem Stichtag, bald fällige eine
+     * Bereichsabfrage über höchstens {@link TaskStatistics#DUE_SOON_DAYS} Tage
+     */
+    @Override
+    public TaskStatistics getStatistics(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return liveStatistics(today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liest Aufgaben und laufende Statistik unter derselben Lesesperre, ohne die
+     * Aufgaben erneut auszuwerten
+     */
+    @Override
+    public TaskSnapshot getSnapshot(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return new TaskSnapshot(new ArrayList<>(byTitle.values()), liveStatistics(today));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vergleicht die laufend gepflegte Statistik mit einer vollständigen Neuberechnung
+     *
+     * @throws IllegalStateException wenn beide voneinander abweichen
+     */
+    public void verifyStatistics(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            TaskStatistics live = liveStatistics(today);
+            TaskStatistics recomputed = TaskStatistics.compute(byTitle.values(), today);
+            if (!live.equals(recomputed)) {
+                throw new IllegalStateException("Laufende Aufgabenstatistik weicht ab: " + live
+                        + " statt " + recomputed);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TaskStatistics liveStatistics(LocalDate today) {
+        Map<String, Integer> statusCounts = new HashMap<>();
+        byStatus.forEach((status, tasks) -> statusCounts.put(status, tasks.size()));
+        long todayDay = today.toEpochDay();
+        int dueSoon = 0;
+        TreeMap<Long, Set<Tasks>> openDueDates = byStatusAndDueDate.get(TaskStatistics.STATUS_OFFEN);
+        int overdue = overdueCount(openDueDates, todayDay);
+        if (openDueDates != null) {
+            for (Set<Tasks> tasks : openDueDates.subMap(todayDay, true,
+                    todayDay + TaskStatistics.DUE_SOON_DAYS, true).values()) {
+                dueSoon += tasks.size();
+            }
+        }
+        return new TaskStatistics(byTitle.size(), statusCounts, overdue, dueSoon);
+    }
+
+    /**
+     * Verschiebt den Stichtag des Überfälligkeitszählers auf den angegebenen Tag. Das
+     * kostet eine Bereichsabfrage über die Tage zwischen altem und neuem Stichtag, bei
+     * gleichem Stichtag nichts. Wird unter der Lesesperre aufgerufen.
+     */
+    private int overdueCount(TreeMap<Long, Set<Tasks>> openDueDates, long todayDay) {
+        synchronized (overdueLock) {
+            if (todayDay != overdueDay && openDueDates != null) {
+                boolean forward = todayDay > overdueDay;
+                for (Set<Tasks> tasks : openDueDates.subMap(Math.min(todayDay, overdueDay), true,
+                        Math.max(todayDay, overdueDay), false).values()) {
+                    overdueCount += forward ? tasks.size() : -tasks.size();
+                }
+            }
+            overdueDay = todayDay;
+            return overdueCount;
+        }
+    }
+
+    /**
+     * Passt den Überfälligkeitszähler an eine indizierte oder entfernte Aufgabe an,
+     * wird unter der Schreibsperre aufgerufen
+     */
+    private void countOverdue(IndexKeys keys, int delta) {
+        if (keys.dueDate != Tasks.NO_DUE_DATE && keys.dueDate < overdueDay
+                && TaskStatistics.STATUS_OFFEN.equals(keys.status)) {
+            overdueCount += delta;
+        }
+    }
+
+    /**
+     * Zieht Status- und Fälligkeitsindex einer indizierten Aufgabe nach, deren Status oder
+     * Fälligkeit sich geändert hat. Der Titelschlüssel bleibt unverändert.
+     */
+    private void reindexStatusAndDueDate(Tasks task) {
+        String title;
+        lock.writeLock().lock();
+        try {
+            IndexKeys keys = indexedKeys.get(task);
+            if (keys == null
+                    || (Objects.equals(keys.status, task.getStatus()) && keys.dueDate == task.getDueEpochDay())) {
+                return;
+            }
+            unindexStatusAndDueDate(task, keys);
+            IndexKeys updated = new IndexKeys(keys.title, task.getStatus(), task.getDueEpochDay());
+            indexStatusAndDueDate(task, updated);
+            indexedKeys.put(task, updated);
+            title = keys.title;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        notifier.fire(RepositoryChange.Type.UPDATED, title);
+    }
+
+    private void index(Tasks task) {
+        IndexKeys keys = new IndexKeys(task.getTitle(), task.getStatus(), task.getDueEpochDay());
+        byTitle.put(keys.title, task);
+        indexStatusAndDueDate(task, keys);
+        indexedKeys.put(task, keys);
+        task.addListener(taskListener);
+    }
+
+    private void indexStatusAndDueDate(Tasks task, IndexKeys keys) {
+        byStatus.computeIfAbsent(keys.status, k -> new LinkedHashSet<>()).add(task);
+        if (keys.dueDate != Tasks.NO_DUE_DATE) {
+            byDueDate.computeIfAbsent(keys.dueDate, k -> new LinkedHashSet<>()).add(task);
+            byStatusAndDueDate.computeIfAbsent(keys.status, k -> new TreeMap<>())
+                    .computeIfAbsent(keys.dueDate, k -> new LinkedHashSet<>()).add(task);
+            countOverdue(keys, 1);
+        }
+    }
+
+    /**
+     * Meldet eine angelegte oder geänderte Aufgabe. Hat sich der Titel geändert, wird
+     * der alte Titel als entfernt gemeldet.
+     *
+     * @param previousTitle bisher indizierter Titel der Instanz oder null
+     * @param replaced      true, wenn unter dem Titel bereits eine Aufgabe lag
+     */
+    private void fireTitleChange(String previousTitle, String title, boolean replaced) {
+        boolean renamed = previousTitle != null && !previousTitle.equals(title);
+        if (renamed) {
+            notifier.fire(RepositoryChange.Type.REMOVED, previousTitle);
+        }
+        boolean known = replaced || (previousTitle != null && !renamed);
+        notifier.fire(known ? RepositoryChange.Type.UPDATED : RepositoryChange.Type.ADDED, title);
+    }
+
+    /**
+     * Entfernt eine Aufgabe aus allen Indizes
+     *
+     * @return der Titel, unter dem sie indiziert war, oder null
+     */
+    private String unindex(Tasks task) {
+        IndexKeys keys = indexedKeys.remove(task);
+        if (keys == null) {
+            return null;
+        }
+        byTitle.remove(keys.title, task);
+        unindexStatusAndDueDate(task, keys);
+        return keys.title;
+    }
+
+    private void unindexStatusAndDueDate(Tasks task, IndexKeys keys) {
+        removeFrom(byStatus, keys.status, task);
+        if (keys.dueDate != Tasks.NO_DUE_DATE) {
+            removeFrom(byDueDate, keys.dueDate, task);
+            TreeMap<Long, Set<Tasks>> dueDates = byStatusAndDueDate.get(keys.status);
+            removeFrom(dueDates, keys.dueDate, task);
+            if (dueDates.isEmpty()) {
+                byStatusAndDueDate.remove(keys.status);
+            }
+            countOverdue(keys, -1);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Tasks>> index, K key, Tasks task) {
+        Set<Tasks> tasks = index.get(key);
+        if (tasks != null) {
+            tasks.remove(task);
+            if (tasks.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
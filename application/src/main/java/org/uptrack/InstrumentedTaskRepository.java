@@ -0,0 +1,181 @@
+package org.uptrack;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Misst Anzahl und Laufzeit jeder Operation einer Aufgabenablage unter "tasks.<Methode>".
+ * Änderungsmeldungen und Datenversion werden durchgereicht, der Berichtscache arbeitet
+ * mit der Hülle wie mit der Ablage selbst.
+ */
+public class InstrumentedTaskRepository implements TaskRepository, ObservableRepository {
+    private final TaskRepository delegate;
+    private final ObservableRepository observable;
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Histogram getAllTasks;
+    private final MetricsRegistry.Histogram addTask;
+    private final MetricsRegistry.Histogram updateTask;
+    private final MetricsRegistry.Histogram deleteTask;
+    private final MetricsRegistry.Histogram countTasks;
+    private final MetricsRegistry.Histogram getTasks;
+    private final MetricsRegistry.Histogram getTaskByTitle;
+    private final MetricsRegistry.Histogram getTasksByStatus;
+    private final MetricsRegistry.Histogram getTasksDueBetween;
+    private final MetricsRegistry.Histogram countTasksDueBetween;
+    private final MetricsRegistry.Histogram getStatistics;
+    private final MetricsRegistry.Histogram getSnapshot;
+
+    public <R extends TaskRepository & ObservableRepository> InstrumentedTaskRepository(
+            R delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.observable = delegate;
+        this.metrics = metrics;
+        this.getAllTasks = metrics.histogram("tasks.getAllTasks");
+        this.addTask = metrics.histogram("tasks.addTask");
+        this.updateTask = metrics.histogram("tasks.updateTask");
+        this.deleteTask = metrics.histogram("tasks.deleteTask");
+        this.countTasks = metrics.histogram("tasks.countTasks");
+        this.getTasks = metrics.histogram("tasks.getTasks");
+        this.getTaskByTitle = metrics.histogram("tasks.getTaskByTitle");
+        this.getTasksByStatus = metrics.histogram("tasks.getTasksByStatus");
+        this.getTasksDueBetween = metrics.histogram("tasks.getTasksDueBetween");
+        this.countTasksDueBetween = metrics.histogram("tasks.countTasksDueBetween");
+        this.getStatistics = metrics.histogram("tasks.getStatistics");
+        this.getSnapshot = metrics.histogram("tasks.getSnapshot");
+    }
+
+    @Override
+    public List<Tasks> getAllTasks() {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getAllTasks();
+        } finally {
+            metrics.stopTimer(getAllTasks, start);
+        }
+    }
+
+    @Override
+    public void addTask(Tasks task) {
+        long start = metrics.startTimer();
+        try {
+            delegate.addTask(task);
+        } finally {
+            metrics.stopTimer(addTask, start);
+        }
+    }
+
+    @Override
+    public void updateTask(Tasks task) {
+        long start = metrics.startTimer();
+        try {
+            delegate.updateTask(task);
+        } finally {
+            metrics.stopTimer(updateTask, start);
+        }
+    }
+
+    @Override
+    public void deleteTask(String title) {
+        long start = metrics.startTimer();
+        try {
+            delegate.deleteTask(title);
+        } finally {
+            metrics.stopTimer(deleteTask, start);
+        }
+    }
+
+    @Override
+    public int countTasks() {
+        long start = metrics.startTimer();
+        try {
+            return delegate.countTasks();
+        } finally {
+            metrics.stopTimer(countTasks, start);
+        }
+    }
+
+    @Override
+    public List<Tasks> getTasks(int offset, int limit) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getTasks(offset, limit);
+        } finally {
+            metrics.stopTimer(getTasks, start);
+        }
+    }
+
+    @Override
+    public Tasks getTaskByTitle(String title) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getTaskByTitle(title);
+        } finally {
+            metrics.stopTimer(getTaskByTitle, start);
+        }
+    }
+
+    @Override
+    public List<Tasks> getTasksByStatus(String status) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getTasksByStatus(status);
+        } finally {
+            metrics.stopTimer(getTasksByStatus, start);
+        }
+    }
+
+    @Override
+    public List<Tasks> getTasksDueBetween(LocalDate from, LocalDate to) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getTasksDueBetween(from, to);
+        } finally {
+            metrics.stopTimer(getTasksDueBetween, start);
+        }
+    }
+
+    @Override
+    public int countTasksDueBetween(String status, LocalDate from, LocalDate to) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.countTasksDueBetween(status, from, to);
+        } finally {
+            metrics.stopTimer(countTasksDueBetween, start);
+        }
+    }
+
+    @Override
+    public TaskStatistics getStatistics(LocalDate today) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getStatistics(today);
+        } finally {
+            metrics.stopTimer(getStatistics, start);
+        }
+    }
+
+    @Override
+    public TaskSnapshot getSnapshot(LocalDate today) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getSnapshot(today);
+        } finally {
+            metrics.stopTimer(getSnapshot, start);
+        }
+    }
+
+    @Override
+    public void addChangeListener(RepositoryChangeListener listener) {
+        observable.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RepositoryChangeListener listener) {
+        observable.removeChangeListener(listener);
+    }
+
+    @Override
+    public long getDataVersion() {
+        return observable.getDataVersion();
+    }
+}
@@ -0,0 +1,144 @@
+package org.uptrack;
+
+import java.util.List;
+
+/**
+ * Misst Anzahl und Laufzeit jeder Operation einer Benutzerablage unter "users.<Methode>".
+ * Suche und Änderungsmeldungen werden durchgereicht, die Hülle kann die Ablage daher
+ * überall ersetzen. Änderungs-Listener werden direkt bei der Ablage registriert.
+ */
+public class InstrumentedUserRepository implements SearchableUserRepository, ObservableRepository {
+    private final SearchableUserRepository delegate;
+    private final ObservableRepository observable;
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Histogram addUser;
+    private final MetricsRegistry.Histogram addUserIfAbsent;
+    private final MetricsRegistry.Histogram getUserByUsername;
+    private final MetricsRegistry.Histogram getAllUsers;
+    private final MetricsRegistry.Histogram updateUser;
+    private final MetricsRegistry.Histogram deleteUser;
+    private final MetricsRegistry.Histogram countUsers;
+    private final MetricsRegistry.Histogram getUsers;
+    private final MetricsRegistry.Histogram searchUsers;
+
+    public <R extends SearchableUserRepository & ObservableRepository> InstrumentedUserRepository(
+            R delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.observable = delegate;
+        this.metrics = metrics;
+        this.addUser = metrics.histogram("users.addUser");
+        this.addUserIfAbsent = metrics.histogram("users.addUserIfAbsent");
+        this.getUserByUsername = metrics.histogram("users.getUserByUsername");
+        this.getAllUsers = metrics.histogram("users.getAllUsers");
+        this.updateUser = metrics.histogram("users.updateUser");
+        this.deleteUser = metrics.histogram("users.deleteUser");
+        this.countUsers = metrics.histogram("users.countUsers");
+        this.getUsers = metrics.histogram("users.getUsers");
+        this.searchUsers = metrics.histogram("users.searchUsers");
+    }
+
+    @Override
+    public void addUser(User user) {
+        long start = metrics.startTimer();
+        try {
+            delegate.addUser(user);
+        } finally {
+            metrics.stopTimer(addUser, start);
+        }
+    }
+
+    @Override
+    public boolean addUserIfAbsent(User user) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.addUserIfAbsent(user);
+        } finally {
+            metrics.stopTimer(addUserIfAbsent, start);
+        }
+    }
+
+    @Override
+    public User getUserByUsername(String username) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getUserByUsername(username);
+        } finally {
+            metrics.stopTimer(getUserByUsername, start);
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getAllUsers();
+        } finally {
+            metrics.stopTimer(getAllUsers, start);
+        }
+    }
+
+    @Override
+    public void updateUser(User user) {
+        long start = metrics.startTimer();
+        try {
+            delegate.updateUser(user);
+        } finally {
+            metrics.stopTimer(updateUser, start);
+        }
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        long start = metrics.startTimer();
+        try {
+            delegate.deleteUser(username);
+        } finally {
+            metrics.stopTimer(deleteUser, start);
+        }
+    }
+
+    @Override
+    public int countUsers() {
+        long start = metrics.startTimer();
+        try {
+            return delegate.countUsers();
+        } finally {
+            metrics.stopTimer(countUsers, start);
+        }
+    }
+
+    @Override
+    public List<User> getUsers(int offset, int limit) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.getUsers(offset, limit);
+        } finally {
+            metrics.stopTimer(getUsers, start);
+        }
+    }
+
+    @Override
+    public List<User> searchUsers(String term, MatchMode mode, boolean ignoreCase, int limit) {
+        long start = metrics.startTimer();
+        try {
+            return delegate.searchUsers(term, mode, ignoreCase, limit);
+        } finally {
+            metrics.stopTimer(searchUsers, start);
+        }
+    }
+
+    @Override
+    public void addChangeListener(RepositoryChangeListener listener) {
+        observable.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RepositoryChangeListener listener) {
+        observable.removeChangeListener(listener);
+    }
+
+    @Override
+    public long getDataVersion() {
+        return observable.getDataVersion();
+    }
+}
@@ -0,0 +1,209 @@
+package org.uptrack;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Schreibt und liest das wenige JSON, das Metriken und HTTP-Schnittstelle brauchen.
+ * Gelesen werden nur flache Objekte, deren Werte Zeichenketten, Zahlen, Wahrheitswerte
+ * oder null sind; mehr erwarten die Endpunkte nicht.
+ */
+final class Json {
+    private Json() {
+    }
+
+    /**
+     * Hängt value als JSON-Zeichenkette an, null als null
+     */
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Liest ein flaches JSON-Objekt. Zahlen ohne Nachkommastellen werden als Long
+     * geliefert, andere als Double.
+     *
+     * @throws IllegalArgumentException wenn der Text kein solches Objekt ist
+     */
+    static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, Object> result = parser.object();
+        parser.skipWhitespace();
+        if (parser.pos < text.length()) {
+            throw parser.error("Unerwartete Zeichen nach dem Objekt");
+        }
+        return result;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                result.put(key, value());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw error("Komma oder } erwartet");
+                }
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw error("Verschachtelte Werte werden nicht unterstützt");
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return number();
+        }
+
+        private Object number() {
+            int start = pos;
+            boolean decimal = false;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            String number = text.substring(start, pos);
+            try {
+                return decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Wert erwartet");
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Unvollständige Unicode-Folge");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Ungültige Unicode-Folge");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                        break;
+                }
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                pos--;
+                throw error("'" + expected + "' erwartet");
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unerwartetes Ende");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Ungültiges JSON an Position " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.uptrack;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sammelt Zähler und Laufzeitverteilungen unter frei gewählten Namen wie
+ * "report.prepareOutputFile" oder "users.addUser". Zähler und Histogramme verteilen
+ * gleichzeitige Schreibzugriffe über {@link LongAdder} auf mehrere Zellen, Messungen
+ * aus vielen Threads behindern sich daher kaum.
+ * <p>
+ * Die Standard-Registry ist abgeschaltet, solange die Anwendung nicht mit
+ * {@code -Duptrack.metrics=true} gestartet oder {@link #setDefault} aufgerufen wird.
+ * Abgeschaltet liest {@link #startTimer()} keine Uhr und {@link #stopTimer} kehrt
+ * sofort zurück, Messpunkte kosten dann nur eine Feldabfrage.
+ */
+public final class MetricsRegistry {
+    /**
+     * Registry, die nichts aufzeichnet
+     */
+    public static final MetricsRegistry DISABLED = new MetricsRegistry(false);
+
+    private static volatile MetricsRegistry defaultRegistry =
+            Boolean.getBoolean("uptrack.metrics") ? new MetricsRegistry() : DISABLED;
+
+    private final boolean enabled;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public MetricsRegistry() {
+        this(true);
+    }
+
+    private MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Liefert die Registry, in die Berichte und Ablagen ohne eigene Registry messen
+     */
+    public static MetricsRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    public static void setDefault(MetricsRegistry registry) {
+        defaultRegistry = registry != null ? registry : DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Zähler für Ereignisse, z.B. Cache-Treffer
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Laufzeitverteilung in Zweierpotenz-Stufen: Stufe b zählt Messwerte von 2^b bis
+     * 2^(b+1)-1 Nanosekunden. Perzentile werden mit der Obergrenze ihrer Stufe angegeben,
+     * also höchstens um den Faktor zwei zu hoch.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            buckets[63 - Long.numberOfLeadingZeros(Math.max(value, 1))].increment();
+            count.increment();
+            sumNanos.add(value);
+            maxNanos.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSumNanos() {
+            return sumNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public double getMeanNanos() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) getSumNanos() / n;
+        }
+
+        /**
+         * @param percentile Anteil zwischen 0 und 100
+         */
+        public long getPercentileNanos(double percentile) {
+            long n = getCount();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(n * Math.min(Math.max(percentile, 0), 100) / 100);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += buckets[b].sum();
+                if (seen >= Math.max(rank, 1)) {
+                    long upper = b >= 62 ? Long.MAX_VALUE : (1L << (b + 1)) - 1;
+                    return Math.min(upper, getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sumNanos.reset();
+            maxNanos.reset();
+        }
+    }
+
+    /**
+     * Liefert den Zähler zum Namen und legt ihn bei Bedarf an
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Liefert das Histogramm zum Namen und legt es bei Bedarf an
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Zählt ein Ereignis, abgeschaltet ohne Wirkung
+     */
+    public void increment(String name) {
+        if (enabled) {
+            counter(name).increment();
+        }
+    }
+
+    /**
+     * Liefert den Startzeitpunkt einer Messung, abgeschaltet 0 ohne Uhrabfrage
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void stopTimer(String name, long start) {
+        if (enabled) {
+            histogram(name).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Variante für häufige Messpunkte, die ihr Histogramm einmal nachschlagen
+     */
+    public void stopTimer(Histogram histogram, long start) {
+        if (enabled) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Verwirft alle Messwerte. Zähler und Histogramme werden auf null gesetzt statt
+     * entfernt, da Messpunkte sie einmal nachschlagen und weiterverwenden. Gleichzeitig
+     * laufende Messungen können dabei teilweise erhalten bleiben.
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Liefert alle Messwerte als JSON, Laufzeiten in Mikrosekunden, nach Namen sortiert
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\n  \"enabled\": ").append(enabled).append(",\n  \"counters\": {");
+        String separator = "";
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            json.append(separator).append("\n    ");
+            Json.appendString(json, entry.getKey());
+            json.append(": ").append(entry.getValue().get());
+            separator = ",";
+        }
+        json.append(counters.isEmpty() ? "},\n" : "\n  },\n").append("  \"histograms\": {");
+        separator = "";
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            json.append(separator).append("\n    ");
+            Json.appendString(json, entry.getKey());
+            json.append(": {\"count\": ").append(histogram.getCount())
+                    .append(", \"meanMicros\": ").append(micros(histogram.getMeanNanos()))
+                    .append(", \"p50Micros\": ").append(micros(histogram.getPercentileNanos(50)))
+                    .append(", \"p90Micros\": ").append(micros(histogram.getPercentileNanos(90)))
+                    .append(", \"p99Micros\": ").append(micros(histogram.getPercentileNanos(99)))
+                    .append(", \"maxMicros\": ").append(micros(histogram.getMaxNanos()))
+                    .append(", \"totalMillis\": ").append(millis(histogram.getSumNanos()))
+                    .append('}');
+            separator = ",";
+        }
+        json.append(histograms.isEmpty() ? "}\n" : "\n  }\n").append('}');
+        return json.toString();
+    }
+
+    /**
+     * Liefert die Messwerte als ausgerichtete Texttabelle für die Anzeige
+     */
+    public String toText() {
+        if (!enabled) {
+            return "Metriken sind abgeschaltet (Start mit -Duptrack.metrics=true)";
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-34s %9s %10s %10s %10s %10s%n",
+                "Messpunkt", "Anzahl", "Mittel µs", "p50 µs", "p99 µs", "Max µs"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            text.append(String.format(Locale.ROOT, "%-34s %9d %10s %10s %10s %10s%n", entry.getKey(),
+                    histogram.getCount(), micros(histogram.getMeanNanos()),
+                    micros(histogram.getPercentileNanos(50)), micros(histogram.getPercentileNanos(99)),
+                    micros(histogram.getMaxNanos())));
+        }
+        if (!counters.isEmpty()) {
+            text.append(System.lineSeparator());
+            for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+                text.append(String.format(Locale.ROOT, "%-34s %9d%n", entry.getKey(), entry.getValue().get()));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000);
+    }
+
+    private static String millis(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000);
+    }
+}
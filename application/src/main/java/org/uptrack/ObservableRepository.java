@@ -0,0 +1,16 @@
+package org.uptrack;
+
+/**
+ * Ablage, die ihre Änderungen an registrierte Listener meldet und einen Versionszähler führt
+ */
+public interface ObservableRepository {
+    void addChangeListener(RepositoryChangeListener listener);
+
+    void removeChangeListener(RepositoryChangeListener listener);
+
+    /**
+     * Liefert einen Zähler, der bei jeder gemeldeten Änderung erhöht wird. Gleiche
+     * Versionen bedeuten einen unveränderten Bestand.
+     */
+    long getDataVersion();
+}
@@ -0,0 +1,166 @@
+package org.uptrack;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Zwischenspeicher für erzeugte Berichte. Der Schlüssel besteht aus den
+ * Berichtsinhalten der Konfiguration, dem Stichtag und den Datenversionen der
+ * Ablagen; ändert sich eine Ablage, ändert sich ihre Version und der alte Eintrag
+ * wird nicht mehr getroffen. Die Anzahl der Einträge ist begrenzt, verdrängt wird
+ * der am längsten nicht benutzte Eintrag. Threadsicher.
+ */
+public final class ReportCache {
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ReportCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ReportCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache-Größe muss positiv sein: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ReportCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Berichtsrelevante Teile einer Konfiguration samt Stichtag und Datenversionen
+     */
+    public static final class Key {
+        private final String format;
+        private final boolean includeTasks;
+        private final boolean includeUsers;
+        private final boolean includeStatistics;
+        private final boolean includeCharts;
+        private final String outputPath;
+        private final LocalDate day;
+        private final long userVersion;
+        private final long taskVersion;
+
+        Key(ReportGenerator.ReportConfig config, LocalDate day, long userVersion, long taskVersion) {
+            this.format = config.getFormat();
+            this.includeTasks = config.isIncludeTasks();
+            this.includeUsers = config.isIncludeUsers();
+            this.includeStatistics = config.isIncludeStatistics();
+            this.includeCharts = config.isIncludeCharts();
+            this.outputPath = new File(config.getOutputPath()).getAbsolutePath();
+            this.day = day;
+            this.userVersion = userVersion;
+            this.taskVersion = taskVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return includeTasks == other.includeTasks && includeUsers == other.includeUsers
+                    && includeStatistics == other.includeStatistics && includeCharts == other.includeCharts
+                    && userVersion == other.userVersion && taskVersion == other.taskVersion
+                    && format.equals(other.format) && outputPath.equals(other.outputPath) && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(format, includeTasks, includeUsers, includeStatistics, includeCharts, outputPath,
+                    day, userVersion, taskVersion);
+        }
+    }
+
+    /**
+     * Erzeugter Bericht samt Dateigröße, um nachträglich gelöschte oder geänderte Dateien zu erkennen
+     */
+    private static final class Entry {
+        final ReportResult result;
+        final long length;
+
+        Entry(ReportResult result) {
+            this.result = result;
+            this.length = result.getFile().length();
+        }
+
+        boolean isValid() {
+            File file = result.getFile();
+            return file.isFile() && file.length() == length;
+        }
+    }
+
+    /**
+     * Liefert den zum Schlüssel erzeugten Bericht oder null. Eine inzwischen gelöschte oder
+     * veränderte Datei zählt als Fehlschlag und wird entfernt.
+     */
+    public synchronized ReportResult get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isValid()) {
+            hits++;
+            return entry.result;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(Key key, ReportResult result) {
+        entries.put(key, new Entry(result));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Anteil der Treffer an allen Abfragen in Prozent
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups * 100;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ReportCache{Einträge=" + entries.size() + "/" + maxEntries + ", Treffer=" + hits
+                + ", Fehlschläge=" + misses + ", verdrängt=" + evictions + "}";
+    }
+}
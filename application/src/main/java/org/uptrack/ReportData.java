@@ -0,0 +1,90 @@
+package org.uptrack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hilfsklasse zur Speicherung von Report-Daten.
+ * Aktivitätsstatus und Zuweisungen werden beim Klassifizieren in Indizes über die
+ * Objektidentität abgelegt, damit jede Zeile des Berichts in O(1) nachgeschlagen wird.
+ */
+class ReportData {
+    static final String USER_TYPE_ADMIN = "Administrator";
+    static final String USER_TYPE_STANDARD = "Standardbenutzer";
+    static final String NOT_ASSIGNED = "Nicht zugewiesen";
+
+    List<User> allUsers = new ArrayList<>();
+    int activeUserCount = 0;
+    int inactiveUserCount = 0;
+    Map<String, Integer> userTypeCounts = new HashMap<>();
+
+    List<Tasks> allTasks = new ArrayList<>();
+    int totalTasks = 0;
+    int completedTasks = 0;
+    int openTasks = 0;
+    int canceledTasks = 0;
+    double completionRate = 0.0;
+    Map<String, Integer> taskStatusCounts = new HashMap<>();
+    Map<String, Productivity> userProductivity = new HashMap<>();
+    int overdueCount = 0;
+    int dueSoonCount = 0;
+
+    private final Map<User, Boolean> userActive = new IdentityHashMap<>();
+    private final Map<Tasks, String> taskAssignee = new IdentityHashMap<>();
+
+    /**
+     * Aufgabenzähler eines Benutzers für die Produktivitätsstatistik
+     */
+    static class Productivity {
+        int totalTasks;
+        int completedTasks;
+
+        double completionRate() {
+            return ReportData.completionRate(completedTasks, totalTasks);
+        }
+    }
+
+    /**
+     * Hält den Aktivitätsstatus eines Benutzers fest
+     */
+    void markUser(User user, boolean active) {
+        userActive.put(user, active);
+        if (active) {
+            activeUserCount++;
+        } else {
+            inactiveUserCount++;
+        }
+    }
+
+    boolean isActive(User user) {
+        return Boolean.TRUE.equals(userActive.get(user));
+    }
+
+    /**
+     * Hält den zugewiesenen Benutzer einer Aufgabe fest
+     */
+    void assignTask(Tasks task, String username) {
+        taskAssignee.put(task, username);
+    }
+
+    String assigneeOf(Tasks task) {
+        return taskAssignee.getOrDefault(task, NOT_ASSIGNED);
+    }
+
+    /**
+     * Liefert die Typbezeichnung eines Benutzers für den Bericht
+     */
+    static String userTypeOf(User user) {
+        return user instanceof Admin ? USER_TYPE_ADMIN : USER_TYPE_STANDARD;
+    }
+
+    /**
+     * Berechnet den Anteil abgeschlossener Aufgaben in Prozent
+     */
+    static double completionRate(int completed, int total) {
+        return total == 0 ? 0 : (double) completed / total * 100;
+    }
+}
@@ -3,17 +3,28 @@ package org.uptrack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Generiert verschiedene Berichte für das UpTrack-System
@@ -21,12 +32,6 @@ import java.util.Map;
 public class ReportGenerator {
     private static final Logger logger = LoggerFactory.getLogger(ReportGenerator.class);
 
-    // Konstanten für Status
-    private static final String STATUS_OFFEN = "Offen";
-    private static final String STATUS_ABGESCHLOSSEN = "Abgeschlossen";
-    private static final String STATUS_ABGEBROCHEN = "Abgebrochen";
-    private static final String STATUS_WIEDEREROEFFNET = "Wiedereröffnet";
-
     // Konstanten für Formate
     private static final String FORMAT_HTML = "html";
     private static final String FORMAT_TXT = "txt";
@@ -34,15 +39,62 @@ public class ReportGenerator {
     private static final String FORMAT_PDF = "pdf";
 
     // Konstanten für Dateiformatierung
-    private static final String DATE_FORMAT = "dd.MM.yyyy HH:mm:ss";
     private static final String FILENAME_DATE_FORMAT = "yyyyMMdd_HHmmss";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
+    private final ReportCache reportCache;
+    private final Executor asyncExecutor;
+    private final Random random;
 
     public ReportGenerator(UserRepository userRepository, TaskRepository taskRepository) {
+        this(userRepository, taskRepository, new ReportCache());
+    }
+
+    /**
+     * @param reportCache Cache für erzeugte Berichte oder null, um jeden Bericht neu zu erzeugen
+     */
+    public ReportGenerator(UserRepository userRepository, TaskRepository taskRepository, ReportCache reportCache) {
+        this(userRepository, taskRepository, reportCache, null);
+    }
+
+    /**
+     * @param reportCache   Cache für erzeugte Berichte oder null, um jeden Bericht neu zu erzeugen
+     * @param asyncExecutor Executor für {@link #generateReportAsync} oder null für den gemeinsamen
+     *                      Hintergrund-Executor mit virtuellen Threads
+     */
+    public ReportGenerator(UserRepository userRepository, TaskRepository taskRepository, ReportCache reportCache,
+                           Executor asyncExecutor) {
+        this(userRepository, taskRepository, reportCache, asyncExecutor, null);
+    }
+
+    /**
+     * @param random Zufallsquelle für die simulierte Zuordnung und Aktivität oder null für
+     *               {@link ThreadLocalRandom}. Mit festem Seed und nacheinander erzeugten
+     *               Berichten sind Inhalte und Laufzeiten reproduzierbar.
+     */
+    public ReportGenerator(UserRepository userRepository, TaskRepository taskRepository, ReportCache reportCache,
+                           Executor asyncExecutor, Random random) {
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
+        this.reportCache = reportCache;
+        this.asyncExecutor = asyncExecutor;
+        this.random = random;
+    }
+
+    /**
+     * Gemeinsamer Executor für asynchrone Berichte, wird erst bei Bedarf erzeugt
+     */
+    private static final class DefaultAsyncExecutor {
+        static final ExecutorService INSTANCE = BackgroundExecutors.newTaskExecutor("report");
+    }
+
+    /**
+     * Liefert den Berichtscache samt Treffer-Statistik oder null
+     */
+    public ReportCache getReportCache() {
+        return reportCache;
     }
 
     /**
@@ -110,484 +162,536 @@ public class ReportGenerator {
         }
     }
 
-    /**
-     * Erzeugt einen Bericht mit der angegebenen Konfiguration
-     */
-    public boolean generateReport(ReportConfig config) {
-        return generateComprehensiveReport(
-                config.getFormat(),
-                config.isIncludeTasks(),
-                config.isIncludeUsers(),
-                config.isIncludeStatistics(),
-                config.isIncludeCharts(),
-                config.getOutputPath(),
-                config.isSendEmail(),
-                config.getEmailRecipients()
-        );
-    }
-
     /**
      * Generiert einen umfassenden Bericht über alle Benutzer und Aufgaben im System.
      */
     public boolean generateComprehensiveReport(String format, boolean includeTasks, boolean includeUsers,
                                                boolean includeStatistics, boolean includeCharts,
                                                String outputPath, boolean sendEmail, List<String> emailRecipients) {
-        logger.info("Starte Berichtsgenerierung im Format {}", format);
-
-        // Validierung
-        if (!isValidFormat(format)) {
-            logger.error("Ungültiges Format: {}. Erlaubte Formate: html, txt, csv, pdf", format);
-            return false;
-        }
-
-        // Ausgabedatei vorbereiten
-        File outputFile = prepareOutputFile(outputPath, format);
-        if (outputFile == null) {
-            return false;
-        }
-
-        // Report-Daten sammeln
-        ReportData reportData = new ReportData();
-        StringBuilder reportContent = new StringBuilder();
-
-        // Report-Header erstellen
-        addReportHeader(reportContent);
-
-        // Benutzerdaten sammeln und hinzufügen
-        if (includeUsers) {
-            addUserSection(reportContent, reportData, includeStatistics);
-        }
-
-        // Aufgabendaten sammeln und hinzufügen
-        if (includeTasks) {
-            addTaskSection(reportContent, reportData, includeStatistics);
-        }
-
-        // Visualisierungen hinzufügen
-        if (includeCharts) {
-            addVisualizations(reportContent, reportData, format);
-        }
-
-        // Report in Datei schreiben
-        if (!writeReportToFile(outputFile, reportContent.toString(), format)) {
-            return false;
-        }
-
-        // E-Mail versenden, wenn gewünscht
-        if (sendEmail && emailRecipients != null && !emailRecipients.isEmpty()) {
-            if (!sendReportByEmail(outputFile, emailRecipients)) {
-                logger.warn("Bericht wurde erstellt, konnte aber nicht per E-Mail versendet werden");
-            }
-        }
-
-        return true;
+        return generateReport(new ReportConfig(format, outputPath)
+                .setIncludeTasks(includeTasks)
+                .setIncludeUsers(includeUsers)
+                .setIncludeStatistics(includeStatistics)
+                .setIncludeCharts(includeCharts)
+                .setSendEmail(sendEmail)
+                .setEmailRecipients(emailRecipients));
     }
 
     /**
-     * Hilfsklasse zur Speicherung von Report-Daten
+     * Erzeugt einen Bericht mit der angegebenen Konfiguration
      */
-    private static class ReportData {
-        List<User> allUsers = new ArrayList<>();
-        List<User> activeUsers = new ArrayList<>();
-        List<User> inactiveUsers = new ArrayList<>();
-        Map<String, Integer> userTypeCounts = new HashMap<>();
-
-        List<Tasks> allTasks = new ArrayList<>();
-        int totalTasks = 0;
-        int completedTasks = 0;
-        int openTasks = 0;
-        int canceledTasks = 0;
-        double completionRate = 0.0;
-        Map<String, Integer> taskStatusCounts = new HashMap<>();
-        Map<String, List<Tasks>> userTaskMap = new HashMap<>();
-        int overdueCount = 0;
-        int dueSoonCount = 0;
+    public boolean generateReport(ReportConfig config) {
+        return generateReportFile(config) != null;
     }
 
     /**
-     * Bereitet die Ausgabedatei vor
+     * Erzeugt einen Bericht und liefert die Berichtsdatei oder null, wenn er nicht erstellt
+     * werden konnte. Ist der Bestand seit einem Bericht mit gleichem Inhalt unverändert,
+     * wird dessen Datei aus dem Cache geliefert, ohne die Daten erneut zu lesen.
      */
-    private File prepareOutputFile(String outputPath, String format) {
-        // Pfadvalidierung
-        File outputDir = new File(outputPath);
-        if (!outputDir.exists()) {
-            if (!outputDir.mkdirs()) {
-                logger.error("Ausgabeverzeichnis konnte nicht erstellt werden: {}", outputPath);
-                return null;
-            }
+    public File generateReportFile(ReportConfig config) {
+        try {
+            return createReport(config, new ReportRun(plannedSections(config), ReportProgressListener.NONE, () -> false))
+                    .getFile();
+        } catch (IOException | IllegalArgumentException e) {
+            // bereits an der Fehlerstelle protokolliert
+            return null;
         }
+    }
 
-        // Dateigeneration
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern(FILENAME_DATE_FORMAT));
-        String filename = "UpTrack_Report_" + timestamp + "." + format;
-        return new File(outputDir, filename);
+    /**
+     * Erzeugt einen Bericht im Hintergrund
+     *
+     * @see #generateReportAsync(ReportConfig, ReportProgressListener)
+     */
+    public CompletableFuture<ReportResult> generateReportAsync(ReportConfig config) {
+        return generateReportAsync(config, ReportProgressListener.NONE);
     }
 
     /**
-     * Fügt den Report-Header hinzu
+     * Erzeugt einen Bericht im Hintergrund und meldet jeden fertigen Abschnitt an den
+     * Listener. Bei einem Cache-Treffer werden keine Abschnitte gemeldet.
+     * <p>
+     * Wird das Future abgebrochen, bricht die Erzeugung am nächsten Abschnitt bzw. nach
+     * spätestens 1024 Zeilen ab und löscht die unvollständige Datei. Schlägt die
+     * Erzeugung fehl, wird das Future mit der IOException bzw. der
+     * IllegalArgumentException für ein ungültiges Format abgeschlossen.
      */
-    private void addReportHeader(StringBuilder reportContent) {
-        reportContent.append("# UpTrack Systemreport\n");
-        reportContent.append("Generiert am: ")
-                .append(LocalDateTime.now().format(DateTimeFormatter.ofPattern(DATE_FORMAT)))
-                .append("\n\n");
+    public CompletableFuture<ReportResult> generateReportAsync(ReportConfig config, ReportProgressListener listener) {
+        CompletableFuture<ReportResult> future = new CompletableFuture<>();
+        try {
+            asyncExecutor().execute(() -> {
+                if (future.isCancelled()) {
+                    return;
+                }
+                try {
+                    future.complete(createReport(config, new ReportRun(plannedSections(config), listener,
+                            future::isCancelled)));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.error("Berichtserzeugung konnte nicht gestartet werden", e);
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
     /**
-     * Fügt den Benutzer-Abschnitt zum Report hinzu
+     * Erzeugt mehrere Berichte aus einem einzigen Durchlauf über den Bestand. Benutzer und
+     * Aufgaben werden nur einmal gelesen und ausgewertet, danach schreiben die Renderer
+     * aller Konfigurationen gleichzeitig auf dem Hintergrund-Executor. Berichte, die im
+     * Cache liegen, werden nicht neu geschrieben; liegen alle vor, entfällt der Durchlauf.
+     * <p>
+     * Alle Berichte eines Aufrufs beruhen auf derselben Auswertung, zeigen also auch
+     * dieselbe Zuordnung von Aufgaben und Aktivität der Benutzer.
+     *
+     * @return ein Ergebnis je Konfiguration in deren Reihenfolge, null für Berichte, die
+     *         nicht erstellt werden konnten
      */
-    private void addUserSection(StringBuilder reportContent, ReportData data, boolean includeStatistics) {
-        reportContent.append("## Benutzerinformationen\n\n");
+    public List<ReportResult> generateReports(List<ReportConfig> configs) {
+        int count = configs.size();
+        ReportResult[] results = new ReportResult[count];
+        ReportCache.Key[] cacheKeys = new ReportCache.Key[count];
+        ReportRun[] runs = new ReportRun[count];
+        List<Integer> pending = new ArrayList<>();
+        boolean includeUsers = false;
+        boolean includeTasks = false;
+
+        for (int i = 0; i < count; i++) {
+            ReportConfig config = configs.get(i);
+            if (!isValidFormat(config.getFormat())) {
+                logger.error("Ungültiges Format: {}. Erlaubte Formate: html, txt, csv, pdf", config.getFormat());
+                continue;
+            }
+            runs[i] = new ReportRun(plannedSections(config), ReportProgressListener.NONE, () -> false);
+            cacheKeys[i] = cacheKey(config);
+            ReportResult cached = cacheKeys[i] == null ? null : reportCache.get(cacheKeys[i]);
+            if (cached != null) {
+                results[i] = cached.asCached(runs[i].elapsed());
+                continue;
+            }
+            pending.add(i);
+            includeUsers |= config.isIncludeUsers();
+            includeTasks |= config.isIncludeTasks();
+        }
 
-        data.allUsers = userRepository.getAllUsers();
-        reportContent.append("Gesamtanzahl Benutzer: ").append(data.allUsers.size()).append("\n\n");
+        if (!pending.isEmpty()) {
+            logger.info("Starte Stapelerzeugung von {} Berichten", pending.size());
+            ReportRun collectRun = new ReportRun(List.of(), ReportProgressListener.NONE, () -> false);
+            ReportData sharedData = new ReportData();
+            if (includeUsers) {
+                collectUsers(sharedData, collectRun);
+            }
+            if (includeTasks) {
+                collectTasks(sharedData, collectRun);
+            }
 
-        // Benutzer nach Typ gruppieren
-        for (User user : data.allUsers) {
-            classifyUser(user, data);
-            addUserDetails(reportContent, user, data);
+            List<CompletableFuture<ReportResult>> renders = new ArrayList<>(pending.size());
+            for (int i : pending) {
+                ReportConfig config = configs.get(i);
+                ReportRun run = runs[i];
+                renders.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return renderReport(config, run, sharedData);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, asyncExecutor()));
+            }
+            for (int k = 0; k < pending.size(); k++) {
+                int i = pending.get(k);
+                try {
+                    results[i] = renders.get(k).join();
+                } catch (CompletionException e) {
+                    // bereits an der Fehlerstelle protokolliert
+                    continue;
+                }
+                if (cacheKeys[i] != null) {
+                    reportCache.put(cacheKeys[i], results[i]);
+                }
+            }
         }
 
-        // Benutzerstatistiken, wenn gewünscht
-        if (includeStatistics) {
-            addUserStatistics(reportContent, data);
+        for (int i = 0; i < count; i++) {
+            if (results[i] != null) {
+                sendIfRequested(configs.get(i), results[i].getFile());
+            }
         }
+        return Arrays.asList(results);
     }
 
     /**
-     * Klassifiziert einen Benutzer nach Typ und Aktivitätsstatus
+     * Liefert die Abschnitte, die ein Bericht mit dieser Konfiguration durchläuft
      */
-    private void classifyUser(User user, ReportData data) {
-        String userType = user instanceof Admin ? "Administrator" : "Standardbenutzer";
-        data.userTypeCounts.put(userType, data.userTypeCounts.getOrDefault(userType, 0) + 1);
-
-        // Status bestimmen (vereinfachte Annahme)
-        boolean isActive = Math.random() > 0.3; // Zufällig für Demozwecke
-        if (isActive) {
-            data.activeUsers.add(user);
-        } else {
-            data.inactiveUsers.add(user);
+    static List<ReportSection> plannedSections(ReportConfig config) {
+        List<ReportSection> sections = new ArrayList<>();
+        if (config.isIncludeUsers()) {
+            sections.add(ReportSection.USERS);
         }
+        if (config.isIncludeTasks()) {
+            sections.add(ReportSection.TASKS);
+            sections.add(ReportSection.STATISTICS);
+        }
+        if (config.isIncludeCharts()) {
+            sections.add(ReportSection.CHARTS);
+        }
+        return sections;
     }
 
     /**
-     * Fügt Benutzerdetails zum Report hinzu
+     * Erzeugt den Bericht oder liefert ihn aus dem Cache und versendet ihn bei Bedarf
+     *
+     * @throws IllegalArgumentException bei einem ungültigen Format
+     * @throws IOException              wenn die Datei nicht geschrieben werden konnte
+     * @throws CancellationException    wenn die Erzeugung abgebrochen wurde
      */
-    private void addUserDetails(StringBuilder reportContent, User user, ReportData data) {
-        boolean isActive = data.activeUsers.contains(user);
-        String userType = user instanceof Admin ? "Administrator" : "Standardbenutzer";
-
-        reportContent.append("- ").append(user.getUsername()).append(" (").append(userType).append(")\n");
-        reportContent.append("  Status: ").append(isActive ? "Aktiv" : "Inaktiv").append("\n\n");
-    }
+    private ReportResult createReport(ReportConfig config, ReportRun run) throws IOException {
+        String format = config.getFormat();
+        logger.info("Starte Berichtsgenerierung im Format {}", format);
 
-    /**
-     * Fügt Benutzerstatistiken zum Report hinzu
-     */
-    private void addUserStatistics(StringBuilder reportContent, ReportData data) {
-        reportContent.append("### Benutzerstatistiken\n\n");
-        reportContent.append("Aktive Benutzer: ").append(data.activeUsers.size()).append("\n");
-        reportContent.append("Inaktive Benutzer: ").append(data.inactiveUsers.size()).append("\n\n");
+        // Validierung
+        if (!isValidFormat(format)) {
+            logger.error("Ungültiges Format: {}. Erlaubte Formate: html, txt, csv, pdf", format);
+            throw new IllegalArgumentException("Ungültiges Format: " + format);
+        }
 
-        reportContent.append("Benutzertypen:\n");
-        for (Map.Entry<String, Integer> entry : data.userTypeCounts.entrySet()) {
-            reportContent.append("- ").append(entry.getKey()).append(": ")
-                    .append(entry.getValue()).append("\n");
+        // Versionen vor dem Lesen bestimmen: Änderungen während des Schreibens führen
+        // beim nächsten Aufruf zu einem Fehlschlag statt zu einem veralteten Treffer
+        ReportCache.Key cacheKey = cacheKey(config);
+        ReportResult result = cacheKey == null ? null : reportCache.get(cacheKey);
+        if (result != null) {
+            logger.info("Daten unverändert, verwende vorhandenen Bericht: {}", result.getFile().getAbsolutePath());
+            result = result.asCached(run.elapsed());
+            run.metrics.increment("report.cacheHits");
+        } else {
+            result = renderReport(config, run, null);
+            if (cacheKey != null) {
+                reportCache.put(cacheKey, result);
+            }
         }
-        reportContent.append("\n");
+
+        // E-Mail versenden, wenn gewünscht
+        sendIfRequested(config, result.getFile());
+        return result;
     }
 
     /**
-     * Fügt den Aufgaben-Abschnitt zum Report hinzu
+     * Versendet den Bericht per E-Mail, wenn die Konfiguration es verlangt
      */
-    private void addTaskSection(StringBuilder reportContent, ReportData data, boolean includeStatistics) {
-        reportContent.append("## Aufgabeninformationen\n\n");
-
-        // Aufgaben laden
-        data.allTasks = loadTasks();
-        data.totalTasks = data.allTasks.size();
-
-        reportContent.append("Gesamtanzahl Aufgaben: ").append(data.totalTasks).append("\n\n");
-
-        // Aufgaben nach Status zählen
-        for (Tasks task : data.allTasks) {
-            processTask(task, data);
-            addTaskDetails(reportContent, task, data);
+    private void sendIfRequested(ReportConfig config, File reportFile) {
+        List<String> emailRecipients = config.getEmailRecipients();
+        if (config.isSendEmail() && emailRecipients != null && !emailRecipients.isEmpty()) {
+            if (!sendReportByEmail(reportFile, emailRecipients)) {
+                logger.warn("Bericht wurde erstellt, konnte aber nicht per E-Mail versendet werden");
+            }
         }
+    }
 
-        // Aufgabenstatistiken, wenn gewünscht
-        if (includeStatistics) {
-            addTaskStatistics(reportContent, data);
-        }
+    private Random random() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
+    private Executor asyncExecutor() {
+        return asyncExecutor != null ? asyncExecutor : DefaultAsyncExecutor.INSTANCE;
     }
 
     /**
-     * Lädt Aufgaben und erstellt Beispielaufgaben falls keine vorhanden sind
+     * Bildet den Cache-Schlüssel. Liefert null, wenn kein Cache konfiguriert ist oder eine
+     * benötigte Ablage keine Datenversion führt.
      */
-    private List<Tasks> loadTasks() {
-        List<Tasks> tasks = taskRepository.getAllTasks();
-        if (tasks.isEmpty()) {
-            tasks = createSampleTasks();
-            logger.info("Keine Aufgaben gefunden, {} Beispielaufgaben erstellt", tasks.size());
+    private ReportCache.Key cacheKey(ReportConfig config) {
+        if (reportCache == null) {
+            return null;
         }
-        return tasks;
+        long userVersion = 0;
+        if (config.isIncludeUsers()) {
+            if (!(userRepository instanceof ObservableRepository)) {
+                return null;
+            }
+            userVersion = ((ObservableRepository) userRepository).getDataVersion();
+        }
+        long taskVersion = 0;
+        if (config.isIncludeTasks()) {
+            if (!(taskRepository instanceof ObservableRepository)) {
+                return null;
+            }
+            taskVersion = ((ObservableRepository) taskRepository).getDataVersion();
+        }
+        return new ReportCache.Key(config, LocalDate.now(), userVersion, taskVersion);
     }
 
     /**
-     * Verarbeitet eine Aufgabe und aktualisiert die Report-Daten
+     * Schreibt den Bericht abschnittsweise in eine neue Datei. Ohne gemeinsame Daten werden
+     * Benutzer und Aufgaben im jeweiligen Abschnitt gelesen und ausgewertet. Kopf und jeder
+     * fertige Abschnitt werden sofort in die Datei geschrieben, die ersten Bytes liegen also
+     * vor, bevor die Aufgaben gelesen sind. Bei einem Fehler oder Abbruch wird die
+     * unvollständige Datei gelöscht.
+     *
+     * @param sharedData bereits gesammelte Daten eines Stapellaufs oder null
      */
-    private void processTask(Tasks task, ReportData data) {
-        String status = task.getStatus();
-        data.taskStatusCounts.put(status, data.taskStatusCounts.getOrDefault(status, 0) + 1);
+    private ReportResult renderReport(ReportConfig config, ReportRun run, ReportData sharedData) throws IOException {
+        String format = config.getFormat();
 
-        if (STATUS_ABGESCHLOSSEN.equals(status)) {
-            data.completedTasks++;
-        } else if (STATUS_OFFEN.equals(status)) {
-            data.openTasks++;
-        } else if (STATUS_ABGEBROCHEN.equals(status)) {
-            data.canceledTasks++;
-        }
+        // Ausgabedatei vorbereiten
+        MetricsRegistry metrics = run.metrics;
+        long start = metrics.startTimer();
+        File outputFile = prepareOutputFile(config.getOutputPath(), format);
+        metrics.stopTimer("report.prepareOutputFile", start);
+
+        // Report-Daten sammeln und abschnittsweise direkt in die Datei schreiben
+        ReportData reportData = sharedData != null ? sharedData : new ReportData();
+        try (Writer writer = openReportWriter(outputFile)) {
+            ReportRenderer renderer = ReportRenderer.forFormat(format, writer);
+
+            // Report-Header erstellen
+            renderer.beginReport(LocalDateTime.now());
+            flush(writer, metrics);
+
+            // Benutzerdaten sammeln und hinzufügen
+            if (config.isIncludeUsers()) {
+                run.beginSection();
+                if (sharedData == null) {
+                    collectUsers(reportData, run);
+                }
+                addUserSection(renderer, reportData, config.isIncludeStatistics(), run);
+                flush(writer, metrics);
+                run.endSection(ReportSection.USERS);
+            }
+
+            // Aufgabendaten sammeln und hinzufügen
+            if (config.isIncludeTasks()) {
+                run.beginSection();
+                if (sharedData == null) {
+                    collectTasks(reportData, run);
+                }
+                addTaskSection(renderer, reportData, run);
+                flush(writer, metrics);
+                run.endSection(ReportSection.TASKS);
+
+                // Aufgabenstatistiken, wenn gewünscht
+                run.beginSection();
+                if (config.isIncludeStatistics()) {
+                    renderer.taskStatistics(reportData);
+                    flush(writer, metrics);
+                }
+                run.endSection(ReportSection.STATISTICS);
+            }
 
-        // Aufgaben dem Benutzer zuordnen (simuliert)
-        String assignedUser = "user" + (int)(Math.random() * 5); // Zufällig für Demozwecke
-        if (!data.userTaskMap.containsKey(assignedUser)) {
-            data.userTaskMap.put(assignedUser, new ArrayList<>());
+            // Visualisierungen hinzufügen
+            if (config.isIncludeCharts()) {
+                run.beginSection();
+                renderer.visualizations(reportData);
+                flush(writer, metrics);
+                run.endSection(ReportSection.CHARTS);
+            }
+
+            renderer.endReport();
+
+            // Restlichen Puffer auf die Platte schreiben
+            flush(writer, metrics);
+        } catch (CancellationException e) {
+            logger.info("Berichtserzeugung abgebrochen, unvollständige Datei wird gelöscht");
+            metrics.increment("report.cancelled");
+            deletePartialReport(outputFile);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Fehler beim Schreiben des Berichts", e);
+            metrics.increment("report.failed");
+            deletePartialReport(outputFile);
+            throw e;
         }
-        data.userTaskMap.get(assignedUser).add(task);
 
-        // Fälligkeitsdatum-Analyse
-        analyzeDueDate(task, data);
+        if (FORMAT_PDF.equals(format)) {
+            logger.info("Hinweis: PDF-Erzeugung würde in einer realen Implementierung zusätzliche Bibliotheken erfordern");
+        }
+        logger.info("Bericht erfolgreich erstellt: {}", outputFile.getAbsolutePath());
+        metrics.increment("report.generated." + format);
+        metrics.stopTimer("report.total." + format, run.startNanos);
+        return new ReportResult(outputFile, format, run.userRows, run.taskRows, run.elapsed(),
+                run.getSectionDurations(), false);
     }
 
     /**
-     * Analysiert das Fälligkeitsdatum einer Aufgabe
+     * Bereitet die Ausgabedatei vor
      */
-    private void analyzeDueDate(Tasks task, ReportData data) {
-        if (STATUS_OFFEN.equals(task.getStatus()) && task.getDueDate() != null) {
-            try {
-                LocalDate dueDate = LocalDate.parse(task.getDueDate());
-                LocalDate today = LocalDate.now();
-
-                if (dueDate.isBefore(today)) {
-                    data.overdueCount++;
-                } else if (ChronoUnit.DAYS.between(today, dueDate) <= 7) {
-                    data.dueSoonCount++;
-                }
-            } catch (Exception e) {
-                logger.warn("Ungültiges Datumsformat für Aufgabe: {}", task.getTitle());
+    private File prepareOutputFile(String outputPath, String format) throws IOException {
+        // Pfadvalidierung
+        File outputDir = new File(outputPath);
+        if (!outputDir.exists()) {
+            if (!outputDir.mkdirs()) {
+                logger.error("Ausgabeverzeichnis konnte nicht erstellt werden: {}", outputPath);
+                throw new IOException("Ausgabeverzeichnis konnte nicht erstellt werden: " + outputPath);
             }
         }
+
+        // Dateigeneration
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern(FILENAME_DATE_FORMAT));
+        String filename = "UpTrack_Report_" + timestamp + "." + format;
+        File outputFile = new File(outputDir, filename);
+        // Mehrere Berichte in derselben Sekunde dürfen einander nicht überschreiben,
+        // sonst würden zwischengespeicherte Berichte ungültig. Das Anlegen ist atomar,
+        // gleichzeitig erzeugte Berichte erhalten so verschiedene Dateien.
+        for (int i = 2; !outputFile.createNewFile(); i++) {
+            outputFile = new File(outputDir, "UpTrack_Report_" + timestamp + "_" + i + "." + format);
+        }
+        return outputFile;
     }
 
     /**
-     * Fügt Aufgabendetails zum Report hinzu
+     * Schreibt den Puffer in die Datei, damit fertige Abschnitte schon während des Laufs
+     * lesbar sind
      */
-    private void addTaskDetails(StringBuilder reportContent, Tasks task, ReportData data) {
-        String assignedUser = findAssignedUser(task, data);
-
-        reportContent.append("- ").append(task.getTitle()).append("\n");
-        reportContent.append("  Beschreibung: ").append(task.getDescription()).append("\n");
-        reportContent.append("  Status: ").append(task.getStatus()).append("\n");
-        reportContent.append("  Fälligkeitsdatum: ").append(task.getDueDate()).append("\n");
-        reportContent.append("  Zugewiesen an: ").append(assignedUser).append("\n");
-
-        // Aufgabenhistorie ausgeben
-        addTaskHistory(reportContent, task);
-        reportContent.append("\n");
+    private static void flush(Writer writer, MetricsRegistry metrics) throws IOException {
+        long start = metrics.startTimer();
+        writer.flush();
+        metrics.stopTimer("report.flush", start);
     }
 
     /**
-     * Findet den zugewiesenen Benutzer für eine Aufgabe
+     * Öffnet einen gepufferten UTF-8-Writer auf die Ausgabedatei
      */
-    private String findAssignedUser(Tasks task, ReportData data) {
-        for (Map.Entry<String, List<Tasks>> entry : data.userTaskMap.entrySet()) {
-            if (entry.getValue().contains(task)) {
-                return entry.getKey();
-            }
-        }
-        return "Nicht zugewiesen";
+    private Writer openReportWriter(File outputFile) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(outputFile), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
     }
 
     /**
-     * Fügt die Aufgabenhistorie zum Report hinzu
+     * Lädt alle Benutzer und klassifiziert sie
      */
-    private void addTaskHistory(StringBuilder reportContent, Tasks task) {
-        List<String> history = task.getHistory();
-        if (!history.isEmpty()) {
-            reportContent.append("  Historie: ").append("\n");
-            for (String entry : history) {
-                reportContent.append("    - ").append(entry).append("\n");
-            }
+    private void collectUsers(ReportData data, ReportRun run) {
+        long start = run.metrics.startTimer();
+        data.allUsers = userRepository.getAllUsers();
+
+        // Benutzer nach Typ gruppieren
+        for (User user : data.allUsers) {
+            classifyUser(user, data);
+            run.row();
         }
+        run.metrics.stopTimer("report.collectUsers", start);
     }
 
     /**
-     * Fügt Aufgabenstatistiken zum Report hinzu
+     * Fügt den Benutzer-Abschnitt zum Report hinzu
      */
-    private void addTaskStatistics(StringBuilder reportContent, ReportData data) {
-        reportContent.append("### Aufgabenstatistiken\n\n");
-
-        // Berechnungen durchführen
-        if (data.totalTasks > 0) {
-            data.completionRate = (double) data.completedTasks / data.totalTasks * 100;
+    private void addUserSection(ReportRenderer renderer, ReportData data, boolean includeStatistics, ReportRun run)
+            throws IOException {
+        renderer.beginUserSection(data.allUsers.size());
+        for (User user : data.allUsers) {
+            addUserDetails(renderer, user, data);
+            run.row();
         }
+        renderer.endUserSection();
+        run.userRows = data.allUsers.size();
 
-        // Statistiken ausgeben
-        reportContent.append("Abgeschlossene Aufgaben: ").append(data.completedTasks)
-                .append(" (").append(String.format("%.2f", data.completionRate)).append("%)\n");
-        reportContent.append("Offene Aufgaben: ").append(data.openTasks).append("\n");
-        reportContent.append("Abgebrochene Aufgaben: ").append(data.canceledTasks).append("\n\n");
-
-        reportContent.append("Status-Übersicht:\n");
-        for (Map.Entry<String, Integer> entry : data.taskStatusCounts.entrySet()) {
-            reportContent.append("- ").append(entry.getKey()).append(": ")
-                    .append(entry.getValue()).append("\n");
+        // Benutzerstatistiken, wenn gewünscht
+        if (includeStatistics) {
+            renderer.userStatistics(data);
         }
-        reportContent.append("\n");
-
-        // Fälligkeitsdatum-Analyse ausgeben
-        reportContent.append("Überfällige Aufgaben: ").append(data.overdueCount).append("\n");
-        reportContent.append("In den nächsten 7 Tagen fällig: ").append(data.dueSoonCount).append("\n\n");
-
-        // Benutzerproduktivität ausgeben
-        addUserProductivityStats(reportContent, data);
     }
 
     /**
-     * Fügt Benutzerproduktivitätsstatistiken zum Report hinzu
+     * Klassifiziert einen Benutzer nach Typ und Aktivitätsstatus
      */
-    private void addUserProductivityStats(StringBuilder reportContent, ReportData data) {
-        reportContent.append("### Benutzerproduktivität\n\n");
-
-        for (Map.Entry<String, List<Tasks>> entry : data.userTaskMap.entrySet()) {
-            String username = entry.getKey();
-            List<Tasks> userTasks = entry.getValue();
-            int userCompleted = (int) userTasks.stream()
-                    .filter(t -> STATUS_ABGESCHLOSSEN.equals(t.getStatus()))
-                    .count();
-
-            double userCompletionRate = userTasks.isEmpty() ? 0 :
-                    (double) userCompleted / userTasks.size() * 100;
+    private void classifyUser(User user, ReportData data) {
+        String userType = ReportData.userTypeOf(user);
+        data.userTypeCounts.put(userType, data.userTypeCounts.getOrDefault(userType, 0) + 1);
 
-            reportContent.append("- ").append(username)
-                    .append(": ").append(userTasks.size()).append(" Aufgaben insgesamt, ")
-                    .append(userCompleted).append(" abgeschlossen (")
-                    .append(String.format("%.2f", userCompletionRate))
-                    .append("%)\n");
-        }
-        reportContent.append("\n");
+        // Status bestimmen (vereinfachte Annahme)
+        boolean isActive = random().nextDouble() > 0.3; // Zufällig für Demozwecke
+        data.markUser(user, isActive);
     }
 
     /**
-     * Fügt Visualisierungen zum Report hinzu
+     * Fügt Benutzerdetails zum Report hinzu
      */
-    private void addVisualizations(StringBuilder reportContent, ReportData data, String format) {
-        reportContent.append("## Visualisierungen\n\n");
+    private void addUserDetails(ReportRenderer renderer, User user, ReportData data) throws IOException {
+        renderer.userRow(user, ReportData.userTypeOf(user), data.isActive(user));
+    }
 
-        if (FORMAT_HTML.equals(format) || FORMAT_PDF.equals(format)) {
-            reportContent.append("### Aufgabenstatus-Verteilung\n\n");
+    /**
+     * Lädt die Aufgaben, ordnet sie zu und übernimmt Produktivität und Aufgabenstatistik
+     * in die Report-Daten. Zeilen und Statistik stammen aus derselben Momentaufnahme.
+     */
+    private void collectTasks(ReportData data, ReportRun run) {
+        long start = run.metrics.startTimer();
+        TaskStatistics statistics = loadTasks(data);
+        data.totalTasks = data.allTasks.size();
 
-            if (FORMAT_TXT.equals(format)) {
-                addAsciiCharts(reportContent, data);
-            } else {
-                // HTML/PDF Chart-Platzhalter
-                reportContent.append("[Hier würde ein Statusverteilungs-Diagramm angezeigt]\n\n");
-                reportContent.append("### Benutzeraktivität\n\n");
-                reportContent.append("[Hier würde ein Benutzeraktivitäts-Diagramm angezeigt]\n\n");
-            }
+        // Aufgaben zuordnen und je Benutzer zählen
+        TaskAggregate aggregate = new TaskAggregate();
+        for (Tasks task : data.allTasks) {
+            aggregate.add(task, assignTask(task, data));
+            run.row();
         }
+        aggregate.applyProductivityTo(data);
+        statistics.applyTo(data);
+        run.metrics.stopTimer("report.collectTasks", start);
     }
 
     /**
-     * Fügt ASCII-Art-Charts zum Report hinzu (für TXT-Format)
+     * Fügt den Aufgaben-Abschnitt zum Report hinzu
      */
-    private void addAsciiCharts(StringBuilder reportContent, ReportData data) {
-        reportContent.append("Aufgabenstatus:\n");
-        for (Map.Entry<String, Integer> entry : data.taskStatusCounts.entrySet()) {
-            reportContent.append(entry.getKey()).append(": ");
-            int bars = entry.getValue();
-            for (int i = 0; i < bars; i++) {
-                reportContent.append("#");
-            }
-            reportContent.append(" (").append(entry.getValue()).append(")\n");
+    private void addTaskSection(ReportRenderer renderer, ReportData data, ReportRun run) throws IOException {
+        renderer.beginTaskSection(data.totalTasks);
+        for (Tasks task : data.allTasks) {
+            addTaskDetails(renderer, task, data);
+            run.row();
         }
-        reportContent.append("\n");
+        renderer.endTaskSection();
+        run.taskRows = data.totalTasks;
     }
 
     /**
-     * Schreibt den Report in eine Datei
+     * Lädt Aufgaben und erstellt Beispielaufgaben falls keine vorhanden sind.
+     * Liefert die Statistik genau der geladenen Aufgaben.
      */
-    private boolean writeReportToFile(File outputFile, String content, String format) {
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            // Format-spezifische Anpassungen
-            String finalContent;
-
-            if (FORMAT_HTML.equals(format)) {
-                finalContent = convertToHtml(content);
-            } else if (FORMAT_CSV.equals(format)) {
-                finalContent = convertToCsv(content);
-            } else if (FORMAT_PDF.equals(format)) {
-                finalContent = content; // PDF würde weitere Verarbeitung erfordern
-                logger.info("Hinweis: PDF-Erzeugung würde in einer realen Implementierung zusätzliche Bibliotheken erfordern");
-            } else {
-                // txt Format
-                finalContent = content;
+    private TaskStatistics loadTasks(ReportData data) {
+        TaskSnapshot snapshot = taskRepository.getSnapshot(LocalDate.now());
+        if (snapshot.getTasks().isEmpty()) {
+            InMemoryTaskRepository sampleRepository = new InMemoryTaskRepository();
+            for (Tasks task : createSampleTasks()) {
+                sampleRepository.addTask(task);
             }
-
-            writer.write(finalContent);
-            logger.info("Bericht erfolgreich erstellt: {}", outputFile.getAbsolutePath());
-            return true;
-        } catch (IOException e) {
-            logger.error("Fehler beim Schreiben des Berichts", e);
-            return false;
+            snapshot = sampleRepository.getSnapshot(LocalDate.now());
+            logger.info("Keine Aufgaben gefunden, {} Beispielaufgaben erstellt", snapshot.getTasks().size());
         }
+        data.allTasks = snapshot.getTasks();
+        return snapshot.getStatistics();
     }
 
     /**
-     * Prüft, ob das angegebene Format gültig ist
+     * Ordnet eine Aufgabe einem Benutzer zu (simuliert)
      */
-    private boolean isValidFormat(String format) {
-        return FORMAT_HTML.equals(format) || FORMAT_TXT.equals(format) ||
-                FORMAT_CSV.equals(format) || FORMAT_PDF.equals(format);
+    private String assignTask(Tasks task, ReportData data) {
+        String assignedUser = "user" + random().nextInt(5); // Zufällig für Demozwecke
+        data.assignTask(task, assignedUser);
+        return assignedUser;
     }
 
     /**
-     * Konvertiert Markdown-Text in HTML
+     * Fügt Aufgabendetails zum Report hinzu
      */
-    private String convertToHtml(String markdown) {
-        // Vereinfachte Markdown-zu-HTML-Konvertierung für das Beispiel
-        String html = "<!DOCTYPE html><html><head><title>UpTrack Report</title></head><body>";
-
-        // Einfache Umwandlung von Markdown-Formatierung in HTML
-        html += markdown.replace("# ", "<h1>").replace("\n\n", "</p><p>")
-                .replace("## ", "<h2>").replace("### ", "<h3>")
-                .replace("\n- ", "<br>• ");
-
-        html += "</body></html>";
-        return html;
+    private void addTaskDetails(ReportRenderer renderer, Tasks task, ReportData data) throws IOException {
+        renderer.taskRow(task, data.assigneeOf(task));
     }
 
     /**
-     * Konvertiert Berichtstext in CSV-Format
+     * Entfernt eine unvollständig geschriebene Berichtsdatei
      */
-    private String convertToCsv(String report) {
-        // Sehr vereinfachte Umwandlung in CSV für das Beispiel
-        StringBuilder csv = new StringBuilder();
-        csv.append("Kategorie,Name,Wert\n");
-
-        // Einfache Extraktion einiger Daten aus dem Bericht
-        String[] lines = report.split("\n");
-        for (String line : lines) {
-            if (line.startsWith("- ")) {
-                String[] parts = line.substring(2).split(":");
-                if (parts.length >= 2) {
-                    csv.append("Element,").append(parts[0].trim()).append(",")
-                            .append(parts[1].trim()).append("\n");
-                }
-            }
+    private void deletePartialReport(File outputFile) {
+        if (outputFile.exists() && !outputFile.delete()) {
+            logger.warn("Unvollständiger Bericht konnte nicht gelöscht werden: {}", outputFile.getAbsolutePath());
         }
+    }
 
-        return csv.toString();
+    /**
+     * Prüft, ob das angegebene Format gültig ist
+     */
+    static boolean isValidFormat(String format) {
+        return FORMAT_HTML.equals(format) || FORMAT_TXT.equals(format) ||
+                FORMAT_CSV.equals(format) || FORMAT_PDF.equals(format);
     }
 
     /**
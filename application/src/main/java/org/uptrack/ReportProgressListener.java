@@ -0,0 +1,18 @@
+package org.uptrack;
+
+/**
+ * Empfängt den Fortschritt einer Berichtserzeugung. Wird im erzeugenden Thread
+ * aufgerufen, Oberflächen müssen selbst in ihren Thread wechseln.
+ */
+@FunctionalInterface
+public interface ReportProgressListener {
+    ReportProgressListener NONE = (section, completedSections, totalSections) -> {
+    };
+
+    /**
+     * @param section           der gerade fertiggestellte Abschnitt
+     * @param completedSections Anzahl fertiger Abschnitte einschließlich section
+     * @param totalSections     Anzahl der Abschnitte dieses Berichts
+     */
+    void sectionCompleted(ReportSection section, int completedSections, int totalSections);
+}
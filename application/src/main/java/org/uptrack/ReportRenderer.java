@@ -0,0 +1,63 @@
+package org.uptrack;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Schreibt einen Bericht in einem bestimmten Ausgabeformat.
+ * Der ReportGenerator ruft die Methoden in Dokumentreihenfolge auf; jede
+ * Implementierung schreibt ihre Ausgabe sofort in den übergebenen Writer.
+ */
+interface ReportRenderer {
+    DateTimeFormatter GENERATED_AT_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+    void beginReport(LocalDateTime generatedAt) throws IOException;
+
+    void beginUserSection(int totalUsers) throws IOException;
+
+    void userRow(User user, String userType, boolean active) throws IOException;
+
+    void endUserSection() throws IOException;
+
+    void userStatistics(ReportData data) throws IOException;
+
+    void beginTaskSection(int totalTasks) throws IOException;
+
+    void taskRow(Tasks task, String assignedUser) throws IOException;
+
+    void endTaskSection() throws IOException;
+
+    void taskStatistics(ReportData data) throws IOException;
+
+    void visualizations(ReportData data) throws IOException;
+
+    void endReport() throws IOException;
+
+    /**
+     * Liefert den passenden Renderer für das angegebene Format
+     */
+    static ReportRenderer forFormat(String format, Writer out) {
+        switch (format) {
+            case "html":
+                return new HtmlReportRenderer(out);
+            case "csv":
+                return new CsvReportRenderer(out);
+            case "pdf":
+                // PDF würde weitere Verarbeitung erfordern, bis dahin Textlayout mit Diagramm-Platzhaltern
+                return new TextReportRenderer(out, false);
+            case "txt":
+                return new TextReportRenderer(out, true);
+            default:
+                throw new IllegalArgumentException("Unbekanntes Berichtsformat: " + format);
+        }
+    }
+
+    /**
+     * Formatiert einen Prozentwert mit zwei Nachkommastellen
+     */
+    static String percent(double value) {
+        return String.format("%.2f", value);
+    }
+}
@@ -0,0 +1,82 @@
+package org.uptrack;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ergebnis einer Berichtserzeugung: Datei, Zeilenzahlen und Laufzeiten je Abschnitt
+ */
+public final class ReportResult {
+    private final File file;
+    private final String format;
+    private final int userRows;
+    private final int taskRows;
+    private final Duration elapsed;
+    private final Map<ReportSection, Duration> sectionDurations;
+    private final boolean cached;
+
+    ReportResult(File file, String format, int userRows, int taskRows, Duration elapsed,
+                 Map<ReportSection, Duration> sectionDurations, boolean cached) {
+        this.file = file;
+        this.format = format;
+        this.userRows = userRows;
+        this.taskRows = taskRows;
+        this.elapsed = elapsed;
+        this.sectionDurations = sectionDurations.isEmpty()
+                ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(sectionDurations));
+        this.cached = cached;
+    }
+
+    /**
+     * Liefert dasselbe Ergebnis als Cache-Treffer mit der Laufzeit der Cache-Abfrage
+     */
+    ReportResult asCached(Duration lookupTime) {
+        return new ReportResult(file, format, userRows, taskRows, lookupTime, sectionDurations, true);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public int getUserRows() {
+        return userRows;
+    }
+
+    public int getTaskRows() {
+        return taskRows;
+    }
+
+    /**
+     * Gesamtlaufzeit dieses Aufrufs, bei einem Cache-Treffer nur die Dauer der Abfrage
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Laufzeiten der Abschnitte bei der ursprünglichen Erzeugung
+     */
+    public Map<ReportSection, Duration> getSectionDurations() {
+        return sectionDurations;
+    }
+
+    /**
+     * true, wenn der Bericht unverändert aus dem Cache stammt
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportResult{" + file + ", Benutzer=" + userRows + ", Aufgaben=" + taskRows
+                + ", Dauer=" + elapsed.toMillis() + " ms" + (cached ? ", aus Cache" : "") + "}";
+    }
+}
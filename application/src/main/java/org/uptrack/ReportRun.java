@@ -0,0 +1,78 @@
+package org.uptrack;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Zustand einer laufenden Berichtserzeugung: geplante Abschnitte, Fortschritt,
+ * Laufzeiten, Zeilenzahlen und die Abbruchprüfung. Der Abbruch wird an
+ * Abschnittsgrenzen und alle {@link #CHECK_INTERVAL} Zeilen geprüft. Die Laufzeiten
+ * der Abschnitte gehen zusätzlich als "report.section.<abschnitt>" in die Metriken.
+ */
+final class ReportRun {
+    static final int CHECK_INTERVAL = 1024;
+
+    final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final ReportProgressListener listener;
+    private final BooleanSupplier cancelled;
+    private final int totalSections;
+    private final Map<ReportSection, Duration> sectionDurations = new EnumMap<>(ReportSection.class);
+    final long startNanos = System.nanoTime();
+    private long sectionStartNanos;
+    private int completedSections;
+    private int rows;
+    int userRows;
+    int taskRows;
+
+    ReportRun(List<ReportSection> plannedSections, ReportProgressListener listener, BooleanSupplier cancelled) {
+        this.totalSections = plannedSections.size();
+        this.listener = listener;
+        this.cancelled = cancelled;
+    }
+
+    void beginSection() {
+        checkCancelled();
+        sectionStartNanos = System.nanoTime();
+    }
+
+    void endSection(ReportSection section) {
+        long nanos = System.nanoTime() - sectionStartNanos;
+        sectionDurations.put(section, Duration.ofNanos(nanos));
+        if (metrics.isEnabled()) {
+            metrics.histogram("report.section." + section.name().toLowerCase(Locale.ROOT)).record(nanos);
+        }
+        completedSections++;
+        listener.sectionCompleted(section, completedSections, totalSections);
+    }
+
+    /**
+     * Zählt eine geschriebene Zeile und prüft regelmäßig auf Abbruch
+     */
+    void row() {
+        if (++rows % CHECK_INTERVAL == 0) {
+            checkCancelled();
+        }
+    }
+
+    /**
+     * @throws CancellationException wenn die Erzeugung abgebrochen wurde
+     */
+    void checkCancelled() {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Berichtserzeugung abgebrochen");
+        }
+    }
+
+    Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    Map<ReportSection, Duration> getSectionDurations() {
+        return sectionDurations;
+    }
+}
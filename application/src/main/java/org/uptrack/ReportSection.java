@@ -0,0 +1,21 @@
+package org.uptrack;
+
+/**
+ * Abschnitte eines Berichts in der Reihenfolge, in der sie erzeugt werden
+ */
+public enum ReportSection {
+    USERS("Benutzer"),
+    TASKS("Aufgaben"),
+    STATISTICS("Statistiken"),
+    CHARTS("Diagramme");
+
+    private final String displayName;
+
+    ReportSection(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -5,6 +5,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Einfache Benutzerablage auf Basis einer HashMap. Nicht threadsicher, für den
+ * Zugriff aus mehreren Threads {@link ConcurrentUserRepository} verwenden.
+ */
 public class Repository implements UserRepository {
     private Map<String, User> users;
 
@@ -0,0 +1,57 @@
+package org.uptrack;
+
+import java.util.Objects;
+
+/**
+ * Änderung an einem Eintrag einer Ablage. Der Eintrag wird über seinen Schlüssel
+ * bezeichnet, bei Benutzern der Benutzername, bei Aufgaben der Titel.
+ */
+public final class RepositoryChange {
+
+    /**
+     * Art der Änderung
+     */
+    public enum Type {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+
+    private final Type type;
+    private final String key;
+
+    public RepositoryChange(Type type, String key) {
+        this.type = Objects.requireNonNull(type);
+        this.key = Objects.requireNonNull(key);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RepositoryChange)) {
+            return false;
+        }
+        RepositoryChange other = (RepositoryChange) o;
+        return type == other.type && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + key;
+    }
+}
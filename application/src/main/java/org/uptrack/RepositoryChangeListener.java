@@ -0,0 +1,11 @@
+package org.uptrack;
+
+/**
+ * Empfängt Änderungen einer Ablage. Wird im Thread aufgerufen, der die Änderung
+ * vorgenommen hat, nachdem sie für Leser sichtbar ist; Implementierungen dürfen
+ * daher nicht blockieren.
+ */
+@FunctionalInterface
+public interface RepositoryChangeListener {
+    void onChange(RepositoryChange change);
+}
@@ -0,0 +1,27 @@
+package org.uptrack;
+
+import java.util.List;
+
+/**
+ * Benutzerablage, die Benutzernamen über einen Index durchsucht, statt alle Benutzer zu kopieren
+ */
+public interface SearchableUserRepository extends UserRepository {
+
+    /**
+     * Art des Vergleichs zwischen Suchbegriff und Benutzername
+     */
+    enum MatchMode {
+        SUBSTRING,
+        PREFIX
+    }
+
+    /**
+     * Liefert höchstens limit Benutzer, deren Name zum Suchbegriff passt. Genaue Treffer
+     * stehen vorn, danach Treffer am Namensanfang, danach kürzere vor längeren Namen.
+     * Bei {@link MatchMode#PREFIX} folgen auf einen genauen Treffer die übrigen in
+     * Sortierreihenfolge, so dass die Suche nach limit Treffern enden kann. Wird der
+     * aufrufende Thread unterbrochen, darf die Suche vorzeitig mit den bis dahin
+     * gefundenen Benutzern enden.
+     */
+    List<User> searchUsers(String term, MatchMode mode, boolean ignoreCase, int limit);
+}
@@ -0,0 +1,296 @@
+package org.uptrack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Verwaltet Snapshot und Änderungsprotokolle einer Ablage in einem Verzeichnis.
+ * Die Protokolle sind in Generationen geteilt ({@code <name>.<generation>.wal}); ein
+ * Snapshot ({@code <name>.snapshot}) enthält den Stand vor Beginn seiner Generation.
+ * Beim Start wird der Snapshot geladen und nur die Protokolle ab dieser Generation
+ * eingespielt; ältere Protokolle werden nach jedem Snapshot gelöscht. Ein abgebrochenes
+ * Ende wird nur im zuletzt beschriebenen Protokoll abgeschnitten, jede andere
+ * Beschädigung verhindert den Start.
+ */
+class SnapshotLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotLog.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x55505453; // "UPTS"
+    private static final int SNAPSHOT_VERSION = 2;
+    // Version 1 speicherte die Länge als int
+    private static final int SNAPSHOT_V1_HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+    private static final int SNAPSHOT_HEADER_SIZE = 3 * Integer.BYTES + 2 * Long.BYTES;
+    private static final String LOG_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final String name;
+    private final boolean syncOnCommit;
+    private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+    private volatile WriteAheadLog log;
+    private volatile IOException failure;
+    private long generation;
+    private long snapshotGeneration;
+
+    /**
+     * Liest den Inhalt eines Snapshots oder eines Protokolleintrags
+     */
+    interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Schreibt den Inhalt eines Snapshots
+     */
+    interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private SnapshotLog(Path directory, String name, boolean syncOnCommit) {
+        this.directory = directory;
+        this.name = name;
+        this.syncOnCommit = syncOnCommit;
+    }
+
+    /**
+     * Stellt den gespeicherten Stand wieder her und öffnet das Protokoll zum Anhängen
+     */
+    static SnapshotLog open(Path directory, String name, boolean syncOnCommit,
+                            Reader snapshotReader, Reader recordReader) throws IOException {
+        Files.createDirectories(directory);
+        SnapshotLog snapshotLog = new SnapshotLog(directory, name, syncOnCommit);
+        snapshotLog.recover(snapshotReader, recordReader);
+        return snapshotLog;
+    }
+
+    private void recover(Reader snapshotReader, Reader recordReader) throws IOException {
+        Path snapshot = snapshotFile();
+        if (Files.exists(snapshot)) {
+            snapshotGeneration = readSnapshot(snapshot, snapshotReader);
+        }
+        generation = snapshotGeneration;
+        List<Long> logGenerations = logGenerations();
+        // Nur das zuletzt beschriebene Protokoll darf ein abgebrochenes Ende haben; eine
+        // neue Generation wird erst begonnen, wenn die vorige vollständig geschrieben ist
+        long lastWritten = -1;
+        for (long logGeneration : logGenerations) {
+            if (logGeneration >= snapshotGeneration && Files.size(logFile(logGeneration)) > 0) {
+                lastWritten = logGeneration;
+            }
+        }
+        long records = 0;
+        for (long logGeneration : logGenerations) {
+            if (logGeneration < snapshotGeneration) {
+                Files.deleteIfExists(logFile(logGeneration));
+                continue;
+            }
+            records += WriteAheadLog.replay(logFile(logGeneration), logGeneration >= lastWritten,
+                    record -> recordReader.read(new DataInputStream(new ByteArrayInputStream(record))));
+            generation = logGeneration;
+        }
+        recordsSinceSnapshot.set(records);
+        log = new WriteAheadLog(logFile(generation), syncOnCommit);
+        logger.info("{}: Snapshot-Generation {}, {} Protokolleinträge eingespielt", name, snapshotGeneration, records);
+    }
+
+    /**
+     * Nimmt eine Änderung in das aktuelle Protokoll auf
+     */
+    WriteAheadLog.Commit enqueue(byte[] record) throws IOException {
+        ensureWritable();
+        recordsSinceSnapshot.incrementAndGet();
+        return log.enqueue(record);
+    }
+
+    /**
+     * Wartet, bis eine aufgenommene Änderung geschrieben ist. Schlägt das fehl, ist der
+     * Stand im Speicher der Ablage dem Protokoll voraus; danach werden alle weiteren
+     * Änderungen und Snapshots abgelehnt, bis die Ablage neu geladen wird.
+     */
+    void await(WriteAheadLog.Commit commit) throws IOException {
+        try {
+            commit.await();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+                logger.error("{}: Änderungsprotokoll konnte nicht geschrieben werden, weitere Änderungen werden abgelehnt",
+                        name, e);
+            }
+            throw e;
+        }
+    }
+
+    long getRecordsSinceSnapshot() {
+        return recordsSinceSnapshot.get();
+    }
+
+    /**
+     * Beginnt eine neue Protokollgeneration. Muss unter der Sperre der Ablage aufgerufen
+     * werden, während deren Stand für den Snapshot erfasst wird.
+     *
+     * @return die Generation, zu der der erfasste Stand gehört
+     */
+    synchronized long rotate() throws IOException {
+        ensureWritable();
+        WriteAheadLog previous = log;
+        generation++;
+        log = new WriteAheadLog(logFile(generation), syncOnCommit);
+        recordsSinceSnapshot.set(0);
+        previous.close();
+        return generation;
+    }
+
+    /**
+     * Schreibt einen Snapshot atomar und löscht die davon abgedeckten Protokolle. Der Inhalt
+     * wird direkt in die Datei geschrieben, Länge und Prüfsumme danach im Kopf eingetragen.
+     *
+     * @return die Größe des Inhalts in Bytes, -1 wenn bereits ein neuerer Snapshot existiert
+     */
+    synchronized long writeSnapshot(long snapshotGeneration, Writer body) throws IOException {
+        ensureWritable();
+        if (snapshotGeneration <= this.snapshotGeneration) {
+            return -1;
+        }
+        Path temporary = directory.resolve(name + ".snapshot.tmp");
+        long length;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(SNAPSHOT_HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            // Nicht schließen, das würde den Kanal vor dem Eintragen des Kopfs schließen
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc));
+            body.write(out);
+            out.flush();
+            length = channel.position() - SNAPSHOT_HEADER_SIZE;
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            header.putInt(SNAPSHOT_MAGIC)
+                    .putInt(SNAPSHOT_VERSION)
+                    .putLong(snapshotGeneration)
+                    .putLong(length)
+                    .putInt((int) crc.getValue())
+                    .flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, snapshotFile(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, snapshotFile(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        this.snapshotGeneration = snapshotGeneration;
+        for (long logGeneration : logGenerations()) {
+            if (logGeneration < snapshotGeneration) {
+                Files.deleteIfExists(logFile(logGeneration));
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private void ensureWritable() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException(name + ": Ablage nimmt nach einem Schreibfehler keine Änderungen mehr an", cause);
+        }
+    }
+
+    /**
+     * Prüft den Snapshot in einem ersten Durchlauf vollständig und liest ihn erst danach,
+     * damit beschädigte Inhalte gar nicht erst ausgewertet werden
+     */
+    private long readSnapshot(Path snapshot, Reader snapshotReader) throws IOException {
+        long size = Files.size(snapshot);
+        int headerSize;
+        long snapshotGeneration;
+        try (DataInputStream in = openSnapshot(snapshot)) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Unbekanntes Snapshot-Format: " + snapshot);
+            }
+            int version = in.readInt();
+            if (version != 1 && version != SNAPSHOT_VERSION) {
+                throw new IOException("Unbekanntes Snapshot-Format: " + snapshot);
+            }
+            headerSize = version == 1 ? SNAPSHOT_V1_HEADER_SIZE : SNAPSHOT_HEADER_SIZE;
+            snapshotGeneration = in.readLong();
+            long length = version == 1 ? in.readInt() : in.readLong();
+            int checksum = in.readInt();
+            if (length != size - headerSize) {
+                throw new IOException("Snapshot ist unvollständig: " + snapshot);
+            }
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[1 << 16];
+            for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+                crc.update(buffer, 0, read);
+            }
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Prüfsumme des Snapshots stimmt nicht: " + snapshot);
+            }
+        }
+        try (DataInputStream in = openSnapshot(snapshot)) {
+            in.skipNBytes(headerSize);
+            snapshotReader.read(in);
+        }
+        return snapshotGeneration;
+    }
+
+    private static DataInputStream openSnapshot(Path snapshot) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16));
+    }
+
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        String prefix = name + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + LOG_SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String number = fileName.substring(prefix.length(), fileName.length() - LOG_SUFFIX.length());
+                try {
+                    generations.add(Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    logger.warn("Unbekannte Protokolldatei ignoriert: {}", file);
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private Path snapshotFile() {
+        return directory.resolve(name + ".snapshot");
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve(name + "." + logGeneration + LOG_SUFFIX);
+    }
+}
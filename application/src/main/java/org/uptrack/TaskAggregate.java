@@ -0,0 +1,32 @@
+package org.uptrack;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ergebnis der Aufgabenauswertung: zugewiesene und abgeschlossene Aufgaben je
+ * Benutzer. Status- und Fälligkeitszahlen liefert die {@link TaskRepository} als
+ * {@link TaskStatistics}.
+ */
+class TaskAggregate {
+    final Map<String, ReportData.Productivity> userProductivity = new HashMap<>();
+
+    /**
+     * Nimmt eine Aufgabe samt zugewiesenem Benutzer in die Zählung auf
+     */
+    void add(Tasks task, String assignedUser) {
+        ReportData.Productivity productivity =
+                userProductivity.computeIfAbsent(assignedUser, k -> new ReportData.Productivity());
+        productivity.totalTasks++;
+        if (TaskStatistics.STATUS_ABGESCHLOSSEN.equals(task.getStatus())) {
+            productivity.completedTasks++;
+        }
+    }
+
+    /**
+     * Überträgt die Produktivität je Benutzer in die Report-Daten
+     */
+    void applyProductivityTo(ReportData data) {
+        data.userProductivity = userProductivity;
+    }
+}
@@ -1,5 +1,7 @@
 package org.uptrack;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface TaskRepository {
@@ -7,4 +9,92 @@ public interface TaskRepository {
     void addTask(Tasks task);
     void updateTask(Tasks task);
     void deleteTask(String title);
-}
\ No newline at end of file
+
+    default int countTasks() {
+        return getAllTasks().size();
+    }
+
+    /**
+     * Liefert einen Ausschnitt der Aufgaben in der Reihenfolge von {@link #getAllTasks()},
+     * z.B. für eine seitenweise Ausgabe. Diese Standardimplementierung kopiert alle Aufgaben.
+     */
+    default List<Tasks> getTasks(int offset, int limit) {
+        List<Tasks> all = getAllTasks();
+        int from = Math.min(Math.max(offset, 0), all.size());
+        int to = (int) Math.min((long) from + Math.max(limit, 0), all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
+
+    /**
+     * Sucht eine Aufgabe über ihren Titel
+     *
+     * @return die Aufgabe oder null, wenn kein Titel übereinstimmt
+     */
+    default Tasks getTaskByTitle(String title) {
+        for (Tasks task : getAllTasks()) {
+            if (task.getTitle().equals(title)) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Liefert alle Aufgaben mit dem angegebenen Status
+     */
+    default List<Tasks> getTasksByStatus(String status) {
+        List<Tasks> result = new ArrayList<>();
+        for (Tasks task : getAllTasks()) {
+            if (status.equals(task.getStatus())) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert alle Aufgaben, deren Fälligkeitsdatum zwischen from und to liegt (jeweils einschließlich)
+     */
+    default List<Tasks> getTasksDueBetween(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        List<Tasks> result = new ArrayList<>();
+        for (Tasks task : getAllTasks()) {
+            if (task.hasDueDate() && task.getDueEpochDay() >= fromDay && task.getDueEpochDay() <= toDay) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Zählt die Aufgaben mit dem angegebenen Status, deren Fälligkeitsdatum zwischen
+     * from und to liegt (jeweils einschließlich)
+     */
+    default int countTasksDueBetween(String status, LocalDate from, LocalDate to) {
+        int count = 0;
+        for (Tasks task : getTasksDueBetween(from, to)) {
+            if (status.equals(task.getStatus())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Liefert die Aufgabenstatistik zum Stichtag today. Diese Standardimplementierung
+     * wertet alle Aufgaben aus.
+     */
+    default TaskStatistics getStatistics(LocalDate today) {
+        return TaskStatistics.compute(getAllTasks(), today);
+    }
+
+    /**
+     * Liefert alle Aufgaben zusammen mit der Statistik genau dieser Aufgaben. Diese
+     * Standardimplementierung berechnet die Statistik aus der gelesenen Liste.
+     */
+    default TaskSnapshot getSnapshot(LocalDate today) {
+        List<Tasks> tasks = getAllTasks();
+        return new TaskSnapshot(tasks, TaskStatistics.compute(tasks, today));
+    }
+}
@@ -0,0 +1,26 @@
+package org.uptrack;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aufgabenliste und Aufgabenstatistik aus demselben Bestand, z.B. für einen Bericht,
+ * dessen Kopfzahlen zu den darunter ausgegebenen Zeilen passen müssen
+ */
+public final class TaskSnapshot {
+    private final List<Tasks> tasks;
+    private final TaskStatistics statistics;
+
+    public TaskSnapshot(List<Tasks> tasks, TaskStatistics statistics) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.statistics = statistics;
+    }
+
+    public List<Tasks> getTasks() {
+        return tasks;
+    }
+
+    public TaskStatistics getStatistics() {
+        return statistics;
+    }
+}
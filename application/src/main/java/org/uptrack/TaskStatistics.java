@@ -0,0 +1,135 @@
+package org.uptrack;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Momentaufnahme der Aufgabenstatistik: Anzahl je Status, Abschlussquote sowie
+ * überfällige und bald fällige offene Aufgaben. Ablagen mit Indizes liefern sie aus
+ * laufend gepflegten Zählern, {@link #compute} berechnet sie durch Auswerten aller
+ * Aufgaben, z.B. zum Abgleich.
+ */
+public final class TaskStatistics {
+    static final String STATUS_OFFEN = "Offen";
+    static final String STATUS_ABGESCHLOSSEN = "Abgeschlossen";
+    static final String STATUS_ABGEBROCHEN = "Abgebrochen";
+
+    /** Zeitraum in Tagen ab heute, in dem eine Aufgabe als bald fällig gilt */
+    public static final int DUE_SOON_DAYS = 7;
+
+    private final int totalTasks;
+    private final Map<String, Integer> statusCounts;
+    private final int overdueTasks;
+    private final int dueSoonTasks;
+
+    TaskStatistics(int totalTasks, Map<String, Integer> statusCounts, int overdueTasks, int dueSoonTasks) {
+        this.totalTasks = totalTasks;
+        this.statusCounts = Collections.unmodifiableMap(statusCounts);
+        this.overdueTasks = overdueTasks;
+        this.dueSoonTasks = dueSoonTasks;
+    }
+
+    /**
+     * Berechnet die Statistik durch Auswerten aller Aufgaben
+     */
+    public static TaskStatistics compute(Collection<Tasks> tasks, LocalDate today) {
+        long todayDay = today.toEpochDay();
+        long dueSoonEnd = todayDay + DUE_SOON_DAYS;
+        Map<String, Integer> statusCounts = new HashMap<>();
+        int overdue = 0;
+        int dueSoon = 0;
+        for (Tasks task : tasks) {
+            statusCounts.merge(task.getStatus(), 1, Integer::sum);
+            if (STATUS_OFFEN.equals(task.getStatus()) && task.hasDueDate()) {
+                long due = task.getDueEpochDay();
+                if (due < todayDay) {
+                    overdue++;
+                } else if (due <= dueSoonEnd) {
+                    dueSoon++;
+                }
+            }
+        }
+        return new TaskStatistics(tasks.size(), statusCounts, overdue, dueSoon);
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public int getStatusCount(String status) {
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    public Map<String, Integer> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public int getCompletedTasks() {
+        return getStatusCount(STATUS_ABGESCHLOSSEN);
+    }
+
+    public int getOpenTasks() {
+        return getStatusCount(STATUS_OFFEN);
+    }
+
+    public int getCanceledTasks() {
+        return getStatusCount(STATUS_ABGEBROCHEN);
+    }
+
+    /**
+     * Anteil abgeschlossener Aufgaben in Prozent
+     */
+    public double getCompletionRate() {
+        return ReportData.completionRate(getCompletedTasks(), totalTasks);
+    }
+
+    public int getOverdueTasks() {
+        return overdueTasks;
+    }
+
+    public int getDueSoonTasks() {
+        return dueSoonTasks;
+    }
+
+    /**
+     * Überträgt die Statistik in die Report-Daten
+     */
+    void applyTo(ReportData data) {
+        data.totalTasks = totalTasks;
+        data.completedTasks = getCompletedTasks();
+        data.openTasks = getOpenTasks();
+        data.canceledTasks = getCanceledTasks();
+        data.taskStatusCounts = new HashMap<>(statusCounts);
+        data.completionRate = getCompletionRate();
+        data.overdueCount = overdueTasks;
+        data.dueSoonCount = dueSoonTasks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskStatistics)) {
+            return false;
+        }
+        TaskStatistics other = (TaskStatistics) o;
+        return totalTasks == other.totalTasks && overdueTasks == other.overdueTasks
+                && dueSoonTasks == other.dueSoonTasks && statusCounts.equals(other.statusCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(totalTasks, statusCounts, overdueTasks, dueSoonTasks);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStatistics{gesamt=" + totalTasks + ", status=" + statusCounts
+                + ", überfällig=" + overdueTasks + ", bald fällig=" + dueSoonTasks + "}";
+    }
+}
@@ -0,0 +1,206 @@
+package org.uptrack;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gibt den Bericht als gegliederten Klartext aus (txt und pdf)
+ */
+class TextReportRenderer implements ReportRenderer {
+    private static final int MAX_CHART_BAR_LENGTH = 50;
+
+    private final Writer out;
+    private final boolean asciiCharts;
+
+    TextReportRenderer(Writer out, boolean asciiCharts) {
+        this.out = out;
+        this.asciiCharts = asciiCharts;
+    }
+
+    @Override
+    public void beginReport(LocalDateTime generatedAt) throws IOException {
+        out.write("# UpTrack Systemreport\n");
+        out.write("Generiert am: ");
+        out.write(generatedAt.format(GENERATED_AT_FORMAT));
+        out.write("\n\n");
+    }
+
+    @Override
+    public void beginUserSection(int totalUsers) throws IOException {
+        out.write("## Benutzerinformationen\n\n");
+        out.write("Gesamtanzahl Benutzer: ");
+        out.write(Integer.toString(totalUsers));
+        out.write("\n\n");
+    }
+
+    @Override
+    public void userRow(User user, String userType, boolean active) throws IOException {
+        out.write("- ");
+        out.write(user.getUsername());
+        out.write(" (");
+        out.write(userType);
+        out.write(")\n");
+        out.write("  Status: ");
+        out.write(active ? "Aktiv" : "Inaktiv");
+        out.write("\n\n");
+    }
+
+    @Override
+    public void endUserSection() {
+        // Klartext benötigt keinen Abschluss
+    }
+
+    @Override
+    public void userStatistics(ReportData data) throws IOException {
+        out.write("### Benutzerstatistiken\n\n");
+        writeLine("Aktive Benutzer: ", data.activeUserCount);
+        writeLine("Inaktive Benutzer: ", data.inactiveUserCount);
+        out.write("\n");
+
+        out.write("Benutzertypen:\n");
+        writeCounts(data.userTypeCounts);
+        out.write("\n");
+    }
+
+    @Override
+    public void beginTaskSection(int totalTasks) throws IOException {
+        out.write("## Aufgabeninformationen\n\n");
+        out.write("Gesamtanzahl Aufgaben: ");
+        out.write(Integer.toString(totalTasks));
+        out.write("\n\n");
+    }
+
+    @Override
+    public void taskRow(Tasks task, String assignedUser) throws IOException {
+        out.write("- ");
+        out.write(String.valueOf(task.getTitle()));
+        out.write("\n  Beschreibung: ");
+        out.write(String.valueOf(task.getDescription()));
+        out.write("\n  Status: ");
+        out.write(String.valueOf(task.getStatus()));
+        out.write("\n  Fälligkeitsdatum: ");
+        out.write(String.valueOf(task.getDueDate()));
+        out.write("\n  Zugewiesen an: ");
+        out.write(assignedUser);
+        out.write("\n");
+
+        // Aufgabenhistorie ausgeben
+        List<String> history = task.getHistory();
+        if (!history.isEmpty()) {
+            out.write("  Historie: \n");
+            for (String entry : history) {
+                out.write("    - ");
+                out.write(entry);
+                out.write("\n");
+            }
+        }
+        out.write("\n");
+    }
+
+    @Override
+    public void endTaskSection() {
+        // Klartext benötigt keinen Abschluss
+    }
+
+    @Override
+    public void taskStatistics(ReportData data) throws IOException {
+        out.write("### Aufgabenstatistiken\n\n");
+        out.write("Abgeschlossene Aufgaben: ");
+        out.write(Integer.toString(data.completedTasks));
+        out.write(" (");
+        out.write(ReportRenderer.percent(data.completionRate));
+        out.write("%)\n");
+        writeLine("Offene Aufgaben: ", data.openTasks);
+        writeLine("Abgebrochene Aufgaben: ", data.canceledTasks);
+        out.write("\n");
+
+        out.write("Status-Übersicht:\n");
+        writeCounts(data.taskStatusCounts);
+        out.write("\n");
+
+        // Fälligkeitsdatum-Analyse ausgeben
+        writeLine("Überfällige Aufgaben: ", data.overdueCount);
+        writeLine("In den nächsten 7 Tagen fällig: ", data.dueSoonCount);
+        out.write("\n");
+
+        // Benutzerproduktivität ausgeben
+        out.write("### Benutzerproduktivität\n\n");
+        for (Map.Entry<String, ReportData.Productivity> entry : data.userProductivity.entrySet()) {
+            ReportData.Productivity productivity = entry.getValue();
+
+            out.write("- ");
+            out.write(entry.getKey());
+            out.write(": ");
+            out.write(Integer.toString(productivity.totalTasks));
+            out.write(" Aufgaben insgesamt, ");
+            out.write(Integer.toString(productivity.completedTasks));
+            out.write(" abgeschlossen (");
+            out.write(ReportRenderer.percent(productivity.completionRate()));
+            out.write("%)\n");
+        }
+        out.write("\n");
+    }
+
+    @Override
+    public void visualizations(ReportData data) throws IOException {
+        out.write("## Visualisierungen\n\n");
+        out.write("### Aufgabenstatus-Verteilung\n\n");
+
+        if (asciiCharts) {
+            writeAsciiChart(data.taskStatusCounts);
+        } else {
+            out.write("[Hier würde ein Statusverteilungs-Diagramm angezeigt]\n\n");
+            out.write("### Benutzeraktivität\n\n");
+            out.write("[Hier würde ein Benutzeraktivitäts-Diagramm angezeigt]\n\n");
+        }
+    }
+
+    @Override
+    public void endReport() {
+        // Klartext benötigt keinen Abschluss
+    }
+
+    /**
+     * Gibt ein ASCII-Balkendiagramm aus, die Balken werden auf eine feste Breite skaliert
+     */
+    private void writeAsciiChart(Map<String, Integer> counts) throws IOException {
+        int max = 0;
+        for (int count : counts.values()) {
+            max = Math.max(max, count);
+        }
+
+        out.write("Aufgabenstatus:\n");
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int bars = max <= MAX_CHART_BAR_LENGTH ? entry.getValue()
+                    : (int) Math.round((double) entry.getValue() / max * MAX_CHART_BAR_LENGTH);
+            out.write(entry.getKey());
+            out.write(": ");
+            for (int i = 0; i < bars; i++) {
+                out.write('#');
+            }
+            out.write(" (");
+            out.write(Integer.toString(entry.getValue()));
+            out.write(")\n");
+        }
+        out.write("\n");
+    }
+
+    private void writeCounts(Map<String, Integer> counts) throws IOException {
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            out.write("- ");
+            out.write(entry.getKey());
+            out.write(": ");
+            out.write(Integer.toString(entry.getValue()));
+            out.write("\n");
+        }
+    }
+
+    private void writeLine(String label, int value) throws IOException {
+        out.write(label);
+        out.write(Integer.toString(value));
+        out.write("\n");
+    }
+}
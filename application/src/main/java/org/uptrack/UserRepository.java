@@ -1,4 +1,6 @@
 package org.uptrack;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public interface UserRepository {
@@ -7,4 +9,36 @@ public interface UserRepository {
     List<User> getAllUsers();
     void updateUser(User user);
     void deleteUser(String username);
+
+    /**
+     * Legt den Benutzer nur an, wenn der Benutzername noch frei ist. Diese
+     * Standardimplementierung sieht vorher nach und ist daher nicht atomar;
+     * threadsichere Ablagen überschreiben sie.
+     *
+     * @return true, wenn der Benutzer angelegt wurde
+     */
+    default boolean addUserIfAbsent(User user) {
+        if (getUserByUsername(user.getUsername()) != null) {
+            return false;
+        }
+        addUser(user);
+        return true;
+    }
+
+    default int countUsers() {
+        return getAllUsers().size();
+    }
+
+    /**
+     * Liefert einen Ausschnitt der nach Benutzername (ohne Groß-/Kleinschreibung) sortierten
+     * Benutzer, z.B. für eine seitenweise Anzeige. Diese Standardimplementierung sortiert alle Benutzer.
+     */
+    default List<User> getUsers(int offset, int limit) {
+        List<User> all = new ArrayList<>(getAllUsers());
+        all.sort(Comparator.comparing(User::getUsername, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(User::getUsername));
+        int from = Math.min(Math.max(offset, 0), all.size());
+        int to = (int) Math.min((long) from + Math.max(limit, 0), all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
 }
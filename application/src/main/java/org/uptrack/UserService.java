@@ -1,9 +1,15 @@
 package org.uptrack;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class UserService {
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository repository;
 
     public UserService(UserRepository repository) {
@@ -15,21 +21,53 @@ public class UserService {
         repository.addUser(newUser);
     }
 
+    /**
+     * Legt den Benutzer nur an, wenn der Benutzername noch frei ist, siehe
+     * {@link UserRepository#addUserIfAbsent(User)}
+     *
+     * @return true, wenn der Benutzer angelegt wurde
+     */
+    public boolean registerUserIfAbsent(String username, String password) {
+        return repository.addUserIfAbsent(new Admin(username, password));
+    }
+
+    /**
+     * @return der Benutzer oder null, wenn der Name unbekannt ist
+     */
+    public User getUser(String username) {
+        return repository.getUserByUsername(username);
+    }
+
     public void loginUser(String username, String password) {
         // Authentifizierungslogik
-        System.out.println("Benutzer " + username + " erfolgreich angemeldet.");
+        logger.info("Benutzer {} erfolgreich angemeldet", username);
     }
 
     public void logoutUser(String username) {
         // Abmeldelogik
-        System.out.println("Benutzer " + username + " erfolgreich abgemeldet.");
+        logger.info("Benutzer {} erfolgreich abgemeldet", username);
     }
 
     public List<User> getAllUsers() {
         return repository.getAllUsers();
     }
 
+    public int countUsers() {
+        return repository.countUsers();
+    }
+
+    /**
+     * Liefert eine Seite der nach Benutzername sortierten Benutzer
+     */
+    public List<User> getUserPage(int offset, int limit) {
+        return repository.getUsers(offset, limit);
+    }
+
     public List<User> searchUsers(String searchTerm) {
+        if (repository instanceof SearchableUserRepository) {
+            return ((SearchableUserRepository) repository).searchUsers(searchTerm,
+                    SearchableUserRepository.MatchMode.SUBSTRING, false, Integer.MAX_VALUE);
+        }
         // Suchlogik implementieren
         List<User> allUsers = getAllUsers();
         List<User> filteredUsers = new ArrayList<>();
@@ -43,12 +81,49 @@ public class UserService {
         return filteredUsers;
     }
 
+    /**
+     * Liefert höchstens limit passende Benutzer. Mit Index in Rangfolge, ohne Index
+     * die ersten limit Treffer eines Durchlaufs. Wird der aufrufende Thread unterbrochen,
+     * endet die Suche vorzeitig, das Unterbrechungsflag bleibt gesetzt.
+     */
+    public List<User> searchUsers(String searchTerm, SearchableUserRepository.MatchMode mode, boolean ignoreCase,
+                                  int limit) {
+        if (repository instanceof SearchableUserRepository) {
+            return ((SearchableUserRepository) repository).searchUsers(searchTerm, mode, ignoreCase, limit);
+        }
+        String needle = ignoreCase ? searchTerm.toLowerCase(Locale.ROOT) : searchTerm;
+        List<User> filteredUsers = new ArrayList<>();
+        for (User user : getAllUsers()) {
+            if (filteredUsers.size() >= limit || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            String username = ignoreCase ? user.getUsername().toLowerCase(Locale.ROOT) : user.getUsername();
+            boolean matches = mode == SearchableUserRepository.MatchMode.PREFIX
+                    ? username.startsWith(needle) : username.contains(needle);
+            if (matches) {
+                filteredUsers.add(user);
+            }
+        }
+        return filteredUsers;
+    }
+
     public void deleteUser(String username) {
         repository.deleteUser(username);
     }
 
-    public void updateUser(String username, String newPassword) {
-        // Logik zum Aktualisieren eines Benutzers
-        System.out.println("Benutzer " + username + " wurde aktualisiert.");
+    /**
+     * Setzt ein neues Passwort
+     *
+     * @return der geänderte Benutzer oder null, wenn der Benutzer nicht existiert
+     */
+    public User updateUser(String username, String newPassword) {
+        User user = repository.getUserByUsername(username);
+        if (user == null) {
+            return null;
+        }
+        user.setPassword(newPassword);
+        repository.updateUser(user);
+        logger.info("Benutzer {} wurde aktualisiert", username);
+        return user;
     }
 }
\ No newline at end of file
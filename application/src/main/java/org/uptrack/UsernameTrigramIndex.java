@@ -0,0 +1,364 @@
+package org.uptrack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Trigramm-Index über Benutzernamen. Jeder Name wird in Kleinschreibung in seine
+ * Dreizeichenfolgen zerlegt; eine Teilstringsuche prüft nur die Namen der seltensten
+ * Dreizeichenfolge des Suchbegriffs. Für Suchbegriffe mit einem oder zwei Zeichen gibt
+ * es zusätzlich Listen je Einzelzeichen und Zeichenpaar. Für die Präfixsuche werden die
+ * Namen sortiert gehalten, ein Rangbaum über denselben Schlüsseln findet den Anfang
+ * einer Seite in O(log n). Der Index ist threadsicher.
+ */
+class UsernameTrigramIndex {
+    private static final int GRAM = 3;
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int INTERRUPT_CHECK_INTERVAL = 1024;
+
+    private final Map<Long, Set<String>> postings = new ConcurrentHashMap<>();
+    // Schlüssel: Name in Kleinschreibung, Trennzeichen, Originalname
+    private final ConcurrentSkipListSet<String> sortedNames = new ConcurrentSkipListSet<>();
+    private final RankTree ranks = new RankTree();
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+    void add(String username) {
+        String lower = normalize(username);
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= lower.length(); i++) {
+                postings.computeIfAbsent(gram(lower, i, length), k -> ConcurrentHashMap.newKeySet()).add(username);
+            }
+        }
+        String key = lower + KEY_SEPARATOR + username;
+        if (sortedNames.add(key)) {
+            ranks.add(key);
+        }
+        names.add(username);
+    }
+
+    void remove(String username) {
+        String lower = normalize(username);
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= lower.length(); i++) {
+                postings.computeIfPresent(gram(lower, i, length), (k, names) -> {
+                    names.remove(username);
+                    return names.isEmpty() ? null : names;
+                });
+            }
+        }
+        String key = lower + KEY_SEPARATOR + username;
+        if (sortedNames.remove(key)) {
+            ranks.remove(key);
+        }
+        names.remove(username);
+    }
+
+    /**
+     * Liefert höchstens limit passende Namen. Die Teilstringsuche liefert sie in
+     * Rangfolge, die Präfixsuche in Sortierreihenfolge und endet nach limit Treffern.
+     * Wird der aufrufende Thread unterbrochen, endet der Durchlauf vorzeitig mit den bis
+     * dahin gefundenen Namen; das Unterbrechungsflag bleibt gesetzt.
+     *
+     * @param exists prüft, ob ein Name noch in der Ablage vorhanden ist
+     */
+    List<String> search(String term, SearchableUserRepository.MatchMode mode, boolean ignoreCase, int limit,
+                        Predicate<String> exists) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        String lowerTerm = normalize(term);
+        Predicate<String> matches = matcher(term, mode, ignoreCase);
+
+        if (mode == SearchableUserRepository.MatchMode.PREFIX) {
+            // Ein genauer Treffer steht in der Sortierreihenfolge vor seinen Verlängerungen
+            List<String> result = new ArrayList<>(Math.min(limit, 1024));
+            int checked = 0;
+            for (String key : sortedNames.subSet(lowerTerm, lowerTerm + Character.MAX_VALUE)) {
+                if (interrupted(checked++)) {
+                    break;
+                }
+                String username = key.substring(key.indexOf(KEY_SEPARATOR) + 1);
+                if (matches.test(username) && exists.test(username)) {
+                    result.add(username);
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+        // Nur ein leerer Suchbegriff prüft alle Namen
+        Set<String> candidates = lowerTerm.isEmpty() ? names : rarestPosting(lowerTerm);
+        TopNames top = new TopNames(term, ignoreCase, limit);
+        int checked = 0;
+        for (String username : candidates) {
+            if (interrupted(checked++)) {
+                break;
+            }
+            if (matches.test(username) && exists.test(username)) {
+                top.offer(username);
+            }
+        }
+        return top.toList();
+    }
+
+    /**
+     * Liefert einen Ausschnitt der Namen in Sortierreihenfolge (Kleinschreibung, dann Originalname).
+     * Der Rangbaum liefert den ersten Namen der Seite, von dort wird die sortierte Liste
+     * durchlaufen; eine Seite kostet so O(log n + limit) unabhängig von offset.
+     */
+    List<String> namesInOrder(int offset, int limit) {
+        List<String> result = new ArrayList<>(Math.min(Math.max(limit, 0), 1024));
+        String first = limit > 0 ? ranks.select(Math.max(offset, 0)) : null;
+        if (first == null) {
+            return result;
+        }
+        for (String key : sortedNames.tailSet(first, true)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(key.substring(key.indexOf(KEY_SEPARATOR) + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die Namen der seltensten Dreizeichenfolge des Suchbegriffs, bei kürzeren
+     * Suchbegriffen die Namen des Suchbegriffs selbst
+     */
+    private Set<String> rarestPosting(String lowerTerm) {
+        int length = Math.min(GRAM, lowerTerm.length());
+        Set<String> smallest = null;
+        for (int i = 0; i + length <= lowerTerm.length(); i++) {
+            Set<String> names = postings.get(gram(lowerTerm, i, length));
+            if (names == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || names.size() < smallest.size()) {
+                smallest = names;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Prüft in Abständen, ob der aufrufende Thread unterbrochen wurde
+     */
+    private static boolean interrupted(int checked) {
+        return checked % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted();
+    }
+
+    private static Predicate<String> matcher(String term, SearchableUserRepository.MatchMode mode,
+                                             boolean ignoreCase) {
+        String needle = ignoreCase ? normalize(term) : term;
+        boolean prefix = mode == SearchableUserRepository.MatchMode.PREFIX;
+        return username -> {
+            String haystack = ignoreCase ? normalize(username) : username;
+            return prefix ? haystack.startsWith(needle) : haystack.contains(needle);
+        };
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Schlüssel einer Zeichenfolge mit ein bis drei Zeichen; die Länge steht in den
+     * obersten Bits, damit kürzere Folgen nicht mit längeren zusammenfallen
+     */
+    private static long gram(String value, int offset, int length) {
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            key = (key << 16) | value.charAt(offset + i);
+        }
+        return key;
+    }
+
+    /**
+     * Hält die besten limit Namen; der schlechteste liegt oben und wird zuerst verdrängt.
+     * Rang: genauer Treffer, Treffer am Namensanfang, sonstiger Treffer.
+     */
+    private static class TopNames {
+        private static final Comparator<Candidate> RANKING = Comparator
+                .comparingInt((Candidate candidate) -> candidate.rank)
+                .thenComparingInt(candidate -> candidate.username.length())
+                .thenComparing(candidate -> candidate.username);
+
+        private final String needle;
+        private final boolean ignoreCase;
+        private final int limit;
+        private final PriorityQueue<Candidate> worstFirst;
+
+        TopNames(String term, boolean ignoreCase, int limit) {
+            this.needle = ignoreCase ? normalize(term) : term;
+            this.ignoreCase = ignoreCase;
+            this.limit = limit;
+            this.worstFirst = new PriorityQueue<>(Math.min(limit, 1024) + 1, RANKING.reversed());
+        }
+
+        void offer(String username) {
+            String compared = ignoreCase ? normalize(username) : username;
+            int rank = compared.equals(needle) ? 0 : compared.startsWith(needle) ? 1 : 2;
+            Candidate candidate = new Candidate(username, rank);
+            if (worstFirst.size() < limit) {
+                worstFirst.add(candidate);
+            } else if (RANKING.compare(candidate, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(candidate);
+            }
+        }
+
+        List<String> toList() {
+            List<Candidate> ranked = new ArrayList<>(worstFirst);
+            ranked.sort(RANKING);
+            List<String> result = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                result.add(candidate.username);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Treap über den Sortierschlüsseln, dessen Knoten die Größe ihres Teilbaums kennen.
+     * Einfügen, Entfernen und die Suche nach dem k-ten Schlüssel kosten erwartet O(log n).
+     */
+    private static class RankTree {
+        private Node root;
+
+        private static class Node {
+            final String key;
+            final int priority = ThreadLocalRandom.current().nextInt();
+            Node left;
+            Node right;
+            int size = 1;
+
+            Node(String key) {
+                this.key = key;
+            }
+        }
+
+        synchronized void add(String key) {
+            root = insert(root, new Node(key));
+        }
+
+        synchronized void remove(String key) {
+            root = erase(root, key);
+        }
+
+        /**
+         * Liefert den Schlüssel an Position k oder null, wenn es weniger Schlüssel gibt
+         */
+        synchronized String select(int k) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (k < leftSize) {
+                    node = node.left;
+                } else if (k == leftSize) {
+                    return node.key;
+                } else {
+                    k -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+
+        private static Node insert(Node node, Node added) {
+            if (node == null) {
+                return added;
+            }
+            if (added.priority > node.priority) {
+                split(node, added.key, added);
+                return update(added);
+            }
+            if (added.key.compareTo(node.key) < 0) {
+                node.left = insert(node.left, added);
+            } else {
+                node.right = insert(node.right, added);
+            }
+            return update(node);
+        }
+
+        /**
+         * Teilt den Teilbaum in Schlüssel kleiner key (target.left) und die übrigen (target.right)
+         */
+        private static void split(Node node, String key, Node target) {
+            if (node == null) {
+                target.left = null;
+                target.right = null;
+                return;
+            }
+            if (node.key.compareTo(key) < 0) {
+                split(node.right, key, target);
+                node.right = target.left;
+                target.left = update(node);
+            } else {
+                split(node.left, key, target);
+                node.left = target.right;
+                target.right = update(node);
+            }
+        }
+
+        private static Node erase(Node node, String key) {
+            if (node == null) {
+                return null;
+            }
+            int compared = key.compareTo(node.key);
+            if (compared == 0) {
+                return merge(node.left, node.right);
+            }
+            if (compared < 0) {
+                node.left = erase(node.left, key);
+            } else {
+                node.right = erase(node.right, key);
+            }
+            return update(node);
+        }
+
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                return update(left);
+            }
+            right.left = merge(left, right.left);
+            return update(right);
+        }
+
+        private static Node update(Node node) {
+            node.size = 1 + size(node.left) + size(node.right);
+            return node;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+
+    private static class Candidate {
+        final String username;
+        final int rank;
+
+        Candidate(String username, int rank) {
+            this.username = username;
+            this.rank = rank;
+        }
+    }
+}
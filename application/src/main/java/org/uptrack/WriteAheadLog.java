@@ -0,0 +1,323 @@
+package org.uptrack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Nur anhängbares Änderungsprotokoll mit Gruppen-Commit. Einträge werden im Speicher
+ * gesammelt; der erste wartende Thread schreibt alle bis dahin gesammelten Einträge
+ * mit einem Schreibvorgang (und optional einem fsync), die übrigen warten auf ihn.
+ * Eintragsformat: Länge (int), CRC32 (int), Nutzdaten.
+ */
+public class WriteAheadLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean syncOnCommit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private Batch pending = new Batch();
+    private Batch spare = new Batch();
+    private long appended;
+    private long durable;
+    private boolean flushing;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Öffnet das Protokoll zum Anhängen
+     *
+     * @param syncOnCommit true, wenn jeder Gruppen-Commit per fsync auf den Datenträger geschrieben wird
+     */
+    public WriteAheadLog(Path file, boolean syncOnCommit) throws IOException {
+        this.file = file;
+        this.syncOnCommit = syncOnCommit;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Bestätigung für einen gesammelten Eintrag
+     */
+    public final class Commit {
+        private final long ticket;
+
+        private Commit(long ticket) {
+            this.ticket = ticket;
+        }
+
+        /**
+         * Wartet, bis der Eintrag und alle vorherigen geschrieben sind
+         */
+        public void await() throws IOException {
+            awaitDurable(ticket);
+        }
+    }
+
+    /**
+     * Nimmt einen Eintrag in den nächsten Gruppen-Commit auf, ohne zu schreiben.
+     * Die Reihenfolge der Aufrufe entspricht der Reihenfolge in der Datei.
+     */
+    public Commit enqueue(byte[] record) throws IOException {
+        if (record.length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Eintrag zu groß: " + record.length + " Bytes");
+        }
+        lock.lock();
+        try {
+            ensureWritable();
+            crc.reset();
+            crc.update(record);
+            writeInt(pending, record.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.writeBytes(record);
+            return new Commit(++appended);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hängt einen Eintrag an und wartet, bis er geschrieben ist
+     */
+    public void append(byte[] record) throws IOException {
+        enqueue(record).await();
+    }
+
+    /**
+     * Schreibt alle bisher gesammelten Einträge
+     */
+    public void flush() throws IOException {
+        long ticket;
+        lock.lock();
+        try {
+            ticket = appended;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(ticket);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flush();
+        } finally {
+            lock.lock();
+            try {
+                closed = true;
+                channel.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void awaitDurable(long ticket) throws IOException {
+        lock.lock();
+        try {
+            while (durable < ticket) {
+                if (failure != null) {
+                    throw new IOException("Änderungsprotokoll konnte nicht geschrieben werden: " + file, failure);
+                }
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                Batch batch = pending;
+                pending = spare;
+                long upTo = appended;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    writeBatch(batch);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                batch.reset();
+                spare = batch;
+                flushing = false;
+                if (error == null) {
+                    durable = upTo;
+                } else {
+                    failure = error;
+                }
+                flushed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeBatch(Batch batch) throws IOException {
+        if (batch.size() == 0) {
+            return;
+        }
+        ByteBuffer buffer = batch.view();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (syncOnCommit) {
+            channel.force(false);
+        }
+    }
+
+    private void ensureWritable() throws IOException {
+        if (closed) {
+            throw new IOException("Änderungsprotokoll ist geschlossen: " + file);
+        }
+        if (failure != null) {
+            throw new IOException("Änderungsprotokoll konnte nicht geschrieben werden: " + file, failure);
+        }
+    }
+
+    /**
+     * Sammelpuffer, der ohne Kopie geschrieben werden kann
+     */
+    private static class Batch extends ByteArrayOutputStream {
+        Batch() {
+            super(64 * 1024);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Empfängt die Nutzdaten eines Eintrags beim Wiedereinspielen
+     */
+    public interface RecordHandler {
+        void handle(byte[] record) throws IOException;
+    }
+
+    /**
+     * Spielt alle vollständigen Einträge einer Protokolldatei ein. Ein abgebrochener
+     * Eintrag am Ende wird abgeschnitten, wenn tolerateTornTail gesetzt ist: Der Eintrag
+     * reicht über das Dateiende hinaus, endet genau am Dateiende mit falscher Prüfsumme
+     * oder ab ihm folgen nur noch Nullbytes. Jede andere Beschädigung bricht ab.
+     *
+     * @param tolerateTornTail true nur für das Protokoll, in das zuletzt geschrieben wurde
+     * @return die Anzahl der eingespielten Einträge
+     * @throws IOException wenn die Datei beschädigt ist, ohne dass es sich um ein zulässiges
+     *                     abgebrochenes Ende handelt
+     */
+    public static long replay(Path file, boolean tolerateTornTail, RecordHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long size = Files.size(file);
+        long records = 0;
+        long validLength = 0;
+        String damage = null;
+        boolean reachesEnd = false;
+        CRC32 crc = new CRC32();
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             DataInputStream in = new DataInputStream(stream)) {
+            while (validLength < size) {
+                long remaining = size - validLength;
+                if (remaining < HEADER_SIZE) {
+                    damage = "unvollständiger Eintragskopf";
+                    reachesEnd = true;
+                    break;
+                }
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD_SIZE) {
+                    damage = "ungültige Länge " + length;
+                    break;
+                }
+                if (remaining - HEADER_SIZE <= length) {
+                    reachesEnd = true;
+                    if (remaining - HEADER_SIZE < length) {
+                        damage = "unvollständiger Eintrag";
+                        break;
+                    }
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    damage = "Prüfsumme stimmt nicht";
+                    break;
+                }
+                handler.handle(record);
+                records++;
+                validLength += HEADER_SIZE + length;
+            }
+        }
+        if (damage == null) {
+            return records;
+        }
+        boolean tornTail = reachesEnd || onlyZerosFrom(file, validLength);
+        if (!tornTail || !tolerateTornTail) {
+            throw new IOException("Änderungsprotokoll " + file + " ist an Position " + validLength
+                    + " beschädigt: " + damage);
+        }
+        logger.warn("Unvollständiges Ende im Änderungsprotokoll {} abgeschnitten ({} Bytes)",
+                file, size - validLength);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(validLength);
+        }
+        return records;
+    }
+
+    private static boolean onlyZerosFrom(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            channel.position(position);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    if (buffer.get() != 0) {
+                        return false;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeCoalescerTest {
+
+    private static RepositoryChange change(RepositoryChange.Type type, String key) {
+        return new RepositoryChange(type, key);
+    }
+
+    @Test
+    void add_shouldRequestDeliveryOnlyOncePerBatch() {
+        // Arrange
+        ChangeCoalescer coalescer = new ChangeCoalescer();
+
+        // Act
+        boolean first = coalescer.add(change(RepositoryChange.Type.ADDED, "a"));
+        boolean second = coalescer.add(change(RepositoryChange.Type.UPDATED, "b"));
+        coalescer.drain();
+        boolean afterDrain = coalescer.add(change(RepositoryChange.Type.UPDATED, "b"));
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(afterDrain);
+    }
+
+    @Test
+    void drain_shouldMergeChangesPerKeyInFirstSeenOrder() {
+        // Arrange
+        ChangeCoalescer coalescer = new ChangeCoalescer();
+        coalescer.add(change(RepositoryChange.Type.ADDED, "neu"));
+        coalescer.add(change(RepositoryChange.Type.UPDATED, "alt"));
+        coalescer.add(change(RepositoryChange.Type.UPDATED, "neu"));
+        coalescer.add(change(RepositoryChange.Type.ADDED, "kurz"));
+        coalescer.add(change(RepositoryChange.Type.REMOVED, "kurz"));
+        coalescer.add(change(RepositoryChange.Type.REMOVED, "ersetzt"));
+        coalescer.add(change(RepositoryChange.Type.ADDED, "ersetzt"));
+        coalescer.add(change(RepositoryChange.Type.REMOVED, "alt"));
+
+        // Act
+        List<RepositoryChange> batch = coalescer.drain();
+
+        // Assert
+        assertEquals(List.of(
+                change(RepositoryChange.Type.ADDED, "neu"),
+                change(RepositoryChange.Type.REMOVED, "alt"),
+                change(RepositoryChange.Type.UPDATED, "ersetzt")), batch);
+        assertTrue(coalescer.drain().isEmpty());
+    }
+}
@@ -0,0 +1,279 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentUserRepositoryTest {
+
+    private ConcurrentUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ConcurrentUserRepository();
+    }
+
+    @Test
+    void constructor_shouldSeedAdminUser() {
+        assertEquals("password", repository.getUserByUsername("admin").getPassword());
+        assertEquals(1, repository.countUsers());
+    }
+
+    @Test
+    void updateUser_withUnknownUser_shouldNotAddUser() {
+        // Act
+        repository.updateUser(new Admin("ghost", "secret"));
+
+        // Assert
+        assertNull(repository.getUserByUsername("ghost"));
+    }
+
+    @Test
+    void addUserIfAbsent_shouldKeepExistingUser() {
+        // Act
+        boolean added = repository.addUserIfAbsent(new Admin("admin", "other"));
+
+        // Assert
+        assertFalse(added);
+        assertEquals("password", repository.getUserByUsername("admin").getPassword());
+    }
+
+    @Test
+    void registerUserIfAbsent_throughInstrumentedRepository_shouldAdmitOneOfManyConcurrentRegistrations()
+            throws Exception {
+        // Arrange
+        UserService service = new UserService(new InstrumentedUserRepository(repository, new MetricsRegistry()));
+        int threads = 8;
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                String username = "user" + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+
+                // Act
+                for (int t = 0; t < threads; t++) {
+                    String password = "pw" + t;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return service.registerUserIfAbsent(username, password);
+                    }));
+                }
+                start.countDown();
+                int registered = 0;
+                for (Future<Boolean> future : futures) {
+                    registered += future.get() ? 1 : 0;
+                }
+
+                // Assert
+                assertEquals(1, registered, username);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(rounds + 1, repository.countUsers());
+    }
+
+    @Test
+    void computeUser_fromManyThreads_shouldNotLoseUpdates() throws Exception {
+        // Arrange
+        repository.addUser(new Admin("counter", "0"));
+        int threads = 8;
+        int incrementsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    repository.computeUser("counter", (name, user) ->
+                            new Admin(name, String.valueOf(Integer.parseInt(user.getPassword()) + 1)));
+                    repository.getAllUsers();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(String.valueOf(threads * incrementsPerThread),
+                repository.getUserByUsername("counter").getPassword());
+    }
+
+    @Test
+    void computeUser_returningNull_shouldRemoveUser() {
+        // Act
+        repository.computeUser("admin", (name, user) -> null);
+
+        // Assert
+        assertNull(repository.getUserByUsername("admin"));
+    }
+
+    @Test
+    void searchUsers_shouldMatchSubstringPrefixAndIgnoreCase() {
+        // Arrange
+        repository.addUser(new Admin("MariaMeier", "pw"));
+        repository.addUser(new Admin("meier", "pw"));
+        repository.addUser(new Admin("Obermeier", "pw"));
+        repository.addUser(new Admin("mai", "pw"));
+
+        // Act
+        List<User> substring = repository.searchUsers("meier", SearchableUserRepository.MatchMode.SUBSTRING, false, 10);
+        List<User> ignoreCase = repository.searchUsers("MEIER", SearchableUserRepository.MatchMode.SUBSTRING, true, 10);
+        List<User> prefix = repository.searchUsers("ma", SearchableUserRepository.MatchMode.PREFIX, true, 10);
+        List<User> shortTerm = repository.searchUsers("ai", SearchableUserRepository.MatchMode.SUBSTRING, false, 10);
+
+        // Assert
+        assertEquals(List.of("meier", "Obermeier"), usernames(substring));
+        assertEquals(List.of("meier", "Obermeier", "MariaMeier"), usernames(ignoreCase));
+        assertEquals(List.of("mai", "MariaMeier"), usernames(prefix));
+        assertEquals(List.of("mai"), usernames(shortTerm));
+    }
+
+    @Test
+    void searchUsers_withPrefixOrShortTerm_shouldUseSortedOrderAndShortPostings() {
+        // Arrange
+        repository.addUser(new Admin("Maria", "pw"));
+        repository.addUser(new Admin("mai", "pw"));
+        repository.addUser(new Admin("ma", "pw"));
+        repository.addUser(new Admin("xaver", "pw"));
+        repository.addUser(new Admin("Max", "pw"));
+
+        // Act
+        List<User> prefix = repository.searchUsers("MA", SearchableUserRepository.MatchMode.PREFIX, true, 3);
+        List<User> oneChar = repository.searchUsers("x", SearchableUserRepository.MatchMode.SUBSTRING, false, 10);
+        List<User> twoChars = repository.searchUsers("Ar", SearchableUserRepository.MatchMode.SUBSTRING, true, 10);
+        repository.deleteUser("xaver");
+        List<User> afterDelete = repository.searchUsers("x", SearchableUserRepository.MatchMode.SUBSTRING, true, 10);
+
+        // Assert
+        assertEquals(List.of("ma", "mai", "Maria"), usernames(prefix));
+        assertEquals(List.of("xaver", "Max"), usernames(oneChar));
+        assertEquals(List.of("Maria"), usernames(twoChars));
+        assertEquals(List.of("Max"), usernames(afterDelete));
+    }
+
+    @Test
+    void searchUsers_whenThreadIsInterrupted_shouldStopScanAndKeepFlag() {
+        // Arrange
+        for (int i = 0; i < 5000; i++) {
+            repository.addUser(new Admin("kunde" + i, "pw"));
+        }
+        Thread.currentThread().interrupt();
+
+        // Act
+        List<User> substring = repository.searchUsers("kunde", SearchableUserRepository.MatchMode.SUBSTRING, false, 10);
+        List<User> prefix = repository.searchUsers("kunde", SearchableUserRepository.MatchMode.PREFIX, false, 10);
+        boolean stillInterrupted = Thread.interrupted();
+
+        // Assert
+        assertTrue(substring.isEmpty());
+        assertTrue(prefix.isEmpty());
+        assertTrue(stillInterrupted);
+    }
+
+    @Test
+    void searchUsers_shouldReturnBoundedTopResultsAndForgetDeletedUsers() {
+        // Arrange
+        for (int i = 0; i < 1000; i++) {
+            repository.addUser(new Admin("kunde" + i, "pw"));
+        }
+        repository.deleteUser("kunde1");
+
+        // Act
+        List<User> result = repository.searchUsers("kunde", SearchableUserRepository.MatchMode.SUBSTRING, false, 3);
+
+        // Assert
+        assertEquals(List.of("kunde0", "kunde2", "kunde3"), usernames(result));
+    }
+
+    @Test
+    void getUsers_shouldReturnSortedPages() {
+        // Arrange
+        repository.addUser(new Admin("bernd", "pw"));
+        repository.addUser(new Admin("Anna", "pw"));
+        repository.addUser(new Admin("carla", "pw"));
+
+        // Act
+        List<User> first = repository.getUsers(0, 2);
+        List<User> second = repository.getUsers(2, 2);
+        List<User> beyond = repository.getUsers(10, 2);
+
+        // Assert
+        assertEquals(4, repository.countUsers());
+        assertEquals(List.of("admin", "Anna"), usernames(first));
+        assertEquals(List.of("bernd", "carla"), usernames(second));
+        assertTrue(beyond.isEmpty());
+    }
+
+    @Test
+    void getUsers_afterRandomAddsAndDeletes_shouldMatchSortedPages() {
+        // Arrange
+        Random random = new Random(7);
+        List<String> expected = new ArrayList<>(List.of("admin"));
+        for (int i = 0; i < 3000; i++) {
+            String username = "Nutzer" + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                repository.deleteUser(username);
+                expected.remove(username);
+            } else if (!expected.contains(username)) {
+                repository.addUser(new Admin(username, "pw"));
+                expected.add(username);
+            }
+        }
+        expected.sort(String.CASE_INSENSITIVE_ORDER.thenComparing(name -> name));
+
+        // Act & Assert
+        for (int offset = 0; offset <= expected.size(); offset += 97) {
+            int to = Math.min(offset + 50, expected.size());
+            assertEquals(expected.subList(offset, to), usernames(repository.getUsers(offset, 50)));
+        }
+    }
+
+    @Test
+    void changeListener_shouldReportEffectiveChangesOnly() {
+        // Arrange
+        List<RepositoryChange> changes = new ArrayList<>();
+        repository.addChangeListener(changes::add);
+
+        // Act
+        repository.addUser(new Admin("anna", "pw"));
+        repository.addUserIfAbsent(new Admin("anna", "anders"));
+        repository.updateUser(new Admin("anna", "neu"));
+        repository.updateUser(new Admin("unbekannt", "pw"));
+        repository.deleteUser("anna");
+        repository.deleteUser("anna");
+
+        // Assert
+        assertEquals(List.of(
+                new RepositoryChange(RepositoryChange.Type.ADDED, "anna"),
+                new RepositoryChange(RepositoryChange.Type.UPDATED, "anna"),
+                new RepositoryChange(RepositoryChange.Type.REMOVED, "anna")), changes);
+    }
+
+    private static List<String> usernames(List<User> users) {
+        List<String> names = new ArrayList<>();
+        for (User user : users) {
+            names.add(user.getUsername());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,118 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+    private static final LocalDate REFERENCE_DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generate_withSameSeed_shouldProduceIdenticalData() {
+        // Arrange
+        DatasetGenerator first = new DatasetGenerator(42, REFERENCE_DAY);
+        DatasetGenerator second = new DatasetGenerator(42, REFERENCE_DAY);
+
+        // Act
+        List<String> firstTasks = describe(first.generateTasks(500));
+        List<String> secondTasks = describe(second.generateTasks(500));
+        List<String> otherSeed = describe(new DatasetGenerator(43, REFERENCE_DAY).generateTasks(500));
+
+        // Assert
+        assertEquals(firstTasks, secondTasks);
+        assertNotEquals(firstTasks, otherSeed);
+        assertEquals(usernames(first.generateUsers(100)), usernames(second.generateUsers(100)));
+    }
+
+    @Test
+    void generateTasks_shouldFollowConfiguredDistributions() {
+        // Arrange
+        int count = 20_000;
+        Map<String, Integer> statusCounts = new HashMap<>();
+        int[] withoutDueDate = new int[1];
+        int[] historyEntries = new int[1];
+
+        // Act
+        new DatasetGenerator(7, REFERENCE_DAY).generateTasks(count, task -> {
+            statusCounts.merge(task.getStatus(), 1, Integer::sum);
+            if (!task.hasDueDate()) {
+                withoutDueDate[0]++;
+            }
+            historyEntries[0] += task.getHistoryEntryCount();
+            assertTrue(task.getHistoryEntryCount() <= 4 + DatasetGenerator.MAX_EDITS);
+            assertEquals("Aufgabe erstellt", task.getHistory().get(0));
+        });
+
+        // Assert
+        assertEquals(0.55, share(statusCounts.get("Offen"), count), 0.02);
+        assertEquals(0.30, share(statusCounts.get("Abgeschlossen"), count), 0.02);
+        assertEquals(0.05, share(statusCounts.get("Wiedereröffnet"), count), 0.01);
+        assertEquals(0.10, share(statusCounts.get("Abgebrochen"), count), 0.01);
+        assertEquals(0.15, share(withoutDueDate[0], count), 0.01);
+        // Erstellung + Fälligkeit (85 %) + 1,5 Bearbeitungen + Statuswechsel (0,5)
+        assertEquals(3.85, (double) historyEntries[0] / count, 0.1);
+    }
+
+    @Test
+    void reportGenerator_withSeededRandom_shouldWriteIdenticalReports() throws Exception {
+        // Arrange
+        DatasetGenerator dataset = new DatasetGenerator(11, REFERENCE_DAY);
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+        dataset.populate(users, 200, tasks, 1_000);
+        ReportGenerator.ReportConfig config = new ReportGenerator.ReportConfig("csv", tempDir.toString());
+
+        // Act
+        File first = new ReportGenerator(users, tasks, null, null, dataset.newRandom()).generateReportFile(config);
+        File second = new ReportGenerator(users, tasks, null, null, dataset.newRandom()).generateReportFile(config);
+
+        // Assert
+        assertEquals(withoutHeader(first), withoutHeader(second));
+    }
+
+    private static List<String> describe(List<Tasks> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Tasks task : tasks) {
+            StringBuilder line = new StringBuilder(task.getTitle()).append('|').append(task.getStatus())
+                    .append('|').append(task.getDueDate());
+            task.forEachHistoryEntry(0, (event, timestamp, argument) ->
+                    line.append('|').append(event).append('@').append(timestamp).append('=').append(argument));
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static List<String> usernames(List<User> users) {
+        List<String> names = new ArrayList<>();
+        for (User user : users) {
+            names.add(user.getUsername());
+        }
+        return names;
+    }
+
+    private static double share(Integer count, int total) {
+        return count == null ? 0 : (double) count / total;
+    }
+
+    /**
+     * Liefert den Bericht ohne die Kopfzeilen mit dem Erzeugungszeitpunkt
+     */
+    private static List<String> withoutHeader(File report) throws Exception {
+        List<String> lines = Files.readAllLines(report.toPath(), StandardCharsets.UTF_8);
+        return lines.subList(2, lines.size());
+    }
+}
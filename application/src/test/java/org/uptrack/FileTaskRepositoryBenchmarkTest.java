@@ -0,0 +1,60 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Misst Schreibdurchsatz, Snapshot und Kaltstart der dauerhaften Aufgabenablage mit
+ * 1 Mio. Aufgaben. Ausführen mit: gradle :application:benchmarkTest
+ */
+@Tag("benchmark")
+class FileTaskRepositoryBenchmarkTest {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int TAIL_UPDATES = 100_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void oneMillionTasks_throughputSnapshotAndColdStart() throws IOException {
+        long start = System.nanoTime();
+        try (FileTaskRepository repository = new FileTaskRepository(directory, Integer.MAX_VALUE, false)) {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                Tasks task = new Tasks("Aufgabe " + i, "Beschreibung " + i);
+                task.setDueDate(java.time.LocalDate.ofEpochDay(19_000 + i % 365).toString());
+                repository.addTask(task);
+            }
+            report("Anlegen", TASK_COUNT, start);
+
+            start = System.nanoTime();
+            repository.checkpoint();
+            report("Snapshot", TASK_COUNT, start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < TAIL_UPDATES; i++) {
+                Tasks task = repository.getTaskByTitle("Aufgabe " + i);
+                // wird über den TaskListener der Ablage protokolliert
+                task.complete();
+            }
+            report("Aktualisieren", TAIL_UPDATES, start);
+        }
+
+        start = System.nanoTime();
+        try (FileTaskRepository repository = new FileTaskRepository(directory, Integer.MAX_VALUE, false)) {
+            report("Kaltstart (Snapshot + " + TAIL_UPDATES + " Protokolleinträge)", TASK_COUNT, start);
+            assertEquals(TASK_COUNT, repository.countTasks());
+            assertEquals(TAIL_UPDATES, repository.getTasksByStatus("Abgeschlossen").size());
+        }
+    }
+
+    private static void report(String phase, int operations, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.printf("%s: %.2f s (%,.0f Aufgaben/s)%n", phase, seconds, operations / seconds);
+    }
+}
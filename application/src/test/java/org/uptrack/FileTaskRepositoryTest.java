@@ -0,0 +1,202 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private FileTaskRepository open() throws IOException {
+        return new FileTaskRepository(directory, 1_000, false);
+    }
+
+    @Test
+    void restart_shouldReplayAddsUpdatesAndDeletes() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            Tasks task = new Tasks("Login", "Login-Maske bauen");
+            repository.addTask(task);
+            repository.addTask(new Tasks("Bericht", "Monatsbericht"));
+            task.setTitle("Anmeldung");
+            task.setDueDate("2024-02-01");
+            task.complete();
+            repository.updateTask(task);
+            repository.deleteTask("Bericht");
+        }
+
+        // Act
+        try (FileTaskRepository repository = open()) {
+            // Assert
+            assertEquals(1, repository.countTasks());
+            assertNull(repository.getTaskByTitle("Login"));
+            Tasks restored = repository.getTaskByTitle("Anmeldung");
+            assertEquals("Abgeschlossen", restored.getStatus());
+            assertEquals("2024-02-01", restored.getDueDate());
+            assertEquals(List.of(
+                    "Aufgabe erstellt",
+                    "Titel geändert",
+                    "Fälligkeitsdatum auf 2024-02-01 gesetzt",
+                    "Aufgabe abgeschlossen"), restored.getHistory());
+            assertEquals(1, repository.countTasksDueBetween("Abgeschlossen", LocalDate.MIN, LocalDate.MAX));
+        }
+    }
+
+    @Test
+    void restart_afterDirectStatusAndDueDateChanges_shouldReplayThem() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            repository.addTask(new Tasks("Login", "Login-Maske bauen"));
+            Tasks task = repository.getTaskByTitle("Login");
+
+            // Act: ohne updateTask
+            task.setDueDate("2024-03-01");
+            task.complete();
+        }
+
+        // Assert
+        try (FileTaskRepository repository = open()) {
+            Tasks restored = repository.getTaskByTitle("Login");
+            assertEquals("Abgeschlossen", restored.getStatus());
+            assertEquals("2024-03-01", restored.getDueDate());
+            assertEquals(3, restored.getHistoryEntryCount());
+            assertEquals(1, repository.getStatistics(LocalDate.of(2024, 2, 1)).getCompletedTasks());
+        }
+    }
+
+    @Test
+    void restart_withHistoryRetention_shouldSpillRestoredHistory() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            Tasks task = new Tasks("Login", "Login-Maske bauen");
+            for (int i = 0; i < 10; i++) {
+                task.complete();
+                task.reopen();
+            }
+            repository.addTask(task);
+        }
+
+        try (HistorySegmentStore store = HistorySegmentStore.createTemporary();
+             FileTaskRepository repository = new FileTaskRepository(directory, 1_000, false,
+                     new HistoryRetention(4, store))) {
+            // Act
+            Tasks restored = repository.getTaskByTitle("Login");
+
+            // Assert
+            assertTrue(store.size() > 0);
+            assertEquals(21, restored.getHistoryEntryCount());
+            assertEquals("Aufgabe erstellt", restored.getHistory().get(0));
+            assertEquals("Aufgabe wiedereröffnet", restored.getHistory().get(20));
+        }
+    }
+
+    @Test
+    void checkpoint_shouldWriteSnapshotAndDropCoveredLogs() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            for (int i = 0; i < 50; i++) {
+                repository.addTask(new Tasks("Aufgabe " + i, "Beschreibung"));
+            }
+
+            // Act
+            repository.checkpoint();
+            repository.deleteTask("Aufgabe 0");
+        }
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("tasks.1.wal", "tasks.snapshot"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        try (FileTaskRepository repository = open()) {
+            assertEquals(49, repository.countTasks());
+            assertNull(repository.getTaskByTitle("Aufgabe 0"));
+        }
+    }
+
+    @Test
+    void backgroundCheckpoints_duringUpdates_shouldRestoreExactHistories() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = new FileTaskRepository(directory, 10, false)) {
+            for (int i = 0; i < 200; i++) {
+                Tasks task = new Tasks("Aufgabe " + i, "Beschreibung");
+                repository.addTask(task);
+                task.setTitle("Umbenannt " + i);
+                repository.updateTask(task);
+                task.complete();
+            }
+        }
+
+        // Act
+        try (FileTaskRepository repository = open()) {
+            // Assert
+            assertTrue(Files.exists(directory.resolve("tasks.snapshot")));
+            assertEquals(200, repository.countTasks());
+            for (int i = 0; i < 200; i++) {
+                Tasks restored = repository.getTaskByTitle("Umbenannt " + i);
+                assertEquals("Abgeschlossen", restored.getStatus());
+                assertEquals(List.of("Aufgabe erstellt", "Titel geändert", "Aufgabe abgeschlossen"),
+                        restored.getHistory());
+            }
+        }
+    }
+
+    @Test
+    void restart_withTornLogTail_shouldKeepCompleteRecords() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            repository.addTask(new Tasks("Login", "Login-Maske bauen"));
+        }
+        Files.write(directory.resolve("tasks.0.wal"), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        // Act
+        try (FileTaskRepository repository = open()) {
+            repository.addTask(new Tasks("Bericht", "Monatsbericht"));
+        }
+
+        // Assert
+        try (FileTaskRepository repository = open()) {
+            assertEquals(2, repository.countTasks());
+        }
+    }
+
+    @Test
+    void restart_withDamagedRecordBeforeTheLastOne_shouldFailStartup() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            repository.addTask(new Tasks("Login", "Login-Maske bauen"));
+            repository.addTask(new Tasks("Bericht", "Monatsbericht"));
+        }
+        Path log = directory.resolve("tasks.0.wal");
+        byte[] content = Files.readAllBytes(log);
+        content[10] ^= 0x55;
+        Files.write(log, content);
+
+        // Act & Assert
+        assertThrows(IOException.class, this::open);
+    }
+
+    @Test
+    void restart_withTornTailInOlderGeneration_shouldFailStartup() throws IOException {
+        // Arrange
+        try (FileTaskRepository repository = open()) {
+            repository.addTask(new Tasks("Login", "Login-Maske bauen"));
+        }
+        Files.write(directory.resolve("tasks.0.wal"), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        Files.copy(directory.resolve("tasks.0.wal"), directory.resolve("tasks.1.wal"));
+
+        // Act & Assert
+        assertThrows(IOException.class, this::open);
+    }
+}
@@ -0,0 +1,106 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUserRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restart_shouldKeepChangesAndNotSeedAdminAgain() throws IOException {
+        // Arrange
+        try (FileUserRepository repository = new FileUserRepository(directory, 100, true)) {
+            repository.addUser(new Admin("maria", "geheim"));
+            User admin = repository.getUserByUsername("admin");
+            admin.setPassword("neu");
+            repository.updateUser(admin);
+            repository.deleteUser("maria");
+            repository.deleteUser("admin");
+            repository.addUser(new Admin("root", "pw"));
+        }
+
+        // Act
+        try (FileUserRepository repository = new FileUserRepository(directory, 100, true)) {
+            // Assert
+            assertNull(repository.getUserByUsername("admin"));
+            assertNull(repository.getUserByUsername("maria"));
+            assertEquals("pw", repository.getUserByUsername("root").getPassword());
+            assertEquals(1, repository.countUsers());
+        }
+    }
+
+    @Test
+    void concurrentWrites_shouldAllSurviveSnapshotsAndRestart() throws Exception {
+        // Arrange
+        int threads = 4;
+        int usersPerThread = 250;
+        try (FileUserRepository repository = new FileUserRepository(directory, 100, false)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+
+            // Act
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < usersPerThread; i++) {
+                        repository.addUser(new Admin("user" + thread + "_" + i, "pw"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        }
+
+        // Assert
+        try (FileUserRepository repository = new FileUserRepository(directory, 100, false)) {
+            assertEquals(threads * usersPerThread + 1, repository.countUsers());
+        }
+    }
+
+    /**
+     * Benutzertyp außerhalb der Domäne
+     */
+    static class Guest extends Admin {
+        Guest(String username, String password) {
+            super(username, password);
+        }
+    }
+
+    @Test
+    void restart_withOtherUserType_shouldRestoreTypeAndRestrictDirectory() throws IOException {
+        // Arrange
+        Path users = directory.resolve("users");
+        try (FileUserRepository repository = new FileUserRepository(users, 100, false)) {
+            repository.addUser(new Guest("gast", "pw"));
+        }
+
+        // Act
+        try (FileUserRepository repository = new FileUserRepository(users, 100, false)) {
+            // Assert
+            User guest = repository.getUserByUsername("gast");
+            assertTrue(guest instanceof Guest);
+            assertEquals("pw", guest.getPassword());
+            if (Files.getFileAttributeView(users, PosixFileAttributeView.class) != null) {
+                assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(users)));
+            }
+        }
+    }
+}
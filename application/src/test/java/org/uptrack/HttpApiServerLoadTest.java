@@ -0,0 +1,135 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Lasttest der HTTP-Schnittstelle: 1000 Clients senden gleichzeitig gemischte Anfragen
+ * über localhost, gemessen werden Anfragen pro Sekunde und Antwortzeiten je Anfrage.
+ * Ausführen mit: gradle :application:benchmarkTest
+ */
+@Tag("benchmark")
+class HttpApiServerLoadTest {
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 100;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 10;
+    private static final int USER_COUNT = 10_000;
+    private static final int TASK_COUNT = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void thousandConcurrentClients_shouldBeServedWithoutErrors() throws Exception {
+        // Der JDK-Server hält sonst nur 200 ruhende Verbindungen offen
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(CLIENTS));
+        }
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+        DatasetGenerator dataset = new DatasetGenerator(42, LocalDate.of(2024, 1, 15));
+        List<User> generated = dataset.generateUsers(USER_COUNT);
+        generated.forEach(users::addUser);
+        dataset.generateTasks(TASK_COUNT, tasks::addTask);
+        String[] usernames = generated.stream().map(User::getUsername).toArray(String[]::new);
+
+        HttpApiServer server = new HttpApiServer(new UserService(users), tasks,
+                new ReportGenerator(users, tasks), tempDir.toString());
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        ExecutorService clients = BackgroundExecutors.newTaskExecutor("client");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build();
+        String base = "http://127.0.0.1:" + server.getPort();
+        try {
+            run(client, clients, base, usernames, WARMUP_REQUESTS_PER_CLIENT, new AtomicInteger());
+
+            AtomicInteger errors = new AtomicInteger();
+            long start = System.nanoTime();
+            long[] latencies = run(client, clients, base, usernames, REQUESTS_PER_CLIENT, errors);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            Arrays.sort(latencies);
+            System.out.printf("%d Clients, %s: %,.0f Anfragen/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    CLIENTS, BackgroundExecutors.newVirtualThreadExecutor() != null ? "virtuelle Threads" : "Thread-Pool",
+                    latencies.length / seconds, percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+                    latencies[latencies.length - 1] / 1e6);
+            assertEquals(0, errors.get());
+        } finally {
+            server.stop(0);
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Jeder Client: 80 % Benutzer lesen, 10 % Präfixsuche, 5 % Aufgaben nach Status,
+     * 5 % Passwort ändern
+     */
+    private long[] run(HttpClient client, ExecutorService executor, String base, String[] usernames,
+                       int requests, AtomicInteger errors) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] latencies = new long[requests];
+                for (int i = 0; i < requests; i++) {
+                    String username = usernames[random.nextInt(usernames.length)];
+                    int operation = random.nextInt(100);
+                    HttpRequest.Builder request;
+                    if (operation < 80) {
+                        request = HttpRequest.newBuilder(URI.create(base + "/api/users/" + username));
+                    } else if (operation < 90) {
+                        request = HttpRequest.newBuilder(URI.create(base + "/api/users?mode=prefix&limit=10&q="
+                                + username.substring(0, 3)));
+                    } else if (operation < 95) {
+                        request = HttpRequest.newBuilder(URI.create(base + "/api/tasks?status=Offen&limit=20"));
+                    } else {
+                        request = HttpRequest.newBuilder(URI.create(base + "/api/users/" + username))
+                                .PUT(HttpRequest.BodyPublishers.ofString("{\"password\": \"pw" + i + "\"}"));
+                    }
+                    long begin = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                    latencies[i] = System.nanoTime() - begin;
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+        start.countDown();
+        long[] all = new long[CLIENTS * requests];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        return all;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
@@ -0,0 +1,145 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpApiServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpApiServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        users.addUser(new Admin("anna", "pw"));
+        users.addUser(new Admin("annabell", "pw"));
+        users.addUser(new Admin("ben", "pw"));
+        InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+        tasks.addTask(new Tasks("Dashboard", "Übersicht bauen"));
+        Tasks login = new Tasks("Login absichern", "Anmeldung");
+        login.setDueDate("2024-01-10");
+        login.complete();
+        tasks.addTask(login);
+
+        // Berichte im Anfrage-Thread erzeugen, damit die Antwort das Ergebnis enthält
+        ReportGenerator generator = new ReportGenerator(users, tasks, null, Runnable::run);
+        server = new HttpApiServer(new UserService(users), tasks, generator, tempDir.toString());
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void users_shouldSupportCreateReadUpdateDelete() throws Exception {
+        // Act
+        HttpResponse<String> created = send("POST", "/api/users", "{\"username\": \"clara\", \"password\": \"geheim\"}");
+        HttpResponse<String> duplicate = send("POST", "/api/users", "{\"username\": \"clara\", \"password\": \"x\"}");
+        HttpResponse<String> read = send("GET", "/api/users/clara", null);
+        HttpResponse<String> updated = send("PUT", "/api/users/clara", "{\"password\": \"neu\"}");
+        HttpResponse<String> deleted = send("DELETE", "/api/users/clara", null);
+        HttpResponse<String> missing = send("GET", "/api/users/clara", null);
+
+        // Assert
+        assertEquals(201, created.statusCode());
+        assertEquals("/api/users/clara", created.headers().firstValue("Location").orElse(null));
+        assertEquals(409, duplicate.statusCode());
+        assertEquals(200, read.statusCode());
+        assertEquals("{\"username\": \"clara\", \"type\": \"Admin\"}", read.body());
+        assertFalse(read.body().contains("geheim"));
+        assertEquals(200, updated.statusCode());
+        assertEquals(204, deleted.statusCode());
+        assertEquals(404, missing.statusCode());
+    }
+
+    @Test
+    void users_shouldPageAndSearch() throws Exception {
+        // Act
+        HttpResponse<String> page = send("GET", "/api/users?offset=1&limit=2", null);
+        HttpResponse<String> search = send("GET", "/api/users?q=ANNA&mode=prefix&ignoreCase=true", null);
+
+        // Assert
+        assertEquals(200, page.statusCode());
+        assertTrue(page.body().startsWith("{\"total\": 4, \"offset\": 1, \"limit\": 2"));
+        assertTrue(page.body().contains("\"annabell\"") && page.body().contains("\"anna\""));
+        assertFalse(page.body().contains("\"admin\""));
+        assertTrue(search.body().startsWith("{\"count\": 2,"));
+        assertFalse(search.body().contains("\"ben\""));
+    }
+
+    @Test
+    void tasks_shouldFilterAndReturnStatistics() throws Exception {
+        // Act
+        HttpResponse<String> byStatus = send("GET", "/api/tasks?status=Abgeschlossen", null);
+        HttpResponse<String> byDueDate = send("GET", "/api/tasks?dueFrom=2024-01-01&dueTo=2024-01-31", null);
+        HttpResponse<String> byTitle = send("GET", "/api/tasks/Login%20absichern", null);
+        HttpResponse<String> statistics = send("GET", "/api/statistics?today=2024-01-05", null);
+        HttpResponse<String> secondPage = send("GET", "/api/tasks?offset=1&limit=5", null);
+
+        // Assert
+        assertTrue(secondPage.body().startsWith("{\"total\": 2, \"offset\": 1, \"limit\": 5"));
+        assertTrue(secondPage.body().contains("\"title\": \"Login absichern\""));
+        assertFalse(secondPage.body().contains("\"Dashboard\""));
+        assertTrue(byStatus.body().startsWith("{\"total\": 1,"));
+        assertTrue(byStatus.body().contains("\"title\": \"Login absichern\""));
+        assertTrue(byDueDate.body().contains("\"dueDate\": \"2024-01-10\""));
+        assertEquals(200, byTitle.statusCode());
+        assertTrue(byTitle.body().contains("\"status\": \"Abgeschlossen\""));
+        assertTrue(statistics.body().startsWith("{\"total\": 2, \"open\": 1, \"completed\": 1,"));
+    }
+
+    @Test
+    void reports_shouldGenerateAndServeFile() throws Exception {
+        // Act
+        HttpResponse<String> started = send("POST", "/api/reports", "{\"format\": \"csv\", \"includeCharts\": false}");
+        String location = started.headers().firstValue("Location").orElseThrow();
+        HttpResponse<String> status = send("GET", location, null);
+        HttpResponse<String> file = send("GET", location + "/file", null);
+
+        // Assert
+        assertEquals(202, started.statusCode());
+        assertTrue(status.body().contains("\"status\": \"done\""), status.body());
+        assertTrue(status.body().contains("\"taskRows\": 2"));
+        assertEquals(200, file.statusCode());
+        assertTrue(file.headers().firstValue("Content-Type").orElse("").startsWith("text/csv"));
+        assertTrue(file.body().contains("Dashboard"));
+    }
+
+    @Test
+    void invalidRequests_shouldReturnClientErrors() throws Exception {
+        // Act & Assert
+        assertEquals(400, send("POST", "/api/users", "{\"username\": ").statusCode());
+        assertEquals(400, send("POST", "/api/users", "{\"username\": \"x\"}").statusCode());
+        assertEquals(400, send("POST", "/api/reports", "{\"format\": \"docx\"}").statusCode());
+        assertEquals(400, send("GET", "/api/users?limit=-1", null).statusCode());
+        assertEquals(404, send("GET", "/api/reports/99", null).statusCode());
+        assertEquals(404, send("GET", "/api/unbekannt", null).statusCode());
+        assertEquals(405, send("DELETE", "/api/tasks", null).statusCode());
+        assertEquals(Map.of(), Json.parseObject("{}"));
+    }
+}
@@ -0,0 +1,273 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTaskRepositoryTest {
+
+    private InMemoryTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+    }
+
+    private static Tasks task(String title, String dueDate) {
+        Tasks task = new Tasks(title, "Beschreibung");
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    @Test
+    void updateTask_shouldMoveTaskBetweenStatusAndDueDateIndexes() {
+        // Arrange
+        Tasks task = task("Dashboard", "2024-01-10");
+        repository.addTask(task);
+
+        // Act
+        task.complete();
+        task.setDueDate("2024-02-01");
+        repository.updateTask(task);
+
+        // Assert
+        assertTrue(repository.getTasksByStatus("Offen").isEmpty());
+        assertEquals(List.of(task), repository.getTasksByStatus("Abgeschlossen"));
+        assertTrue(repository.getTasksDueBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)).isEmpty());
+        assertEquals(List.of(task), repository.getTasksDueBetween(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    void setDueDate_outsideStorableRange_shouldLeaveTaskAndIndexUnchanged() {
+        // Arrange
+        Tasks task = task("Dashboard", "2024-01-10");
+        repository.addTask(task);
+        int historyCount = task.getHistoryEntryCount();
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> task.setDueDate("+9999999-01-01"));
+
+        // Assert
+        assertEquals("2024-01-10", task.getDueDate());
+        assertEquals(historyCount, task.getHistoryEntryCount());
+        assertEquals(1, repository.countTasksDueBetween("Offen", LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 10)));
+        assertEquals(0, repository.countTasksDueBetween("Offen", LocalDate.of(2024, 1, 11), LocalDate.MAX));
+    }
+
+    @Test
+    void updateTask_withChangedTitle_shouldReindexTitle() {
+        // Arrange
+        Tasks task = task("Alt", null);
+        repository.addTask(task);
+
+        // Act
+        task.setTitle("Neu");
+        repository.updateTask(task);
+
+        // Assert
+        assertNull(repository.getTaskByTitle("Alt"));
+        assertSame(task, repository.getTaskByTitle("Neu"));
+        assertEquals(1, repository.countTasks());
+    }
+
+    @Test
+    void deleteTask_shouldRemoveTaskFromAllIndexes() {
+        // Arrange
+        repository.addTask(task("Login", "2024-03-01"));
+        repository.addTask(task("Bericht", "2024-03-02"));
+
+        // Act
+        repository.deleteTask("Login");
+
+        // Assert
+        assertNull(repository.getTaskByTitle("Login"));
+        assertEquals(1, repository.getTasksByStatus("Offen").size());
+        assertEquals(1, repository.getTasksDueBetween(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)).size());
+    }
+
+    @Test
+    void addTask_withSameTitle_shouldReplaceExistingTask() {
+        // Arrange
+        repository.addTask(task("Login", "2024-03-01"));
+        Tasks replacement = task("Login", null);
+
+        // Act
+        repository.addTask(replacement);
+
+        // Assert
+        assertEquals(List.of(replacement), repository.getAllTasks());
+        assertTrue(repository.getTasksDueBetween(LocalDate.MIN, LocalDate.MAX).isEmpty());
+    }
+
+    @Test
+    void countTasksDueBetween_shouldCountOnlyTasksWithStatus() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 1, 15);
+        repository.addTask(task("Überfällig", "2024-01-10"));
+        repository.addTask(task("Bald fällig", "2024-01-22"));
+        repository.addTask(task("Später", "2024-01-23"));
+        Tasks completed = task("Erledigt", "2024-01-01");
+        completed.complete();
+        repository.addTask(completed);
+
+        // Act
+        int overdue = repository.countTasksDueBetween("Offen", LocalDate.MIN, today.minusDays(1));
+        int dueSoon = repository.countTasksDueBetween("Offen", today, today.plusDays(7));
+
+        // Assert
+        assertEquals(1, overdue);
+        assertEquals(1, dueSoon);
+        assertEquals(1, repository.countTasksDueBetween("Abgeschlossen", LocalDate.MIN, today));
+    }
+
+    @Test
+    void changeListener_shouldReportAddsUpdatesRenamesAndDeletes() {
+        // Arrange
+        List<RepositoryChange> changes = new ArrayList<>();
+        repository.addChangeListener(changes::add);
+        Tasks task = task("Alt", null);
+
+        // Act
+        repository.addTask(task);
+        task.complete();
+        repository.updateTask(task);
+        task.setTitle("Neu");
+        repository.updateTask(task);
+        repository.deleteTask("Neu");
+        repository.deleteTask("Unbekannt");
+
+        // Assert: complete() meldet die Aufgabe selbst, updateTask meldet erneut
+        assertEquals(List.of(
+                new RepositoryChange(RepositoryChange.Type.ADDED, "Alt"),
+                new RepositoryChange(RepositoryChange.Type.UPDATED, "Alt"),
+                new RepositoryChange(RepositoryChange.Type.UPDATED, "Alt"),
+                new RepositoryChange(RepositoryChange.Type.REMOVED, "Alt"),
+                new RepositoryChange(RepositoryChange.Type.ADDED, "Neu"),
+                new RepositoryChange(RepositoryChange.Type.REMOVED, "Neu")), changes);
+    }
+
+    @Test
+    void getStatistics_shouldFollowTaskTransitionsWithoutUpdateTask() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 1, 15);
+        Tasks overdue = task("Überfällig", "2024-01-10");
+        Tasks dueSoon = task("Bald fällig", "2024-01-20");
+        Tasks later = task("Später", "2024-03-01");
+        repository.addTask(overdue);
+        repository.addTask(dueSoon);
+        repository.addTask(later);
+
+        // Act
+        overdue.complete();
+        later.setDueDate("2024-01-16");
+        dueSoon.cancel();
+        TaskStatistics statistics = repository.getStatistics(today);
+
+        // Assert
+        assertEquals(3, statistics.getTotalTasks());
+        assertEquals(1, statistics.getCompletedTasks());
+        assertEquals(1, statistics.getCanceledTasks());
+        assertEquals(1, statistics.getOpenTasks());
+        assertEquals(0, statistics.getOverdueTasks());
+        assertEquals(1, statistics.getDueSoonTasks());
+        assertEquals(List.of(later), repository.getTasksByStatus("Offen"));
+        repository.verifyStatistics(today);
+    }
+
+    @Test
+    void getStatistics_acrossChangingDays_shouldKeepOverdueCountExact() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 1, 15);
+        Tasks earlier = task("Früher", "2024-01-10");
+        Tasks tomorrow = task("Morgen", "2024-01-16");
+        Tasks later = task("Später", "2024-02-01");
+        repository.addTask(earlier);
+        repository.addTask(tomorrow);
+        repository.addTask(later);
+        repository.getStatistics(today);
+
+        // Act
+        tomorrow.complete();
+        int afterCompletion = repository.getStatistics(today.plusDays(20)).getOverdueTasks();
+        tomorrow.setStatus("Offen");
+        later.setDueDate("2024-01-01");
+        int afterStatusChange = repository.getStatistics(today.plusDays(20)).getOverdueTasks();
+        int earlierDay = repository.getStatistics(today.minusDays(10)).getOverdueTasks();
+        repository.deleteTask("Früher");
+
+        // Assert
+        assertEquals(2, afterCompletion);
+        assertEquals(3, afterStatusChange);
+        assertEquals(1, earlierDay);
+        for (LocalDate day = today.minusDays(20); day.isBefore(today.plusDays(30)); day = day.plusDays(3)) {
+            repository.verifyStatistics(day);
+        }
+    }
+
+    @Test
+    void getSnapshot_duringConcurrentAddsAndDeletes_shouldCountExactlyItsTasks() throws Exception {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 1, 15);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                repository.addTask(task("Aufgabe " + i, "2024-01-20"));
+                if (i % 3 == 0) {
+                    repository.deleteTask("Aufgabe " + (i / 2));
+                }
+            }
+        });
+
+        // Act & Assert
+        writer.start();
+        int snapshots = 0;
+        while (writer.isAlive() || snapshots == 0) {
+            TaskSnapshot snapshot = repository.getSnapshot(today);
+            assertEquals(snapshot.getTasks().size(), snapshot.getStatistics().getTotalTasks());
+            assertEquals(snapshot.getTasks().size(), snapshot.getStatistics().getDueSoonTasks());
+            snapshots++;
+        }
+        writer.join();
+    }
+
+    @Test
+    void verifyStatistics_afterRandomTransitions_shouldMatchRecomputation() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 1, 15);
+        Random random = new Random(42);
+        List<Tasks> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Tasks task = task("Aufgabe " + i, today.plusDays(random.nextInt(30) - 10).toString());
+            tasks.add(task);
+            repository.addTask(task);
+        }
+
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            Tasks task = tasks.get(random.nextInt(tasks.size()));
+            int transition = random.nextInt(5);
+            if (transition == 0) {
+                task.complete();
+            } else if (transition == 1) {
+                task.reopen();
+            } else if (transition == 2) {
+                task.cancel();
+            } else if (transition == 3) {
+                task.setStatus("Offen");
+            } else {
+                task.setDueDate(random.nextBoolean() ? today.plusDays(random.nextInt(30) - 10).toString() : null);
+            }
+        }
+        repository.deleteTask("Aufgabe 0");
+        tasks.get(0).complete();
+
+        // Assert
+        repository.verifyStatistics(today);
+        assertEquals(TaskStatistics.compute(repository.getAllTasks(), today), repository.getStatistics(today));
+    }
+}
@@ -0,0 +1,104 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.setDefault(null);
+    }
+
+    @Test
+    void histogram_shouldReportCountMaxAndBucketedPercentiles() {
+        // Arrange
+        MetricsRegistry metrics = new MetricsRegistry();
+        MetricsRegistry.Histogram histogram = metrics.histogram("test");
+
+        // Act
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        // Assert
+        assertEquals(100, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxNanos());
+        assertEquals(50_500, histogram.getMeanNanos(), 0.001);
+        // 50.000 ns liegt in der Stufe 32.768..65.535
+        assertEquals(65_535, histogram.getPercentileNanos(50));
+        assertEquals(100_000, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    void disabledRegistry_shouldRecordNothing() {
+        // Arrange
+        MetricsRegistry metrics = MetricsRegistry.DISABLED;
+
+        // Act
+        long start = metrics.startTimer();
+        metrics.stopTimer("test", start);
+        metrics.increment("test");
+
+        // Assert
+        assertEquals(0, start);
+        assertFalse(metrics.toJson().contains("\"test\""));
+    }
+
+    @Test
+    void instrumentedRepositories_shouldMeasureOperationsAndReportPhases() {
+        // Arrange
+        MetricsRegistry metrics = new MetricsRegistry();
+        MetricsRegistry.setDefault(metrics);
+        InMemoryTaskRepository store = new InMemoryTaskRepository();
+        InstrumentedTaskRepository tasks = new InstrumentedTaskRepository(store, metrics);
+        InstrumentedUserRepository users = new InstrumentedUserRepository(new ConcurrentUserRepository(), metrics);
+        ReportGenerator generator = new ReportGenerator(users, tasks);
+
+        // Act
+        tasks.addTask(new Tasks("Dashboard", "Übersicht bauen"));
+        users.getUserByUsername("admin");
+        users.getUserByUsername("niemand");
+        generator.generateReportFile(new ReportGenerator.ReportConfig("txt", tempDir.toString()));
+        generator.generateReportFile(new ReportGenerator.ReportConfig("txt", tempDir.toString()));
+
+        // Assert
+        assertEquals(1, metrics.histogram("tasks.addTask").getCount());
+        assertEquals(2, metrics.histogram("users.getUserByUsername").getCount());
+        assertEquals(1, metrics.histogram("users.getAllUsers").getCount());
+        assertEquals(1, metrics.histogram("report.prepareOutputFile").getCount());
+        assertEquals(1, metrics.histogram("report.section.tasks").getCount());
+        assertEquals(1, metrics.counter("report.generated.txt").get());
+        assertEquals(1, metrics.counter("report.cacheHits").get());
+        assertEquals(store.getDataVersion(), tasks.getDataVersion());
+        String json = metrics.toJson();
+        assertTrue(json.contains("\"report.cacheHits\": 1"));
+        assertTrue(json.contains("\"users.getUserByUsername\": {\"count\": 2"));
+    }
+
+    @Test
+    void reset_shouldZeroMetricsStillHeldByInstrumentedRepositories() {
+        // Arrange
+        MetricsRegistry metrics = new MetricsRegistry();
+        InstrumentedTaskRepository tasks = new InstrumentedTaskRepository(new InMemoryTaskRepository(), metrics);
+        tasks.addTask(new Tasks("Dashboard", "Übersicht bauen"));
+        metrics.increment("test");
+
+        // Act
+        metrics.reset();
+        tasks.addTask(new Tasks("Bericht", "Monatsbericht"));
+
+        // Assert
+        assertEquals(1, metrics.histogram("tasks.addTask").getCount());
+        assertEquals(0, metrics.counter("test").get());
+        assertTrue(metrics.toJson().contains("\"tasks.addTask\": {\"count\": 1"));
+    }
+}
@@ -0,0 +1,85 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ReportGenerator.ReportConfig config(String format) {
+        return new ReportGenerator.ReportConfig(format, tempDir.toString());
+    }
+
+    private InMemoryTaskRepository taskRepository() {
+        InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+        tasks.addTask(new Tasks("Dashboard", "Übersicht bauen"));
+        return tasks;
+    }
+
+    @Test
+    void generateReportFile_withUnchangedData_shouldReturnCachedFile() {
+        // Arrange
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        ReportGenerator generator = new ReportGenerator(users, taskRepository(), new ReportCache());
+
+        // Act
+        File first = generator.generateReportFile(config("txt"));
+        File second = generator.generateReportFile(config("txt"));
+
+        // Assert
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertEquals(1, generator.getReportCache().getHits());
+        assertEquals(1, generator.getReportCache().getMisses());
+    }
+
+    @Test
+    void generateReportFile_afterMutationOrWithOtherConfig_shouldRenderAgain() {
+        // Arrange
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        InMemoryTaskRepository tasks = taskRepository();
+        ReportGenerator generator = new ReportGenerator(users, tasks, new ReportCache());
+        File first = generator.generateReportFile(config("txt"));
+
+        // Act
+        tasks.getTaskByTitle("Dashboard").complete();
+        File afterTaskChange = generator.generateReportFile(config("txt"));
+        users.addUser(new Admin("anna", "pw"));
+        File afterUserChange = generator.generateReportFile(config("txt"));
+        File otherConfig = generator.generateReportFile(config("txt").setIncludeCharts(true));
+
+        // Assert
+        assertNotEquals(first, afterTaskChange);
+        assertNotEquals(afterTaskChange, afterUserChange);
+        assertNotEquals(afterUserChange, otherConfig);
+        assertEquals(0, generator.getReportCache().getHits());
+        assertEquals(4, generator.getReportCache().getMisses());
+    }
+
+    @Test
+    void get_withDeletedFileOrEvictedEntry_shouldMiss() {
+        // Arrange
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        ReportGenerator generator = new ReportGenerator(users, taskRepository(), new ReportCache(1));
+        File html = generator.generateReportFile(config("html"));
+        generator.generateReportFile(config("csv"));
+
+        // Act
+        File htmlAgain = generator.generateReportFile(config("html"));
+        assertTrue(htmlAgain.delete());
+        File htmlRendered = generator.generateReportFile(config("html"));
+
+        // Assert
+        assertNotEquals(html, htmlAgain);
+        assertTrue(htmlRendered.isFile());
+        assertEquals(2, generator.getReportCache().getEvictions());
+        assertEquals(0, generator.getReportCache().getHits());
+    }
+}
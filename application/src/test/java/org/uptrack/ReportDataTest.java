@@ -0,0 +1,41 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportDataTest {
+
+    @Test
+    void isActive_shouldUseObjectIdentity() {
+        // Arrange
+        ReportData data = new ReportData();
+        User active = new Admin("admin", "password");
+        User inactive = new Admin("admin", "password");
+
+        // Act
+        data.markUser(active, true);
+        data.markUser(inactive, false);
+
+        // Assert
+        assertTrue(data.isActive(active));
+        assertFalse(data.isActive(inactive));
+        assertEquals(1, data.activeUserCount);
+        assertEquals(1, data.inactiveUserCount);
+    }
+
+    @Test
+    void assignTask_shouldIndexAssigneeByIdentity() {
+        // Arrange
+        ReportData data = new ReportData();
+        Tasks assigned = new Tasks("A", "a");
+        Tasks unassigned = new Tasks("A", "a");
+
+        // Act
+        data.assignTask(assigned, "user1");
+
+        // Assert
+        assertEquals("user1", data.assigneeOf(assigned));
+        assertEquals("Nicht zugewiesen", data.assigneeOf(unassigned));
+    }
+}
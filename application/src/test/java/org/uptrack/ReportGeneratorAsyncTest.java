@@ -0,0 +1,143 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportGeneratorAsyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ReportGenerator.ReportConfig config(String format) {
+        return new ReportGenerator.ReportConfig(format, tempDir.toString());
+    }
+
+    private InMemoryTaskRepository taskRepository() {
+        InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+        tasks.addTask(new Tasks("Dashboard", "Übersicht bauen"));
+        tasks.addTask(new Tasks("Login", "Anmeldung absichern"));
+        return tasks;
+    }
+
+    @Test
+    void generateReportAsync_shouldReportSectionsAndRowCounts() throws Exception {
+        // Arrange
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        users.addUser(new Admin("anna", "pw"));
+        ReportGenerator generator = new ReportGenerator(users, taskRepository(), null, Runnable::run);
+        List<ReportSection> sections = new ArrayList<>();
+
+        // Act
+        ReportResult result = generator.generateReportAsync(config("csv").setIncludeCharts(true),
+                (section, completed, total) -> {
+                    sections.add(section);
+                    assertEquals(4, total);
+                    assertEquals(sections.size(), completed);
+                }).get();
+
+        // Assert
+        assertEquals(List.of(ReportSection.USERS, ReportSection.TASKS, ReportSection.STATISTICS,
+                ReportSection.CHARTS), sections);
+        assertTrue(result.getFile().isFile());
+        assertEquals(2, result.getUserRows());
+        assertEquals(2, result.getTaskRows());
+        assertFalse(result.isCached());
+        assertEquals(sections.size(), result.getSectionDurations().size());
+    }
+
+    @Test
+    void generateReportAsync_shouldWriteFinishedSectionsBeforeReadingTasks() throws Exception {
+        // Arrange
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        users.addUser(new Admin("anna", "pw"));
+        ReportGenerator generator = new ReportGenerator(users, taskRepository(), null, Runnable::run);
+        List<Long> writtenAfterUsers = new ArrayList<>();
+
+        // Act
+        generator.generateReportAsync(config("txt"), (section, completed, total) -> {
+            if (section == ReportSection.USERS) {
+                writtenAfterUsers.add(tempDir.toFile().listFiles()[0].length());
+            }
+        }).get();
+
+        // Assert
+        assertEquals(1, writtenAfterUsers.size());
+        assertTrue(writtenAfterUsers.get(0) > 0);
+    }
+
+    @Test
+    void generateReportAsync_whenCancelled_shouldDeletePartialFile() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        ReportGenerator generator = new ReportGenerator(new ConcurrentUserRepository(), taskRepository(), null,
+                queued::add);
+        AtomicReference<CompletableFuture<ReportResult>> future = new AtomicReference<>();
+        future.set(generator.generateReportAsync(config("txt"), (section, completed, total) -> {
+            if (section == ReportSection.USERS) {
+                future.get().cancel(true);
+            }
+        }));
+
+        // Act
+        queued.get(0).run();
+
+        // Assert
+        assertTrue(future.get().isCancelled());
+        assertEquals(0, tempDir.toFile().listFiles().length);
+    }
+
+    @Test
+    void generateReportAsync_withInvalidFormat_shouldCompleteExceptionally() {
+        // Arrange
+        ReportGenerator generator = new ReportGenerator(new ConcurrentUserRepository(), taskRepository(), null,
+                Runnable::run);
+
+        // Act
+        CompletableFuture<ReportResult> future = generator.generateReportAsync(config("docx"));
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void generateReports_shouldScanOnceAndWriteEveryFormat() {
+        // Arrange
+        AtomicInteger scans = new AtomicInteger();
+        ConcurrentUserRepository users = new ConcurrentUserRepository() {
+            @Override
+            public List<User> getAllUsers() {
+                scans.incrementAndGet();
+                return super.getAllUsers();
+            }
+        };
+        ReportGenerator generator = new ReportGenerator(users, taskRepository(), new ReportCache());
+
+        // Act
+        List<ReportResult> results = generator.generateReports(List.of(
+                config("html"), config("csv"), config("txt"), config("docx")));
+        List<ReportResult> again = generator.generateReports(List.of(config("html"), config("csv")));
+
+        // Assert
+        assertEquals(1, scans.get());
+        assertEquals(4, results.size());
+        assertNull(results.get(3));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(results.get(i).getFile().isFile());
+            assertEquals(2, results.get(i).getTaskRows());
+        }
+        assertNotEquals(results.get(0).getFile(), results.get(1).getFile());
+        assertTrue(again.get(0).isCached());
+        assertEquals(results.get(1).getFile(), again.get(1).getFile());
+    }
+}
@@ -0,0 +1,194 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vergleicht den Durchsatz (Bytes/s) der nativen Renderer mit dem bisherigen Weg
+ * über Pseudo-Markdown und nachträgliche Konvertierung.
+ * Ausführen mit: gradle :application:benchmarkTest
+ */
+@Tag("benchmark")
+class ReportRendererBenchmarkTest {
+    private static final int TASK_COUNT = 20_000;
+    private static final int ITERATIONS = 10;
+
+    private static ReportData data;
+    private static List<Tasks> tasks;
+    private static List<User> users;
+
+    @BeforeAll
+    static void createDataset() {
+        users = new ArrayList<>();
+        tasks = new ArrayList<>();
+        data = new ReportData();
+        for (int i = 0; i < 1_000; i++) {
+            User user = new Admin("user" + i, "password");
+            users.add(user);
+            data.markUser(user, true);
+        }
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Tasks task = new Tasks("Aufgabe " + i, "Beschreibung: Schritt " + i + " umsetzen");
+            task.setDueDate("2024-01-" + (10 + i % 20));
+            if (i % 3 == 0) {
+                task.complete();
+            }
+            tasks.add(task);
+            data.assignTask(task, "user" + (i % 5));
+        }
+        data.userTypeCounts.put("Administrator", users.size());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            data.userProductivity.computeIfAbsent("user" + (i % 5), k -> new ReportData.Productivity()).totalTasks++;
+        }
+        data.totalTasks = TASK_COUNT;
+    }
+
+    @Test
+    void html_nativeRendererVersusMarkdownConversion() throws IOException {
+        compare("html");
+    }
+
+    @Test
+    void csv_nativeRendererVersusMarkdownConversion() throws IOException {
+        compare("csv");
+    }
+
+    @Test
+    void txt_nativeRenderer() throws IOException {
+        Measurement result = measure(() -> renderNative("txt"));
+        System.out.printf("txt:  nativ %s%n", result);
+        assertTrue(result.bytesPerSecond > 0);
+    }
+
+    private void compare(String format) throws IOException {
+        Measurement nativeResult = measure(() -> renderNative(format));
+        Measurement legacyResult = measure(() -> renderLegacy(format));
+        System.out.printf("%s: nativ %s, Konvertierung %s%n", format, nativeResult, legacyResult);
+        assertTrue(nativeResult.bytesPerSecond > 0 && legacyResult.bytesPerSecond > 0);
+    }
+
+    private static class Measurement {
+        final double bytesPerSecond;
+        final double millisPerReport;
+
+        Measurement(double bytesPerSecond, double millisPerReport) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.millisPerReport = millisPerReport;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,.0f Bytes/s (%.1f ms pro Bericht)", bytesPerSecond, millisPerReport);
+        }
+    }
+
+    private interface RenderRun {
+        long run() throws IOException;
+    }
+
+    private Measurement measure(RenderRun run) throws IOException {
+        // Aufwärmen
+        for (int i = 0; i < 3; i++) {
+            run.run();
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes += run.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Measurement(bytes / (elapsed / 1_000_000_000.0), elapsed / 1_000_000.0 / ITERATIONS);
+    }
+
+    private long renderNative(String format) throws IOException {
+        CountingOutputStream sink = new CountingOutputStream();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(sink, StandardCharsets.UTF_8), 64 * 1024)) {
+            render(ReportRenderer.forFormat(format, out));
+        }
+        return sink.count;
+    }
+
+    /**
+     * Bisheriger Weg: kompletter Text als Pseudo-Markdown, danach Konvertierung des gesamten Strings
+     */
+    private long renderLegacy(String format) throws IOException {
+        StringWriter markdown = new StringWriter();
+        render(new TextReportRenderer(markdown, false));
+        String content = "html".equals(format) ? convertToHtml(markdown.toString()) : convertToCsv(markdown.toString());
+
+        CountingOutputStream sink = new CountingOutputStream();
+        try (Writer out = new OutputStreamWriter(sink, StandardCharsets.UTF_8)) {
+            out.write(content);
+        }
+        return sink.count;
+    }
+
+    private void render(ReportRenderer renderer) throws IOException {
+        renderer.beginReport(LocalDateTime.now());
+        renderer.beginUserSection(users.size());
+        for (User user : users) {
+            renderer.userRow(user, "Administrator", true);
+        }
+        renderer.endUserSection();
+        renderer.userStatistics(data);
+        renderer.beginTaskSection(tasks.size());
+        for (Tasks task : tasks) {
+            renderer.taskRow(task, "user1");
+        }
+        renderer.endTaskSection();
+        renderer.taskStatistics(data);
+        renderer.endReport();
+    }
+
+    private static String convertToHtml(String markdown) {
+        String html = "<!DOCTYPE html><html><head><title>UpTrack Report</title></head><body>";
+        html += markdown.replace("# ", "<h1>").replace("\n\n", "</p><p>")
+                .replace("## ", "<h2>").replace("### ", "<h3>")
+                .replace("\n- ", "<br>• ");
+        html += "</body></html>";
+        return html;
+    }
+
+    private static String convertToCsv(String report) {
+        StringBuilder csv = new StringBuilder();
+        csv.append("Kategorie,Name,Wert\n");
+        for (String line : report.split("\n")) {
+            if (line.startsWith("- ")) {
+                String[] parts = line.substring(2).split(":");
+                if (parts.length >= 2) {
+                    csv.append("Element,").append(parts[0].trim()).append(",")
+                            .append(parts[1].trim()).append("\n");
+                }
+            }
+        }
+        return csv.toString();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
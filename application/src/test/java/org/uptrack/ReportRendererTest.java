@@ -0,0 +1,104 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRendererTest {
+
+    private ReportData data;
+    private Tasks task;
+
+    @BeforeEach
+    void setUp() {
+        task = new Tasks("Release: Version 2", "Build <signieren> & \"hochladen\"");
+        task.setDueDate("2024-01-05");
+        task.complete();
+
+        data = new ReportData();
+        data.markUser(new Admin("admin", "password"), true);
+        data.userTypeCounts.put("Administrator", 1);
+        data.totalTasks = 1;
+        data.completedTasks = 1;
+        data.completionRate = 100.0;
+        data.taskStatusCounts.put("Abgeschlossen", 1);
+        data.assignTask(task, "user1");
+
+        ReportData.Productivity productivity = new ReportData.Productivity();
+        productivity.totalTasks = 1;
+        productivity.completedTasks = 1;
+        data.userProductivity.put("user1", productivity);
+    }
+
+    private String render(String format) throws IOException {
+        StringWriter out = new StringWriter();
+        ReportRenderer renderer = ReportRenderer.forFormat(format, out);
+        renderer.beginReport(LocalDateTime.of(2024, 1, 1, 12, 0));
+        renderer.beginUserSection(1);
+        renderer.userRow(new Admin("admin", "password"), "Administrator", true);
+        renderer.endUserSection();
+        renderer.userStatistics(data);
+        renderer.beginTaskSection(1);
+        renderer.taskRow(task, "user1");
+        renderer.endTaskSection();
+        renderer.taskStatistics(data);
+        renderer.visualizations(data);
+        renderer.endReport();
+        return out.toString();
+    }
+
+    @Test
+    void csv_shouldKeepFieldsContainingColonsAndQuoteSeparators() throws IOException {
+        // Act
+        String csv = render("csv");
+
+        // Assert
+        assertTrue(csv.startsWith("Kategorie,Name,Wert\n"));
+        assertTrue(csv.contains("Aufgabe,Release: Version 2,Abgeschlossen\n"));
+        assertTrue(csv.contains("Produktivität,user1,\"1 Aufgaben insgesamt, 1 abgeschlossen ("));
+    }
+
+    @Test
+    void html_shouldEscapeContentAndCloseDocument() throws IOException {
+        // Act
+        String html = render("html");
+
+        // Assert
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("Build &lt;signieren&gt; &amp; &quot;hochladen&quot;"));
+        assertTrue(html.contains("<li>Aufgabe abgeschlossen</li>"));
+        assertTrue(html.trim().endsWith("</body></html>"));
+    }
+
+    @Test
+    void txt_shouldRenderSectionsHistoryAndAsciiChart() throws IOException {
+        // Act
+        String txt = render("txt");
+
+        // Assert
+        assertTrue(txt.startsWith("# UpTrack Systemreport\nGeneriert am: 01.01.2024 12:00:00\n"));
+        assertTrue(txt.contains("- admin (Administrator)\n  Status: Aktiv\n"));
+        assertTrue(txt.contains("  Fälligkeitsdatum: 2024-01-05\n  Zugewiesen an: user1\n"));
+        assertTrue(txt.contains("    - Aufgabe abgeschlossen\n"));
+        assertTrue(txt.contains("Abgeschlossen: # (1)\n"));
+    }
+
+    @Test
+    void pdf_shouldUseChartPlaceholders() throws IOException {
+        // Act
+        String pdf = render("pdf");
+
+        // Assert
+        assertTrue(pdf.contains("[Hier würde ein Statusverteilungs-Diagramm angezeigt]"));
+    }
+
+    @Test
+    void forFormat_withUnknownFormat_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> ReportRenderer.forFormat("docx", new StringWriter()));
+    }
+}
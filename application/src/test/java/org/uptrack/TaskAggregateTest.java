@@ -0,0 +1,30 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskAggregateTest {
+
+    @Test
+    void add_shouldCountProductivityPerUser() {
+        // Arrange
+        TaskAggregate aggregate = new TaskAggregate();
+        Tasks open = new Tasks("A", "a");
+        Tasks reopened = new Tasks("B", "b");
+        reopened.reopen();
+        Tasks completed = new Tasks("C", "c");
+        completed.complete();
+
+        // Act
+        aggregate.add(open, "user1");
+        aggregate.add(reopened, "user1");
+        aggregate.add(completed, "user2");
+
+        // Assert
+        assertEquals(2, aggregate.userProductivity.get("user1").totalTasks);
+        assertEquals(0, aggregate.userProductivity.get("user1").completedTasks);
+        assertEquals(1, aggregate.userProductivity.get("user2").totalTasks);
+        assertEquals(1, aggregate.userProductivity.get("user2").completedTasks);
+    }
+}
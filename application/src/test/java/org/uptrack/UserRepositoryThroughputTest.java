@@ -0,0 +1,117 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misst den Durchsatz gemischter Zugriffe aus mehreren Threads.
+ * Das bisherige {@link Repository} ist nicht threadsicher und wird deshalb
+ * hinter einer globalen Sperre gemessen, wie es ein Aufrufer absichern müsste.
+ * Ausführen mit: gradle :application:benchmarkTest
+ */
+@Tag("benchmark")
+class UserRepositoryThroughputTest {
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int OPERATIONS_PER_THREAD = 200_000;
+    private static final int USER_COUNT = 10_000;
+
+    @Test
+    void concurrentRepository_versusGloballyLockedRepository() throws Exception {
+        double locked = measure(new LockedUserRepository(new Repository()));
+        double concurrent = measure(new ConcurrentUserRepository());
+
+        System.out.printf("%d Threads: Repository (globale Sperre) %,.0f Ops/s, ConcurrentUserRepository %,.0f Ops/s (Faktor %.1f)%n",
+                THREADS, locked, concurrent, concurrent / locked);
+        assertTrue(locked > 0 && concurrent > 0);
+    }
+
+    private double measure(UserRepository repository) throws Exception {
+        for (int i = 0; i < USER_COUNT; i++) {
+            repository.addUser(new Admin("user" + i, "password"));
+        }
+        run(repository, OPERATIONS_PER_THREAD / 10); // Aufwärmen
+        long start = System.nanoTime();
+        run(repository, OPERATIONS_PER_THREAD);
+        long elapsed = System.nanoTime() - start;
+        return (double) THREADS * OPERATIONS_PER_THREAD / (elapsed / 1_000_000_000.0);
+    }
+
+    /**
+     * 90 % Lesezugriffe, 9 % Aktualisierungen, 1 % Löschen und Wiederanlegen
+     */
+    private void run(UserRepository repository, int operations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < operations; i++) {
+                    String username = "user" + random.nextInt(USER_COUNT);
+                    int operation = random.nextInt(100);
+                    if (operation < 90) {
+                        repository.getUserByUsername(username);
+                    } else if (operation < 99) {
+                        repository.updateUser(new Admin(username, "changed"));
+                    } else {
+                        repository.deleteUser(username);
+                        repository.addUser(new Admin(username, "password"));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Sichert jeden Zugriff auf eine Ablage mit einer gemeinsamen Sperre ab
+     */
+    private static class LockedUserRepository implements UserRepository {
+        private final UserRepository delegate;
+
+        LockedUserRepository(UserRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void addUser(User user) {
+            delegate.addUser(user);
+        }
+
+        @Override
+        public synchronized User getUserByUsername(String username) {
+            return delegate.getUserByUsername(username);
+        }
+
+        @Override
+        public synchronized List<User> getAllUsers() {
+            return delegate.getAllUsers();
+        }
+
+        @Override
+        public synchronized void updateUser(User user) {
+            delegate.updateUser(user);
+        }
+
+        @Override
+        public synchronized void deleteUser(String username) {
+            delegate.deleteUser(username);
+        }
+    }
+}
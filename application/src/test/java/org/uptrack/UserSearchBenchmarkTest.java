@@ -0,0 +1,61 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vergleicht die Suche über den Trigramm-Index mit dem vollständigen Durchlauf
+ * bei 300.000 Benutzern. Ausführen mit: gradle :application:benchmarkTest
+ */
+@Tag("benchmark")
+class UserSearchBenchmarkTest {
+    private static final int USER_COUNT = 300_000;
+    private static final String[] TERMS = {"mei", "schmidt12", "user29999", "xyz", "an"};
+    private static final int ROUNDS = 50;
+
+    @Test
+    void trigramIndex_versusFullScan() {
+        ConcurrentUserRepository repository = new ConcurrentUserRepository();
+        String[] names = {"meier", "schmidt", "mueller", "schneider", "fischer", "weber", "wagner"};
+        for (int i = 0; i < USER_COUNT; i++) {
+            repository.addUser(new Admin(names[i % names.length] + i, "pw"));
+        }
+
+        long scanNanos = 0;
+        long indexNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String term : TERMS) {
+                long start = System.nanoTime();
+                List<User> scanned = scan(repository, term);
+                scanNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<User> indexed = repository.searchUsers(term, SearchableUserRepository.MatchMode.SUBSTRING,
+                        false, 50);
+                indexNanos += System.nanoTime() - start;
+                assertEquals(Math.min(50, scanned.size()), indexed.size());
+            }
+        }
+        int searches = ROUNDS * TERMS.length;
+        System.out.printf("Suche bei %,d Benutzern: Durchlauf %.2f ms, Trigramm-Index (Top 50) %.2f ms pro Suche%n",
+                USER_COUNT, scanNanos / 1e6 / searches, indexNanos / 1e6 / searches);
+    }
+
+    /**
+     * Bisheriges Verfahren aus UserService.searchUsers
+     */
+    private static List<User> scan(UserRepository repository, String term) {
+        List<User> result = new ArrayList<>();
+        for (User user : repository.getAllUsers()) {
+            if (user.getUsername().contains(term)) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+}
@@ -1,5 +1,8 @@
 package org.uptrack;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,9 +10,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -24,23 +26,25 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     private UserService userService;
-    private ByteArrayOutputStream outputStream;
-    private PrintStream originalOut;
+    private final Logger logger = (Logger) LoggerFactory.getLogger(UserService.class);
+    private final ListAppender<ILoggingEvent> logEvents = new ListAppender<>();
 
     @BeforeEach
     void setUp() {
         userService = new UserService(userRepository);
 
-        // System.out umleiten, um Ausgaben zu testen
-        outputStream = new ByteArrayOutputStream();
-        originalOut = System.out;
-        System.setOut(new PrintStream(outputStream));
+        // Protokollmeldungen unabhängig von der Logback-Konfiguration mitschreiben
+        logEvents.start();
+        logger.addAppender(logEvents);
     }
 
     @AfterEach
     void tearDown() {
-        // Systemausgabe zurücksetzen
-        System.setOut(originalOut);
+        logger.detachAppender(logEvents);
+    }
+
+    private boolean logged(String message) {
+        return logEvents.list.stream().anyMatch(event -> message.equals(event.getFormattedMessage()));
     }
 
     @Test
@@ -58,21 +62,21 @@ class UserServiceTest {
     }
 
     @Test
-    void loginUser_shouldPrintConfirmationMessage() {
+    void loginUser_shouldLogConfirmationMessage() {
         // Act
         userService.loginUser("testUser", "password");
 
         // Assert
-        assertTrue(outputStream.toString().contains("Benutzer testUser erfolgreich angemeldet"));
+        assertTrue(logged("Benutzer testUser erfolgreich angemeldet"));
     }
 
     @Test
-    void logoutUser_shouldPrintConfirmationMessage() {
+    void logoutUser_shouldLogConfirmationMessage() {
         // Act
         userService.logoutUser("testUser");
 
         // Assert
-        assertTrue(outputStream.toString().contains("Benutzer testUser erfolgreich abgemeldet"));
+        assertTrue(logged("Benutzer testUser erfolgreich abgemeldet"));
     }
 
     @Test
@@ -130,11 +134,28 @@ class UserServiceTest {
     }
 
     @Test
-    void updateUser_shouldPrintConfirmationMessage() {
+    void updateUser_shouldChangePasswordAndLogConfirmation() {
+        // Arrange
+        User user = new Admin("testUser", "password");
+        when(userRepository.getUserByUsername("testUser")).thenReturn(user);
+
+        // Act
+        User updated = userService.updateUser("testUser", "newPassword");
+
+        // Assert
+        assertSame(user, updated);
+        assertEquals("newPassword", user.getPassword());
+        verify(userRepository).updateUser(user);
+        assertTrue(logged("Benutzer testUser wurde aktualisiert"));
+    }
+
+    @Test
+    void updateUser_shouldReturnNullForUnknownUser() {
         // Act
-        userService.updateUser("testUser", "newPassword");
+        User updated = userService.updateUser("unknown", "newPassword");
 
         // Assert
-        assertTrue(outputStream.toString().contains("Benutzer testUser wurde aktualisiert"));
+        assertNull(updated);
+        verify(userRepository, never()).updateUser(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package org.uptrack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Berichtserzeugung von Anfang bis Ende je Format sowie alle Formate als Stapel aus
+ * einem Durchlauf, auf einem festen Datensatz aus {@link DatasetGenerator}. Der
+ * Berichtscache ist abgeschaltet, jeder Aufruf schreibt eine neue Datei, die
+ * anschließend wieder gelöscht wird.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReportGenerationBenchmark {
+    private static final int USER_COUNT = 1_000;
+    private static final int TASK_COUNT = 10_000;
+    private static final long SEED = 42;
+    private static final LocalDate REFERENCE_DAY = LocalDate.of(2024, 3, 1);
+
+    private ReportGenerator generator;
+    private Path outputDir;
+
+    /**
+     * Format für die Einzelmessung, getrennt, damit der Stapel nicht je Format wiederholt wird
+     */
+    @State(Scope.Benchmark)
+    public static class FormatState {
+        @Param({"html", "csv", "txt"})
+        String format;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DatasetGenerator dataset = new DatasetGenerator(SEED, REFERENCE_DAY);
+        ConcurrentUserRepository users = new ConcurrentUserRepository();
+        InMemoryTaskRepository tasks = new InMemoryTaskRepository();
+        dataset.populate(users, USER_COUNT, tasks, TASK_COUNT);
+        generator = new ReportGenerator(users, tasks, null, null, dataset.newRandom());
+        outputDir = Files.createTempDirectory("uptrack-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        File[] files = outputDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(outputDir);
+    }
+
+    @Benchmark
+    public long singleFormat(FormatState state) throws IOException {
+        File file = generator.generateReportFile(config(state.format));
+        return delete(file);
+    }
+
+    @Benchmark
+    public long allFormatsBatch() throws IOException {
+        List<ReportResult> results = generator.generateReports(List.of(config("html"), config("csv"), config("txt")));
+        long length = 0;
+        for (ReportResult result : results) {
+            length += delete(result.getFile());
+        }
+        return length;
+    }
+
+    private ReportGenerator.ReportConfig config(String format) {
+        return new ReportGenerator.ReportConfig(format, outputDir.toString()).setIncludeCharts(true);
+    }
+
+    private static long delete(File file) throws IOException {
+        long length = file.length();
+        Files.delete(file.toPath());
+        return length;
+    }
+}
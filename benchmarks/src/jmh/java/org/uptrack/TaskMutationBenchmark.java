@@ -0,0 +1,82 @@
+package org.uptrack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statuswechsel und Fälligkeitsänderungen an {@link Tasks} samt Historieneintrag, einmal
+ * frei und einmal in einer {@link InMemoryTaskRepository}, deren Indizes mitgeführt werden.
+ * Die Historie wird ab 4096 Einträgen ausgelagert, damit lange Messungen den Heap nicht
+ * mit Historie füllen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskMutationBenchmark {
+    private static final int TASK_COUNT = 1024;
+    private static final String[] DUE_DATES = {
+            LocalDate.now().minusDays(1).toString(), LocalDate.now().plusDays(3).toString(),
+            LocalDate.now().plusDays(30).toString()};
+
+    private HistorySegmentStore store;
+    private Tasks[] detached;
+    private Tasks[] indexed;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        store = HistorySegmentStore.createTemporary();
+        HistoryRetention retention = new HistoryRetention(4096, store);
+        InMemoryTaskRepository repository = new InMemoryTaskRepository();
+        detached = new Tasks[TASK_COUNT];
+        indexed = new Tasks[TASK_COUNT];
+        for (int i = 0; i < TASK_COUNT; i++) {
+            detached[i] = Tasks.restore("Frei " + i, "", "Offen", Tasks.NO_DUE_DATE, new RecordHistory(retention));
+            indexed[i] = Tasks.restore("Aufgabe " + i, "", "Offen", Tasks.NO_DUE_DATE, new RecordHistory(retention));
+            repository.addTask(indexed[i]);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Benchmark
+    public void mutateDetached() {
+        mutate(detached);
+    }
+
+    @Benchmark
+    public void mutateInRepository() {
+        mutate(indexed);
+    }
+
+    private void mutate(Tasks[] tasks) {
+        int i = next;
+        next = (next + 1) % (3 * TASK_COUNT);
+        Tasks task = tasks[i % TASK_COUNT];
+        switch (i % 3) {
+            case 0:
+                task.complete();
+                break;
+            case 1:
+                task.reopen();
+                break;
+            default:
+                task.setDueDate(DUE_DATES[(i >>> 2) % DUE_DATES.length]);
+                break;
+        }
+    }
+}
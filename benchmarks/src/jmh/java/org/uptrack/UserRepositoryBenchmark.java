@@ -0,0 +1,58 @@
+package org.uptrack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durchsatz von Anlegen, Nachschlagen und Löschen im {@link ConcurrentUserRepository}
+ * bei vier gleichzeitigen Threads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class UserRepositoryBenchmark {
+    @Param({"10000"})
+    int userCount;
+
+    private ConcurrentUserRepository repository;
+    private String[] usernames;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new ConcurrentUserRepository();
+        usernames = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            usernames[i] = "benutzer" + i;
+            repository.addUser(new Admin(usernames[i], "pw"));
+        }
+    }
+
+    @Benchmark
+    public User lookup() {
+        return repository.getUserByUsername(usernames[ThreadLocalRandom.current().nextInt(userCount)]);
+    }
+
+    /**
+     * Legt einen neuen Benutzer an und löscht ihn wieder, der Bestand bleibt gleich groß
+     */
+    @Benchmark
+    public void addAndDelete() {
+        String username = "neu" + sequence.incrementAndGet();
+        repository.addUser(new Admin(username, "pw"));
+        repository.deleteUser(username);
+    }
+}
@@ -0,0 +1,52 @@
+package org.uptrack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latenz von {@link UserService#searchUsers} bei wachsendem Bestand, einmal mit allen
+ * Treffern und einmal begrenzt auf die ersten 50 wie in der Benutzersuche der Oberfläche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+    private static final String[] NAMES = {"meier", "schmidt", "mueller", "schneider", "fischer", "weber", "wagner"};
+
+    @Param({"1000", "100000", "1000000"})
+    int userCount;
+
+    @Param({"mei", "schmidt12", "xyz"})
+    String term;
+
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConcurrentUserRepository repository = new ConcurrentUserRepository();
+        for (int i = 0; i < userCount; i++) {
+            repository.addUser(new Admin(NAMES[i % NAMES.length] + i, "pw"));
+        }
+        userService = new UserService(repository);
+    }
+
+    @Benchmark
+    public List<User> searchAll() {
+        return userService.searchUsers(term);
+    }
+
+    @Benchmark
+    public List<User> searchTop50() {
+        return userService.searchUsers(term, SearchableUserRepository.MatchMode.SUBSTRING, true, 50);
+    }
+}
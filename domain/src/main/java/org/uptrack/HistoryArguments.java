@@ -0,0 +1,39 @@
+package org.uptrack;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gemeinsamer Pool für Statusnamen in der Historie. Jeder Text wird nur einmal abgelegt
+ * und über eine fortlaufende Nummer referenziert. Der Pool lebt so lange wie der Prozess
+ * und schrumpft nie, er ist daher nur für die wenigen wiederkehrenden Statusnamen gedacht.
+ */
+final class HistoryArguments {
+    private static final Map<String, Integer> ids = new HashMap<>();
+    // Nach jedem Eintrag neu veröffentlicht, damit Leser ohne Sperre zugreifen können
+    private static volatile String[] values = new String[16];
+    private static int size = 0;
+
+    private HistoryArguments() {
+    }
+
+    static synchronized int intern(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        ids.put(value, size);
+        values = current;
+        return size++;
+    }
+
+    static String get(int id) {
+        return values[id];
+    }
+}
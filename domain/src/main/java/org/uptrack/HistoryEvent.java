@@ -0,0 +1,60 @@
+package org.uptrack;
+
+import java.time.LocalDate;
+
+/**
+ * Ereignistypen der Aufgabenhistorie samt deutscher Textvorlage.
+ * Der Text wird erst beim Lesen aus Vorlage und Argument zusammengesetzt.
+ */
+public enum HistoryEvent {
+    CREATED("Aufgabe erstellt"),
+    TITLE_CHANGED("Titel geändert"),
+    DESCRIPTION_CHANGED("Beschreibung geändert"),
+    STATUS_CHANGED("Status auf ", " geändert"),
+    DUE_DATE_SET("Fälligkeitsdatum auf ", " gesetzt"),
+    DUE_DATE_REMOVED("Fälligkeitsdatum auf null gesetzt"),
+    COMPLETED("Aufgabe abgeschlossen"),
+    REOPENED("Aufgabe wiedereröffnet"),
+    CANCELED("Aufgabe abgebrochen"),
+    /**
+     * Freier Text, der unverändert übernommen wird
+     */
+    CUSTOM("", "");
+
+    private static final HistoryEvent[] VALUES = values();
+
+    private final String prefix;
+    private final String suffix;
+
+    HistoryEvent(String text) {
+        this.prefix = text;
+        this.suffix = null;
+    }
+
+    HistoryEvent(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Gibt an, ob der Text ein Argument enthält
+     */
+    boolean hasArgument() {
+        return suffix != null;
+    }
+
+    String render(String argument) {
+        return hasArgument() ? prefix + argument + suffix : prefix;
+    }
+
+    /**
+     * Setzt den Text für ein Fälligkeitsdatum in Tagen seit 1970-01-01 zusammen
+     */
+    String renderDueDate(long epochDay) {
+        return render(LocalDate.ofEpochDay(epochDay).toString());
+    }
+
+    static HistoryEvent ofCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,60 @@
+package org.uptrack;
+
+/**
+ * Aufbewahrungsregel für die Aufgabenhistorie. Es bleiben höchstens die letzten
+ * maxEntriesOnHeap Einträge (bis zum Doppelten vor dem nächsten Auslagern) im Speicher,
+ * ältere Einträge werden in einen {@link HistorySegmentStore} ausgelagert.
+ */
+public final class HistoryRetention {
+    /**
+     * Behält alle Einträge im Speicher
+     */
+    public static final HistoryRetention UNBOUNDED = new HistoryRetention();
+
+    private static volatile HistoryRetention defaultRetention = UNBOUNDED;
+
+    private final int maxEntriesOnHeap;
+    private final HistorySegmentStore store;
+
+    private HistoryRetention() {
+        this.maxEntriesOnHeap = Integer.MAX_VALUE;
+        this.store = null;
+    }
+
+    public HistoryRetention(int maxEntriesOnHeap, HistorySegmentStore store) {
+        if (maxEntriesOnHeap <= 0) {
+            throw new IllegalArgumentException("maxEntriesOnHeap muss positiv sein: " + maxEntriesOnHeap);
+        }
+        if (store == null) {
+            throw new IllegalArgumentException("Für die Auslagerung wird eine Segmentdatei benötigt");
+        }
+        this.maxEntriesOnHeap = maxEntriesOnHeap;
+        this.store = store;
+    }
+
+    /**
+     * Liefert die Regel für neu angelegte Aufgaben
+     */
+    public static HistoryRetention getDefault() {
+        return defaultRetention;
+    }
+
+    /**
+     * Setzt die Regel für künftig angelegte Aufgaben
+     */
+    public static void setDefault(HistoryRetention retention) {
+        defaultRetention = retention == null ? UNBOUNDED : retention;
+    }
+
+    public int getMaxEntriesOnHeap() {
+        return maxEntriesOnHeap;
+    }
+
+    public HistorySegmentStore getStore() {
+        return store;
+    }
+
+    boolean isBounded() {
+        return store != null;
+    }
+}
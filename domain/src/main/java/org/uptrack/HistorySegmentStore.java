@@ -0,0 +1,163 @@
+package org.uptrack;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Nur anhängbare Segmentdatei für ausgelagerte Historieneinträge. Die Datei wird in
+ * Bereichen in den Speicher eingeblendet; jeder Block verweist auf seinen Vorgänger,
+ * sodass die Historie einer Aufgabe rückwärts verkettet gelesen werden kann.
+ * Blockformat: Vorgänger (long), Länge (int), Nutzdaten.
+ * Neue Bereiche wachsen mit dem belegten Umfang bis höchstens 16 MB; beim Schließen wird
+ * die Datei auf den belegten Umfang gekürzt.
+ */
+public class HistorySegmentStore implements Closeable {
+    /**
+     * Markiert das Fehlen eines Vorgängerblocks
+     */
+    public static final long NO_BLOCK = -1;
+
+    private static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+    private static final int INITIAL_REGION_SIZE = 64 * 1024;
+    private static final int BLOCK_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean deleteOnClose;
+    private final int regionSize;
+    private final TreeMap<Long, MappedByteBuffer> regions = new TreeMap<>();
+    private MappedByteBuffer current;
+    private long currentStart;
+    private long end;
+
+    HistorySegmentStore(Path file, boolean deleteOnClose, int regionSize) throws IOException {
+        this.file = file;
+        this.deleteOnClose = deleteOnClose;
+        this.regionSize = regionSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.end = channel.size();
+        if (end > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Segmentdatei ist zu groß: " + file);
+        }
+        if (end > 0) {
+            // Vorhandene Blöcke lesbar machen; neue Blöcke folgen in eigenen Bereichen
+            regions.put(0L, channel.map(FileChannel.MapMode.READ_WRITE, 0, end));
+        }
+    }
+
+    /**
+     * Öffnet eine Segmentdatei; neue Blöcke werden hinter den vorhandenen Inhalt geschrieben
+     */
+    public static HistorySegmentStore open(Path file) throws IOException {
+        return new HistorySegmentStore(file, false, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Legt eine temporäre Segmentdatei an, die beim Schließen gelöscht wird
+     */
+    public static HistorySegmentStore createTemporary() throws IOException {
+        return new HistorySegmentStore(Files.createTempFile("uptrack-history", ".seg"), true, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Hängt einen Block an und liefert seine Position in der Datei
+     */
+    public synchronized long append(long previousBlock, byte[] payload) throws IOException {
+        ensureOpen();
+        int blockSize = BLOCK_HEADER_SIZE + payload.length;
+        if (current == null || current.remaining() < blockSize) {
+            mapRegion(blockSize);
+        }
+        long offset = currentStart + current.position();
+        current.putLong(previousBlock);
+        current.putInt(payload.length);
+        current.put(payload);
+        return offset;
+    }
+
+    /**
+     * Liefert den Vorgänger des Blocks an der angegebenen Position
+     */
+    public synchronized long readPrevious(long block) {
+        Map.Entry<Long, MappedByteBuffer> region = regionOf(block);
+        return region.getValue().getLong((int) (block - region.getKey()));
+    }
+
+    /**
+     * Liefert die Nutzdaten des Blocks an der angegebenen Position
+     */
+    public synchronized byte[] readPayload(long block) {
+        Map.Entry<Long, MappedByteBuffer> region = regionOf(block);
+        int local = (int) (block - region.getKey());
+        byte[] payload = new byte[region.getValue().getInt(local + Long.BYTES)];
+        region.getValue().get(local + BLOCK_HEADER_SIZE, payload);
+        return payload;
+    }
+
+    /**
+     * Liefert die Anzahl der bisher belegten Bytes
+     */
+    public synchronized long size() {
+        return current == null ? end : currentStart + current.position();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        if (current != null) {
+            current.force();
+        }
+        long used = size();
+        regions.clear();
+        current = null;
+        try {
+            channel.truncate(used);
+        } catch (IOException e) {
+            // Manche Systeme kürzen keine eingeblendeten Dateien; der Rest bleibt dann ungenutzt
+        }
+        channel.close();
+        if (deleteOnClose) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Blendet einen neuen Bereich direkt hinter dem letzten Block ein, etwa so groß wie der
+     * bisher belegte Umfang
+     */
+    private void mapRegion(int minimumSize) throws IOException {
+        if (current != null) {
+            end = currentStart + current.position();
+        }
+        int size = (int) Math.max(minimumSize, Math.min(regionSize, Math.max(INITIAL_REGION_SIZE, end)));
+        current = channel.map(FileChannel.MapMode.READ_WRITE, end, size);
+        currentStart = end;
+        regions.put(currentStart, current);
+    }
+
+    private Map.Entry<Long, MappedByteBuffer> regionOf(long block) {
+        ensureOpen();
+        Map.Entry<Long, MappedByteBuffer> region = regions.floorEntry(block);
+        if (region == null || block - region.getKey() >= region.getValue().capacity()) {
+            throw new IllegalArgumentException("Unbekannter Block: " + block);
+        }
+        return region;
+    }
+
+    private void ensureOpen() {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException("Segmentdatei ist geschlossen: " + file);
+        }
+    }
+}
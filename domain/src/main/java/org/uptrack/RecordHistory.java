@@ -1,28 +1,489 @@
 package org.uptrack;
 
-import java.util.ArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
+/**
+ * Kompakte Änderungshistorie. Jeder Eintrag besteht aus Ereignistyp, Zeitstempel und
+ * einer Argumentreferenz in primitiven Arrays; der Text wird erst beim Lesen erzeugt.
+ * Die Arrays werden nur angehängt und beim Wachsen oder Leeren neu angelegt, daher
+ * bleiben bereits ausgegebene Ansichten ohne Kopie gültig.
+ * Mit einer begrenzten {@link HistoryRetention} werden ältere Einträge blockweise in
+ * eine Segmentdatei ausgelagert; Lesezugriffe umfassen beide Ebenen. Die Positionen der
+ * Blöcke bleiben im Speicher, gelesen wird nur der Block mit dem gesuchten Eintrag.
+ */
 public class RecordHistory {
-    private List<String> history;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final HistoryRetention retention;
+    private byte[] events;
+    private long[] timestamps;
+    private int[] arguments;
+    private String[] texts;
+    private int textCount;
+    private int size;
+    private int spilledCount;
+    private long[] blocks;
+    private int[] blockStarts;
+    private int blockCount;
+    private SpilledEntries lastRead;
 
     public RecordHistory() {
-        this.history = new ArrayList<>();
+        this(HistoryRetention.getDefault());
+    }
+
+    public RecordHistory(HistoryRetention retention) {
+        this.retention = retention;
+        allocate();
     }
 
+    /**
+     * Hängt einen freien Text an
+     */
     public void addEntry(String entry) {
-        history.add(entry);
+        append(HistoryEvent.CUSTOM, storeText(entry));
+    }
+
+    /**
+     * Hängt ein Ereignis ohne Argument an
+     */
+    public void addEvent(HistoryEvent event) {
+        append(event, 0);
+    }
+
+    /**
+     * Hängt eine Statusänderung an. Der Statusname wird im prozessweiten Pool abgelegt,
+     * der nie schrumpft; freie Texte gehören daher in {@link #addEntry(String)}.
+     */
+    void addStatusChange(String status) {
+        append(HistoryEvent.STATUS_CHANGED, HistoryArguments.intern(String.valueOf(status)));
+    }
+
+    /**
+     * Hängt das Setzen eines Fälligkeitsdatums in Tagen seit 1970-01-01 an
+     *
+     * @throws IllegalArgumentException wenn das Datum nicht speicherbar ist, siehe {@link #isStorableDueDate}
+     */
+    public void addDueDate(long epochDay) {
+        if (!isStorableDueDate(epochDay)) {
+            throw new IllegalArgumentException("Fälligkeitsdatum außerhalb des unterstützten Bereichs: " + epochDay);
+        }
+        append(HistoryEvent.DUE_DATE_SET, (int) epochDay);
+    }
+
+    /**
+     * Prüft, ob ein Fälligkeitsdatum in Tagen seit 1970-01-01 in die Historie passt
+     */
+    public static boolean isStorableDueDate(long epochDay) {
+        return epochDay >= Integer.MIN_VALUE && epochDay <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Stellt einen gespeicherten Eintrag mit seinem ursprünglichen Zeitstempel wieder her
+     *
+     * @param argument Argument wie von {@link EntryVisitor} geliefert, null bei Ereignissen ohne Argument
+     */
+    public void restoreEntry(HistoryEvent event, long timestamp, String argument) {
+        int encoded;
+        if (event == HistoryEvent.CUSTOM) {
+            encoded = storeText(argument);
+        } else if (event == HistoryEvent.DUE_DATE_SET) {
+            encoded = Math.toIntExact(LocalDate.parse(argument).toEpochDay());
+        } else if (event.hasArgument()) {
+            encoded = HistoryArguments.intern(String.valueOf(argument));
+        } else {
+            encoded = 0;
+        }
+        append(event, encoded, timestamp);
+    }
+
+    /**
+     * Empfängt die Einträge der Historie in Rohform
+     */
+    public interface EntryVisitor {
+        /**
+         * @param argument Statusname, Fälligkeitsdatum im ISO-Format, freier Text oder null
+         */
+        void visit(HistoryEvent event, long timestamp, String argument);
+    }
+
+    /**
+     * Durchläuft alle Einträge ab fromIndex über beide Ebenen; ausgelagerte Einträge
+     * werden dabei nur einmal gelesen
+     */
+    public void forEachEntry(int fromIndex, EntryVisitor visitor) {
+        new Snapshot(this).forEachEntry(fromIndex, visitor);
     }
 
+    /**
+     * Fester Stand der Einträge in Rohform. Er bleibt gültig, während weitere Einträge
+     * angehängt oder ausgelagert werden, und kann daher ohne Sperre gelesen werden.
+     */
+    public interface Entries {
+        int size();
+
+        /**
+         * Durchläuft die Einträge ab fromIndex, ausgelagerte Blöcke werden je einmal gelesen
+         */
+        void forEachEntry(int fromIndex, EntryVisitor visitor);
+    }
+
+    /**
+     * Liefert den aktuellen Stand der Einträge in Rohform ohne Kopie
+     */
+    public Entries getEntries() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Liefert eine unveränderliche Ansicht auf die bisherigen Einträge ohne Kopie.
+     * Später angehängte Einträge sind in der Ansicht nicht enthalten.
+     */
     public List<String> getHistory() {
-        return new ArrayList<>(history);
+        return new Snapshot(this);
+    }
+
+    public HistoryEvent getEvent(int index) {
+        checkIndex(index);
+        if (index < spilledCount) {
+            SpilledEntries spilled = readSpilled(index);
+            return HistoryEvent.ofCode(spilled.events[index - spilled.first]);
+        }
+        return HistoryEvent.ofCode(events[index - spilledCount]);
+    }
+
+    /**
+     * Liefert den Zeitpunkt eines Eintrags in Millisekunden seit 1970-01-01
+     */
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        if (index < spilledCount) {
+            SpilledEntries spilled = readSpilled(index);
+            return spilled.timestamps[index - spilled.first];
+        }
+        return timestamps[index - spilledCount];
     }
 
     public void clear() {
-        history.clear();
+        allocate();
     }
 
     public int getEntryCount() {
-        return history.size();
+        return spilledCount + size;
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge, die im Speicher gehalten werden
+     */
+    public int getHeapEntryCount() {
+        return size;
+    }
+
+    private int storeText(String text) {
+        if (texts == null) {
+            texts = new String[INITIAL_CAPACITY];
+        } else if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, textCount * 2);
+        }
+        texts[textCount] = text;
+        return textCount++;
+    }
+
+    private void allocate() {
+        events = new byte[INITIAL_CAPACITY];
+        timestamps = new long[INITIAL_CAPACITY];
+        arguments = new int[INITIAL_CAPACITY];
+        texts = null;
+        textCount = 0;
+        size = 0;
+        spilledCount = 0;
+        blocks = null;
+        blockStarts = null;
+        blockCount = 0;
+        lastRead = null;
+    }
+
+    private void append(HistoryEvent event, int argument) {
+        append(event, argument, System.currentTimeMillis());
+    }
+
+    private void append(HistoryEvent event, int argument, long timestamp) {
+        if (size == events.length) {
+            int capacity = size * 2;
+            events = Arrays.copyOf(events, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            arguments = Arrays.copyOf(arguments, capacity);
+        }
+        events[size] = (byte) event.ordinal();
+        timestamps[size] = timestamp;
+        arguments[size] = argument;
+        size++;
+        if (retention.isBounded() && size >= 2L * retention.getMaxEntriesOnHeap()) {
+            spill(size - retention.getMaxEntriesOnHeap());
+        }
+    }
+
+    /**
+     * Lagert die ältesten Einträge als Block aus und behält den Rest in neuen Arrays
+     */
+    private void spill(int count) {
+        long block;
+        try {
+            block = retention.getStore().append(blockCount == 0 ? HistorySegmentStore.NO_BLOCK : blocks[blockCount - 1],
+                    encode(count));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Historie konnte nicht ausgelagert werden", e);
+        }
+        if (blocks == null) {
+            blocks = new long[INITIAL_CAPACITY];
+            blockStarts = new int[INITIAL_CAPACITY];
+        } else if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+        }
+        blocks[blockCount] = block;
+        blockStarts[blockCount] = spilledCount;
+        blockCount++;
+        int kept = size - count;
+        int capacity = Math.max(INITIAL_CAPACITY, kept * 2);
+        byte[] keptEvents = Arrays.copyOf(Arrays.copyOfRange(events, count, size), capacity);
+        long[] keptTimestamps = Arrays.copyOf(Arrays.copyOfRange(timestamps, count, size), capacity);
+        int[] keptArguments = Arrays.copyOf(Arrays.copyOfRange(arguments, count, size), capacity);
+
+        String[] keptTexts = null;
+        int keptTextCount = 0;
+        for (int i = 0; i < kept; i++) {
+            if (keptEvents[i] == HistoryEvent.CUSTOM.ordinal()) {
+                if (keptTexts == null) {
+                    keptTexts = new String[INITIAL_CAPACITY];
+                } else if (keptTextCount == keptTexts.length) {
+                    keptTexts = Arrays.copyOf(keptTexts, keptTextCount * 2);
+                }
+                keptTexts[keptTextCount] = texts[keptArguments[i]];
+                keptArguments[i] = keptTextCount++;
+            }
+        }
+
+        events = keptEvents;
+        timestamps = keptTimestamps;
+        arguments = keptArguments;
+        texts = keptTexts;
+        textCount = keptTextCount;
+        size = kept;
+        spilledCount += count;
+    }
+
+    /**
+     * Kodiert die ersten count Einträge; Texte werden mitgeschrieben, damit der Block
+     * ohne Bezug auf Speicherstrukturen lesbar ist
+     */
+    private byte[] encode(int count) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(count * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            HistoryEvent event = HistoryEvent.ofCode(events[i]);
+            out.writeByte(events[i]);
+            out.writeLong(timestamps[i]);
+            if (event == HistoryEvent.DUE_DATE_SET) {
+                out.writeInt(arguments[i]);
+            } else if (event.hasArgument()) {
+                writeText(out, argumentOf(events[i], arguments[i], texts));
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] encoded = String.valueOf(text).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    /**
+     * Liefert den ausgelagerten Block mit dem Eintrag; der zuletzt gelesene Block wird
+     * wiederverwendet
+     */
+    private SpilledEntries readSpilled(int index) {
+        if (lastRead == null || !lastRead.contains(index)) {
+            int b = SpilledEntries.blockOf(blockStarts, blockCount, index);
+            lastRead = SpilledEntries.read(retention.getStore(), blocks[b], blockStarts[b]);
+        }
+        return lastRead;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= getEntryCount()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", Anzahl " + getEntryCount());
+        }
+    }
+
+    static String render(byte event, int argument, String[] texts) {
+        HistoryEvent type = HistoryEvent.ofCode(event);
+        switch (type) {
+            case CUSTOM:
+                return texts[argument];
+            case DUE_DATE_SET:
+                return type.renderDueDate(argument);
+            default:
+                return type.hasArgument() ? type.render(HistoryArguments.get(argument)) : type.render(null);
+        }
+    }
+
+    private static String argumentOf(byte event, int argument, String[] texts) {
+        HistoryEvent type = HistoryEvent.ofCode(event);
+        switch (type) {
+            case CUSTOM:
+                return texts[argument];
+            case DUE_DATE_SET:
+                return LocalDate.ofEpochDay(argument).toString();
+            default:
+                return type.hasArgument() ? HistoryArguments.get(argument) : null;
+        }
+    }
+
+    /**
+     * Aus einem Block der Segmentdatei gelesene und bereits als Text aufbereitete Einträge
+     */
+    private static class SpilledEntries {
+        final int first;
+        final byte[] events;
+        final long[] timestamps;
+        final String[] arguments;
+        final String[] texts;
+
+        private SpilledEntries(int first, int count) {
+            this.first = first;
+            events = new byte[count];
+            timestamps = new long[count];
+            arguments = new String[count];
+            texts = new String[count];
+        }
+
+        int end() {
+            return first + events.length;
+        }
+
+        boolean contains(int index) {
+            return index >= first && index < end();
+        }
+
+        /**
+         * Liefert den Block, der den Eintrag mit dem angegebenen Index enthält
+         */
+        static int blockOf(int[] blockStarts, int blockCount, int index) {
+            int found = Arrays.binarySearch(blockStarts, 0, blockCount, index);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        static SpilledEntries read(HistorySegmentStore store, long block, int first) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(store.readPayload(block)));
+                SpilledEntries entries = new SpilledEntries(first, in.readInt());
+                for (int i = 0; i < entries.events.length; i++) {
+                    byte event = in.readByte();
+                    HistoryEvent type = HistoryEvent.ofCode(event);
+                    entries.events[i] = event;
+                    entries.timestamps[i] = in.readLong();
+                    String argument = null;
+                    if (type == HistoryEvent.DUE_DATE_SET) {
+                        argument = LocalDate.ofEpochDay(in.readInt()).toString();
+                    } else if (type.hasArgument()) {
+                        argument = readText(in);
+                    }
+                    entries.arguments[i] = argument;
+                    entries.texts[i] = type.render(argument);
+                }
+                return entries;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Ausgelagerte Historie konnte nicht gelesen werden", e);
+            }
+        }
+
+        private static String readText(DataInputStream in) throws IOException {
+            byte[] encoded = new byte[in.readInt()];
+            in.readFully(encoded);
+            return new String(encoded, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Ansicht auf einen festen Stand der Historie, die Texte werden beim Zugriff erzeugt.
+     * Ausgelagerte Einträge werden erst beim Zugriff darauf blockweise gelesen.
+     */
+    private static class Snapshot extends AbstractList<String> implements RandomAccess, Entries {
+        private final HistorySegmentStore store;
+        private final long[] blocks;
+        private final int[] blockStarts;
+        private final int blockCount;
+        private final int spilledCount;
+        private final byte[] events;
+        private final long[] timestamps;
+        private final int[] arguments;
+        private final String[] texts;
+        private final int size;
+        private SpilledEntries lastRead;
+
+        Snapshot(RecordHistory history) {
+            this.store = history.retention.getStore();
+            this.blocks = history.blocks;
+            this.blockStarts = history.blockStarts;
+            this.blockCount = history.blockCount;
+            this.spilledCount = history.spilledCount;
+            this.events = history.events;
+            this.timestamps = history.timestamps;
+            this.arguments = history.arguments;
+            this.texts = history.texts;
+            this.size = history.size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + ", Anzahl " + size());
+            }
+            if (index < spilledCount) {
+                if (lastRead == null || !lastRead.contains(index)) {
+                    int b = SpilledEntries.blockOf(blockStarts, blockCount, index);
+                    lastRead = SpilledEntries.read(store, blocks[b], blockStarts[b]);
+                }
+                return lastRead.texts[index - lastRead.first];
+            }
+            int local = index - spilledCount;
+            return render(events[local], arguments[local], texts);
+        }
+
+        @Override
+        public int size() {
+            return spilledCount + size;
+        }
+
+        @Override
+        public void forEachEntry(int fromIndex, EntryVisitor visitor) {
+            if (fromIndex < spilledCount) {
+                for (int b = SpilledEntries.blockOf(blockStarts, blockCount, Math.max(0, fromIndex)); b < blockCount; b++) {
+                    SpilledEntries spilled = SpilledEntries.read(store, blocks[b], blockStarts[b]);
+                    for (int i = Math.max(fromIndex, spilled.first); i < spilled.end(); i++) {
+                        int local = i - spilled.first;
+                        visitor.visit(HistoryEvent.ofCode(spilled.events[local]), spilled.timestamps[local],
+                                spilled.arguments[local]);
+                    }
+                }
+            }
+            for (int i = Math.max(0, fromIndex - spilledCount); i < size; i++) {
+                visitor.visit(HistoryEvent.ofCode(events[i]), timestamps[i], argumentOf(events[i], arguments[i], texts));
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package org.uptrack;
+
+/**
+ * Wird über Status- und Fälligkeitsänderungen einer Aufgabe benachrichtigt, z.B. von
+ * einer Ablage, die daraus laufende Zähler pflegt. Der Aufruf erfolgt im Thread, der
+ * die Aufgabe ändert, nachdem der neue Wert gesetzt ist.
+ */
+public interface TaskListener {
+    void statusChanged(Tasks task, String oldStatus);
+
+    void dueDateChanged(Tasks task, long oldDueEpochDay);
+}
@@ -1,18 +1,47 @@
 package org.uptrack;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Objects;
+
 public class Tasks {
+    /**
+     * Markiert eine Aufgabe ohne Fälligkeitsdatum
+     */
+    public static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private static final TaskListener[] NO_LISTENERS = new TaskListener[0];
+
     private String title;
     private String description;
     private String status;
-    private String dueDate;
+    private long dueEpochDay = NO_DUE_DATE;
     private RecordHistory history;
+    private volatile TaskListener[] listeners = NO_LISTENERS;
 
     public Tasks(String title, String description) {
         this.title = title;
         this.description = description;
         this.status = "Offen";
         this.history = new RecordHistory();
-        this.history.addEntry("Aufgabe erstellt");
+        this.history.addEvent(HistoryEvent.CREATED);
+    }
+
+    private Tasks(String title, String description, String status, long dueEpochDay, RecordHistory history) {
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.dueEpochDay = dueEpochDay;
+        this.history = history;
+    }
+
+    /**
+     * Stellt eine gespeicherte Aufgabe wieder her, ohne neue Historieneinträge anzulegen
+     */
+    public static Tasks restore(String title, String description, String status, long dueEpochDay,
+                                RecordHistory history) {
+        return new Tasks(title, description, status, dueEpochDay, history);
     }
 
     public String getTitle() {
@@ -21,7 +50,7 @@ public class Tasks {
 
     public void setTitle(String title) {
         this.title = title;
-        recordHistory("Titel geändert");
+        history.addEvent(HistoryEvent.TITLE_CHANGED);
     }
 
     public String getDescription() {
@@ -30,7 +59,7 @@ public class Tasks {
 
     public void setDescription(String description) {
         this.description = description;
-        recordHistory("Beschreibung geändert");
+        history.addEvent(HistoryEvent.DESCRIPTION_CHANGED);
     }
 
     public String getStatus() {
@@ -38,39 +67,172 @@ public class Tasks {
     }
 
     public void setStatus(String status) {
+        String oldStatus = this.status;
         this.status = status;
-        recordHistory("Status auf " + status + " geändert");
+        history.addStatusChange(status);
+        fireStatusChanged(oldStatus);
     }
 
+    /**
+     * Liefert das Fälligkeitsdatum im ISO-Format (yyyy-MM-dd) oder null
+     */
     public String getDueDate() {
-        return dueDate;
+        return hasDueDate() ? LocalDate.ofEpochDay(dueEpochDay).toString() : null;
     }
 
+    /**
+     * Setzt das Fälligkeitsdatum im ISO-Format (yyyy-MM-dd), null entfernt es
+     *
+     * @throws IllegalArgumentException wenn das Datum nicht gelesen werden kann oder außerhalb
+     *                                  des speicherbaren Bereichs liegt; die Aufgabe bleibt dann unverändert
+     */
     public void setDueDate(String dueDate) {
-        this.dueDate = dueDate;
-        recordHistory("Fälligkeitsdatum auf " + dueDate + " gesetzt");
+        long newDueEpochDay = NO_DUE_DATE;
+        if (dueDate != null) {
+            try {
+                newDueEpochDay = LocalDate.parse(dueDate).toEpochDay();
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Ungültiges Fälligkeitsdatum: " + dueDate, e);
+            }
+            if (!RecordHistory.isStorableDueDate(newDueEpochDay)) {
+                throw new IllegalArgumentException("Fälligkeitsdatum außerhalb des unterstützten Bereichs: " + dueDate);
+            }
+        }
+
+        long oldDueEpochDay = this.dueEpochDay;
+        this.dueEpochDay = newDueEpochDay;
+        if (newDueEpochDay == NO_DUE_DATE) {
+            history.addEvent(HistoryEvent.DUE_DATE_REMOVED);
+        } else {
+            history.addDueDate(newDueEpochDay);
+        }
+        if (oldDueEpochDay != newDueEpochDay) {
+            RuntimeException failure = null;
+            for (TaskListener listener : listeners) {
+                try {
+                    listener.dueDateChanged(this, oldDueEpochDay);
+                } catch (RuntimeException e) {
+                    failure = collect(failure, e);
+                }
+            }
+            rethrow(failure);
+        }
+    }
+
+    /**
+     * Liefert das Fälligkeitsdatum als Tage seit 1970-01-01 oder {@link #NO_DUE_DATE}
+     */
+    public long getDueEpochDay() {
+        return dueEpochDay;
+    }
+
+    public boolean hasDueDate() {
+        return dueEpochDay != NO_DUE_DATE;
     }
 
+    /**
+     * Liefert eine unveränderliche Ansicht auf die Historie ohne Kopie
+     */
     public java.util.List<String> getHistory() {
         return history.getHistory();
     }
 
-    private void recordHistory(String event) {
-        history.addEntry(event);
+    public int getHistoryEntryCount() {
+        return history.getEntryCount();
+    }
+
+    /**
+     * Liefert den aktuellen Stand der Historie in Rohform, der auch nach weiteren
+     * Änderungen unverändert bleibt, z.B. zum Speichern außerhalb einer Sperre
+     */
+    public RecordHistory.Entries getHistoryEntries() {
+        return history.getEntries();
+    }
+
+    /**
+     * Durchläuft die Historie ab fromIndex in Rohform, z.B. zum Speichern
+     */
+    public void forEachHistoryEntry(int fromIndex, RecordHistory.EntryVisitor visitor) {
+        history.forEachEntry(fromIndex, visitor);
     }
 
     public void complete() {
+        String oldStatus = this.status;
         this.status = "Abgeschlossen";
-        recordHistory("Aufgabe abgeschlossen");
+        history.addEvent(HistoryEvent.COMPLETED);
+        fireStatusChanged(oldStatus);
     }
 
     public void reopen() {
+        String oldStatus = this.status;
         this.status = "Wiedereröffnet";
-        recordHistory("Aufgabe wiedereröffnet");
+        history.addEvent(HistoryEvent.REOPENED);
+        fireStatusChanged(oldStatus);
     }
 
     public void cancel() {
+        String oldStatus = this.status;
         this.status = "Abgebrochen";
-        recordHistory("Aufgabe abgebrochen");
+        history.addEvent(HistoryEvent.CANCELED);
+        fireStatusChanged(oldStatus);
+    }
+
+    /**
+     * Registriert einen Listener für Status- und Fälligkeitsänderungen. Ein bereits
+     * registrierter Listener wird nicht doppelt aufgenommen. Wirft ein Listener, werden
+     * die übrigen trotzdem benachrichtigt; die erste Ausnahme wird danach weitergegeben.
+     */
+    public synchronized void addListener(TaskListener listener) {
+        TaskListener[] current = listeners;
+        for (TaskListener registered : current) {
+            if (registered == listener) {
+                return;
+            }
+        }
+        TaskListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeListener(TaskListener listener) {
+        TaskListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                TaskListener[] updated = new TaskListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated.length == 0 ? NO_LISTENERS : updated;
+                return;
+            }
+        }
+    }
+
+    private void fireStatusChanged(String oldStatus) {
+        if (Objects.equals(oldStatus, status)) {
+            return;
+        }
+        RuntimeException failure = null;
+        for (TaskListener listener : listeners) {
+            try {
+                listener.statusChanged(this, oldStatus);
+            } catch (RuntimeException e) {
+                failure = collect(failure, e);
+            }
+        }
+        rethrow(failure);
+    }
+
+    private static RuntimeException collect(RuntimeException failure, RuntimeException e) {
+        if (failure == null) {
+            return e;
+        }
+        failure.addSuppressed(e);
+        return failure;
+    }
+
+    private static void rethrow(RuntimeException failure) {
+        if (failure != null) {
+            throw failure;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordHistoryTest {
+
+    @Test
+    void getHistory_shouldRenderTaskEventsLikeBefore() {
+        // Arrange
+        Tasks task = new Tasks("Login", "Login-Maske bauen");
+
+        // Act
+        task.setStatus("In Arbeit");
+        task.setDueDate("2024-01-05");
+        task.setDueDate(null);
+        task.complete();
+
+        // Assert
+        assertEquals(List.of(
+                "Aufgabe erstellt",
+                "Status auf In Arbeit geändert",
+                "Fälligkeitsdatum auf 2024-01-05 gesetzt",
+                "Fälligkeitsdatum auf null gesetzt",
+                "Aufgabe abgeschlossen"), task.getHistory());
+    }
+
+    @Test
+    void getHistory_shouldStayValidAfterAppendAndClear() {
+        // Arrange
+        RecordHistory history = new RecordHistory();
+        history.addEntry("Erster Eintrag");
+        history.addEvent(HistoryEvent.CREATED);
+        List<String> view = history.getHistory();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            history.addEntry("Eintrag " + i);
+        }
+        history.clear();
+        history.addEntry("Neu");
+
+        // Assert
+        assertEquals(List.of("Erster Eintrag", "Aufgabe erstellt"), view);
+        assertEquals(List.of("Neu"), history.getHistory());
+    }
+
+    @Test
+    void getHistory_shouldBeReadOnly() {
+        // Arrange
+        RecordHistory history = new RecordHistory();
+        history.addEvent(HistoryEvent.COMPLETED);
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> history.getHistory().add("Manipuliert"));
+        assertEquals(HistoryEvent.COMPLETED, history.getEvent(0));
+        assertTrue(history.getTimestamp(0) > 0);
+    }
+
+    @Test
+    void retention_shouldBoundHeapAndReadThroughBothTiers() throws IOException {
+        try (HistorySegmentStore store = HistorySegmentStore.createTemporary()) {
+            // Arrange
+            RecordHistory history = new RecordHistory(new HistoryRetention(10, store));
+            List<String> expected = new ArrayList<>();
+
+            // Act
+            for (int i = 0; i < 1000; i++) {
+                if (i % 3 == 0) {
+                    history.addStatusChange("Status " + (i % 4));
+                    expected.add("Status auf Status " + (i % 4) + " geändert");
+                } else if (i % 3 == 1) {
+                    history.addDueDate(19_000 + i);
+                    expected.add("Fälligkeitsdatum auf " + java.time.LocalDate.ofEpochDay(19_000 + i) + " gesetzt");
+                } else {
+                    history.addEntry("Notiz " + i);
+                    expected.add("Notiz " + i);
+                }
+            }
+
+            // Assert
+            assertTrue(history.getHeapEntryCount() < 20);
+            assertEquals(1000, history.getEntryCount());
+            assertEquals(expected, history.getHistory());
+            assertEquals(HistoryEvent.STATUS_CHANGED, history.getEvent(0));
+            assertEquals(HistoryEvent.DUE_DATE_SET, history.getEvent(499));
+            assertEquals(HistoryEvent.CUSTOM, history.getEvent(995));
+            List<String> fromMiddle = new ArrayList<>();
+            history.forEachEntry(500, (event, timestamp, argument) -> fromMiddle.add(argument));
+            assertEquals(500, fromMiddle.size());
+            assertEquals("Notiz 500", fromMiddle.get(0));
+            assertEquals("Status 1", fromMiddle.get(1));
+        }
+    }
+
+    @Test
+    void segmentStore_shouldLinkBlocksAcrossMappedRegions() throws IOException {
+        try (HistorySegmentStore store = new HistorySegmentStore(Files.createTempFile("history", ".seg"), true, 64)) {
+            // Arrange
+            long first = store.append(HistorySegmentStore.NO_BLOCK, new byte[40]);
+
+            // Act
+            long second = store.append(first, new byte[]{1, 2, 3});
+            long large = store.append(second, new byte[200]);
+
+            // Assert
+            assertEquals(second, store.readPrevious(large));
+            assertEquals(first, store.readPrevious(second));
+            assertArrayEquals(new byte[]{1, 2, 3}, store.readPayload(second));
+            assertEquals(200, store.readPayload(large).length);
+        }
+    }
+
+    @Test
+    void segmentStore_reopened_shouldReadEarlierBlocksAndKeepAppending(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("history.seg");
+        long first;
+        long second;
+        try (HistorySegmentStore store = HistorySegmentStore.open(file)) {
+            first = store.append(HistorySegmentStore.NO_BLOCK, new byte[]{1, 2});
+            second = store.append(first, new byte[]{3});
+        }
+        long written = Files.size(file);
+
+        // Act
+        try (HistorySegmentStore store = HistorySegmentStore.open(file)) {
+            long third = store.append(second, new byte[]{4, 5, 6});
+
+            // Assert
+            assertEquals(first, store.readPrevious(second));
+            assertArrayEquals(new byte[]{1, 2}, store.readPayload(first));
+            assertArrayEquals(new byte[]{3}, store.readPayload(second));
+            assertEquals(second, store.readPrevious(third));
+            assertArrayEquals(new byte[]{4, 5, 6}, store.readPayload(third));
+        }
+        assertEquals(2 * (Long.BYTES + Integer.BYTES) + 3, written);
+    }
+}
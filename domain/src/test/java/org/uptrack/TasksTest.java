@@ -0,0 +1,117 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TasksTest {
+
+    @Test
+    void setDueDate_shouldStoreEpochDayAndKeepIsoFormat() {
+        // Arrange
+        Tasks task = new Tasks("Login", "Login-Maske bauen");
+
+        // Act
+        task.setDueDate("2024-01-05");
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 1, 5).toEpochDay(), task.getDueEpochDay());
+        assertEquals("2024-01-05", task.getDueDate());
+    }
+
+    @Test
+    void setDueDate_withInvalidDate_shouldThrowAndKeepPreviousDate() {
+        // Arrange
+        Tasks task = new Tasks("Login", "Login-Maske bauen");
+        task.setDueDate("2024-01-05");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> task.setDueDate("05.01.2024"));
+        assertEquals("2024-01-05", task.getDueDate());
+    }
+
+    @Test
+    void setDueDate_withNull_shouldRemoveDueDate() {
+        // Arrange
+        Tasks task = new Tasks("Login", "Login-Maske bauen");
+        task.setDueDate("2024-01-05");
+
+        // Act
+        task.setDueDate(null);
+
+        // Assert
+        assertFalse(task.hasDueDate());
+        assertNull(task.getDueDate());
+    }
+
+    @Test
+    void listener_shouldBeNotifiedOfEffectiveStatusAndDueDateChanges() {
+        // Arrange
+        Tasks task = new Tasks("Login", "Login-Maske bauen");
+        List<String> calls = new ArrayList<>();
+        TaskListener listener = new TaskListener() {
+            @Override
+            public void statusChanged(Tasks changed, String oldStatus) {
+                calls.add(oldStatus + "->" + changed.getStatus());
+            }
+
+            @Override
+            public void dueDateChanged(Tasks changed, long oldDueEpochDay) {
+                calls.add("Fälligkeit " + changed.getDueDate());
+            }
+        };
+        task.addListener(listener);
+        task.addListener(listener);
+
+        // Act
+        task.complete();
+        task.complete();
+        task.setDueDate("2024-01-05");
+        task.setDueDate("2024-01-05");
+        task.removeListener(listener);
+        task.reopen();
+
+        // Assert
+        assertEquals(List.of("Offen->Abgeschlossen", "Fälligkeit 2024-01-05"), calls);
+    }
+
+    @Test
+    void listener_whenEarlierListenerThrows_shouldStillBeNotified() {
+        // Arrange
+        Tasks task = new Tasks("Login", "Login-Maske bauen");
+        List<String> calls = new ArrayList<>();
+        task.addListener(new TaskListener() {
+            @Override
+            public void statusChanged(Tasks changed, String oldStatus) {
+                throw new IllegalStateException("Schreibfehler");
+            }
+
+            @Override
+            public void dueDateChanged(Tasks changed, long oldDueEpochDay) {
+                throw new IllegalStateException("Schreibfehler");
+            }
+        });
+        task.addListener(new TaskListener() {
+            @Override
+            public void statusChanged(Tasks changed, String oldStatus) {
+                calls.add(changed.getStatus());
+            }
+
+            @Override
+            public void dueDateChanged(Tasks changed, long oldDueEpochDay) {
+                calls.add(changed.getDueDate());
+            }
+        });
+
+        // Act
+        assertThrows(IllegalStateException.class, task::complete);
+        assertThrows(IllegalStateException.class, () -> task.setDueDate("2024-01-05"));
+
+        // Assert
+        assertEquals(List.of("Abgeschlossen", "2024-01-05"), calls);
+    }
+}
@@ -0,0 +1,242 @@
+package org.uptrack;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * Startet die HTTP-Schnittstelle ({@link HttpApiServer}) ohne grafische Oberfläche.
+ * Benutzer liegen in einer threadsicheren {@link ConcurrentUserRepository} oder einer
+ * {@link FileUserRepository}, Aufgaben im Speicher oder in einer {@link FileTaskRepository}.
+ * Der Server läuft, bis der Prozess beendet wird; beim Beenden werden laufende Anfragen
+ * noch bis zu einer Sekunde bedient und die Ablagen geschlossen. Mit --history-limit
+ * werden ältere Historieneinträge in eine temporäre Segmentdatei ausgelagert, mit
+ * --metrics werden beide Ablagen gemessen.
+ */
+public final class ApiServerCli {
+    static final int DEFAULT_PORT = 8080;
+    static final String DEFAULT_BIND = "127.0.0.1";
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Verwendung: uptrack-api [Optionen]",
+            "",
+            "  --port N                Port (Standard: " + DEFAULT_PORT + ", 0 = beliebiger freier Port)",
+            "  --bind ADRESSE          Adresse (Standard: " + DEFAULT_BIND + ", 0.0.0.0 = alle)",
+            "  -o, --output VERZ       Verzeichnis für Berichte (Standard: " + ReportCli.DEFAULT_OUTPUT + ")",
+            "  --users VERZ            Benutzer aus einer FileUserRepository laden",
+            "  --tasks VERZ            Aufgaben aus einer FileTaskRepository laden",
+            "  --history-limit N       ältere Historieneinträge je Aufgabe ab N auslagern (Standard: 0 = keine)",
+            "  --sample-users N        N erzeugte Benutzer hinzufügen",
+            "  --sample-tasks N        N erzeugte Aufgaben hinzufügen",
+            "  --seed N                Seed für erzeugte Daten (Standard: 1)",
+            "  --metrics               Messwerte erfassen, abrufbar unter /api/metrics",
+            "  -h, --help              diese Hilfe",
+            "",
+            "Die Schnittstelle prüft keine Anmeldung.");
+
+    private ApiServerCli() {
+    }
+
+    /**
+     * Einstellungen aus der Befehlszeile
+     */
+    static final class Options {
+        int port = DEFAULT_PORT;
+        String bind = DEFAULT_BIND;
+        String outputPath = ReportCli.DEFAULT_OUTPUT;
+        Path usersDirectory;
+        Path tasksDirectory;
+        int historyLimit;
+        int sampleUsers;
+        int sampleTasks;
+        long seed = 1;
+        boolean metrics;
+        boolean help;
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(ReportCli.EXIT_USAGE);
+            return;
+        }
+        if (options.help) {
+            System.out.println(USAGE);
+            return;
+        }
+        // Bei vielen gleichzeitigen Clients sonst nur 200 ruhende Verbindungen
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", "1024");
+        }
+        int exitCode = start(options, System.out, System.err);
+        if (exitCode != ReportCli.EXIT_OK) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Startet den Server und kehrt zurück; die Threads des Servers halten den Prozess am Leben
+     */
+    static int start(Options options, PrintStream out, PrintStream err) {
+        if (options.metrics && !MetricsRegistry.getDefault().isEnabled()) {
+            MetricsRegistry.setDefault(new MetricsRegistry());
+        }
+
+        HistorySegmentStore historyStore = null;
+        HistoryRetention retention = HistoryRetention.getDefault();
+        if (options.historyLimit > 0) {
+            try {
+                historyStore = HistorySegmentStore.createTemporary();
+            } catch (IOException e) {
+                err.println("Segmentdatei für die Historie konnte nicht angelegt werden: " + e.getMessage());
+                return ReportCli.EXIT_IO;
+            }
+            retention = new HistoryRetention(options.historyLimit, historyStore);
+            // Auch später angelegte Aufgaben, z.B. erzeugte Beispielaufgaben
+            HistoryRetention.setDefault(retention);
+        }
+
+        // Mit eingeschalteten Metriken wird jede Ablageoperation der Schnittstelle gemessen,
+        // das Erzeugen der Beispieldaten läuft an der Messung vorbei
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        TaskRepository tasks;
+        TaskRepository taskStore;
+        FileTaskRepository fileTasks = null;
+        try {
+            if (options.tasksDirectory != null) {
+                fileTasks = new FileTaskRepository(options.tasksDirectory, FileTaskRepository.DEFAULT_SNAPSHOT_INTERVAL,
+                        true, retention);
+                tasks = fileTasks;
+                taskStore = instrumented(fileTasks, metrics);
+            } else {
+                InMemoryTaskRepository memoryTasks = new InMemoryTaskRepository();
+                tasks = memoryTasks;
+                taskStore = instrumented(memoryTasks, metrics);
+            }
+        } catch (IOException e) {
+            err.println("Aufgaben konnten nicht geladen werden: " + e.getMessage());
+            closeQuietly(historyStore, "Segmentdatei", err);
+            return ReportCli.EXIT_IO;
+        }
+        ConcurrentUserRepository users;
+        FileUserRepository fileUsers = null;
+        try {
+            if (options.usersDirectory != null) {
+                fileUsers = new FileUserRepository(options.usersDirectory);
+                users = fileUsers;
+            } else {
+                users = new ConcurrentUserRepository();
+            }
+        } catch (IOException e) {
+            err.println("Benutzer konnten nicht geladen werden: " + e.getMessage());
+            closeQuietly(fileTasks, "Aufgabenablage", err);
+            closeQuietly(historyStore, "Segmentdatei", err);
+            return ReportCli.EXIT_IO;
+        }
+        new DatasetGenerator(options.seed).populate(users, options.sampleUsers, tasks, options.sampleTasks);
+
+        SearchableUserRepository userStore = metrics.isEnabled()
+                ? new InstrumentedUserRepository(users, metrics) : users;
+        HttpApiServer server = new HttpApiServer(new UserService(userStore), taskStore,
+                new ReportGenerator(userStore, taskStore), options.outputPath);
+        try {
+            server.start(new InetSocketAddress(options.bind, options.port));
+        } catch (IOException e) {
+            err.println("Server konnte nicht gestartet werden: " + e.getMessage());
+            closeQuietly(fileUsers, "Benutzerablage", err);
+            closeQuietly(fileTasks, "Aufgabenablage", err);
+            closeQuietly(historyStore, "Segmentdatei", err);
+            return ReportCli.EXIT_IO;
+        }
+        FileUserRepository userFile = fileUsers;
+        FileTaskRepository store = fileTasks;
+        HistorySegmentStore segments = historyStore;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            closeQuietly(userFile, "Benutzerablage", err);
+            closeQuietly(store, "Aufgabenablage", err);
+            closeQuietly(segments, "Segmentdatei", err);
+        }, "api-shutdown"));
+        out.println("HTTP-Schnittstelle: http://" + options.bind + ":" + server.getPort() + "/api/");
+        return ReportCli.EXIT_OK;
+    }
+
+    private static <R extends TaskRepository & ObservableRepository> TaskRepository instrumented(
+            R tasks, MetricsRegistry metrics) {
+        return metrics.isEnabled() ? new InstrumentedTaskRepository(tasks, metrics) : tasks;
+    }
+
+    private static void closeQuietly(Closeable resource, String name, PrintStream err) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (IOException e) {
+            err.println(name + " konnte nicht geschlossen werden: " + e.getMessage());
+        }
+    }
+
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    options.help = true;
+                    return options;
+                case "--port":
+                    options.port = ReportCli.nonNegative(ReportCli.value(args, ++i, arg), arg);
+                    if (options.port > 65535) {
+                        throw new IllegalArgumentException("Ungültiger Port: " + options.port);
+                    }
+                    break;
+                case "--bind":
+                    options.bind = ReportCli.value(args, ++i, arg);
+                    break;
+                case "-o":
+                case "--output":
+                    options.outputPath = ReportCli.value(args, ++i, arg);
+                    break;
+                case "--users":
+                    options.usersDirectory = Path.of(ReportCli.value(args, ++i, arg));
+                    break;
+                case "--tasks":
+                    options.tasksDirectory = Path.of(ReportCli.value(args, ++i, arg));
+                    break;
+                case "--history-limit":
+                    options.historyLimit = ReportCli.nonNegative(ReportCli.value(args, ++i, arg), arg);
+                    break;
+                case "--sample-users":
+                    options.sampleUsers = ReportCli.nonNegative(ReportCli.value(args, ++i, arg), arg);
+                    break;
+                case "--sample-tasks":
+                    options.sampleTasks = ReportCli.nonNegative(ReportCli.value(args, ++i, arg), arg);
+                    break;
+                case "--seed":
+                    options.seed = ReportCli.number(ReportCli.value(args, ++i, arg), arg);
+                    break;
+                case "--metrics":
+                    options.metrics = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unbekannte Option: " + arg);
+            }
+        }
+        if (options.tasksDirectory != null && options.sampleTasks > 0) {
+            // Erzeugte Aufgaben würden sonst dauerhaft in die Ablage geschrieben
+            throw new IllegalArgumentException("--sample-tasks kann nicht mit --tasks kombiniert werden");
+        }
+        if (options.usersDirectory != null && options.sampleUsers > 0) {
+            throw new IllegalArgumentException("--sample-users kann nicht mit --users kombiniert werden");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,252 @@
+package org.uptrack;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kopfloser Einstiegspunkt für die Berichtserzeugung auf Servern, z.B. im nächtlichen
+ * Berichtslauf. Verdrahtet Benutzer- und Aufgabenablage direkt mit dem
+ * {@link ReportGenerator}, ohne das JavaFX-Toolkit zu laden; diese Klasse darf daher
+ * nichts aus {@code javafx.*} verwenden.
+ * <p>
+ * Die Pfade der erzeugten Berichte werden zeilenweise auf die Standardausgabe
+ * geschrieben, Fehler auf die Standardfehlerausgabe. Mehrere Formate werden aus einem
+ * einzigen Durchlauf über die Daten erzeugt.
+ */
+public final class ReportCli {
+    /** Alle Berichte erstellt */
+    static final int EXIT_OK = 0;
+    /** Mindestens ein Bericht konnte nicht erstellt werden */
+    static final int EXIT_REPORT_FAILED = 1;
+    /** Ungültige Argumente */
+    static final int EXIT_USAGE = 2;
+    /** Datenquelle oder Metrikdatei nicht lesbar bzw. schreibbar */
+    static final int EXIT_IO = 3;
+
+    static final String DEFAULT_OUTPUT = "reports";
+    private static final List<String> FORMATS = List.of("html", "txt", "csv", "pdf");
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Verwendung: uptrack-report [Optionen] FORMAT...",
+            "",
+            "  FORMAT                  html, txt, csv oder pdf, mehrere möglich",
+            "  -o, --output VERZ       Zielverzeichnis (Standard: " + DEFAULT_OUTPUT + ")",
+            "  --tasks VERZ            Aufgaben aus einer FileTaskRepository laden",
+            "  --sample-users N        N erzeugte Benutzer hinzufügen",
+            "  --sample-tasks N        N erzeugte Aufgaben hinzufügen",
+            "  --seed N                Seed für erzeugte Daten und Zuordnungen (Standard: 1)",
+            "  --no-users              ohne Benutzerabschnitt",
+            "  --no-tasks              ohne Aufgabenabschnitt",
+            "  --no-statistics         ohne Statistiken",
+            "  --charts                mit Visualisierungen",
+            "  --metrics DATEI         Messwerte als JSON in DATEI schreiben",
+            "  -h, --help              diese Hilfe",
+            "",
+            "Rückgabewerte: 0 Erfolg, 1 Bericht fehlgeschlagen, 2 ungültige Argumente, 3 Ein-/Ausgabefehler");
+
+    private ReportCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Einstellungen aus der Befehlszeile
+     */
+    static final class Options {
+        final List<String> formats = new ArrayList<>();
+        String outputPath = DEFAULT_OUTPUT;
+        Path tasksDirectory;
+        int sampleUsers;
+        int sampleTasks;
+        long seed = 1;
+        boolean includeUsers = true;
+        boolean includeTasks = true;
+        boolean includeStatistics = true;
+        boolean includeCharts;
+        Path metricsFile;
+        boolean help;
+    }
+
+    /**
+     * Führt den Berichtslauf aus und liefert den Rückgabewert für den Prozess
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.help) {
+            out.println(USAGE);
+            return EXIT_OK;
+        }
+
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        if (options.metricsFile != null && !metrics.isEnabled()) {
+            metrics = new MetricsRegistry();
+            MetricsRegistry.setDefault(metrics);
+        }
+
+        int exitCode;
+        FileTaskRepository fileTasks = null;
+        try {
+            TaskRepository tasks;
+            if (options.tasksDirectory != null) {
+                fileTasks = new FileTaskRepository(options.tasksDirectory);
+                tasks = fileTasks;
+            } else {
+                tasks = new InMemoryTaskRepository();
+            }
+            UserRepository users = new Repository();
+            DatasetGenerator dataset = new DatasetGenerator(options.seed);
+            dataset.populate(users, options.sampleUsers, tasks, options.sampleTasks);
+
+            // Ohne Cache: jeder Lauf soll neue Dateien erzeugen. Die Formate werden im
+            // aufrufenden Thread geschrieben, es entsteht kein Thread-Pool.
+            ReportGenerator generator = new ReportGenerator(users, tasks, null, Runnable::run,
+                    dataset.newRandom());
+            exitCode = generate(generator, options, out, err);
+        } catch (IOException e) {
+            err.println("Aufgaben konnten nicht geladen werden: " + e.getMessage());
+            return EXIT_IO;
+        } finally {
+            if (fileTasks != null) {
+                try {
+                    fileTasks.close();
+                } catch (IOException e) {
+                    err.println("Aufgabenablage konnte nicht geschlossen werden: " + e.getMessage());
+                }
+            }
+        }
+
+        if (options.metricsFile != null) {
+            try {
+                Files.writeString(options.metricsFile, metrics.toJson(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                err.println("Metriken konnten nicht geschrieben werden: " + e.getMessage());
+                return exitCode == EXIT_OK ? EXIT_IO : exitCode;
+            }
+        }
+        return exitCode;
+    }
+
+    private static int generate(ReportGenerator generator, Options options, PrintStream out, PrintStream err) {
+        List<ReportGenerator.ReportConfig> configs = new ArrayList<>();
+        for (String format : options.formats) {
+            configs.add(new ReportGenerator.ReportConfig(format, options.outputPath)
+                    .setIncludeUsers(options.includeUsers)
+                    .setIncludeTasks(options.includeTasks)
+                    .setIncludeStatistics(options.includeStatistics)
+                    .setIncludeCharts(options.includeCharts));
+        }
+
+        List<ReportResult> results = generator.generateReports(configs);
+        int exitCode = EXIT_OK;
+        for (int i = 0; i < results.size(); i++) {
+            ReportResult result = results.get(i);
+            if (result == null) {
+                err.println("Bericht im Format " + options.formats.get(i) + " konnte nicht erstellt werden");
+                exitCode = EXIT_REPORT_FAILED;
+            } else {
+                out.println(result.getFile().getPath());
+            }
+        }
+        return exitCode;
+    }
+
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    options.help = true;
+                    return options;
+                case "-o":
+                case "--output":
+                    options.outputPath = value(args, ++i, arg);
+                    break;
+                case "--tasks":
+                    options.tasksDirectory = Path.of(value(args, ++i, arg));
+                    break;
+                case "--sample-users":
+                    options.sampleUsers = nonNegative(value(args, ++i, arg), arg);
+                    break;
+                case "--sample-tasks":
+                    options.sampleTasks = nonNegative(value(args, ++i, arg), arg);
+                    break;
+                case "--seed":
+                    options.seed = number(value(args, ++i, arg), arg);
+                    break;
+                case "--no-users":
+                    options.includeUsers = false;
+                    break;
+                case "--no-tasks":
+                    options.includeTasks = false;
+                    break;
+                case "--no-statistics":
+                    options.includeStatistics = false;
+                    break;
+                case "--charts":
+                    options.includeCharts = true;
+                    break;
+                case "--metrics":
+                    options.metricsFile = Path.of(value(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unbekannte Option: " + arg);
+                    }
+                    String format = arg.toLowerCase(Locale.ROOT);
+                    if (!FORMATS.contains(format)) {
+                        throw new IllegalArgumentException("Unbekanntes Format: " + arg);
+                    }
+                    options.formats.add(format);
+                    break;
+            }
+        }
+        if (options.formats.isEmpty()) {
+            throw new IllegalArgumentException("Kein Format angegeben");
+        }
+        if (options.tasksDirectory != null && options.sampleTasks > 0) {
+            // Erzeugte Aufgaben würden sonst dauerhaft in die Ablage geschrieben
+            throw new IllegalArgumentException("--sample-tasks kann nicht mit --tasks kombiniert werden");
+        }
+        return options;
+    }
+
+    static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Option " + option + " erwartet einen Wert");
+        }
+        return args[index];
+    }
+
+    static long number(String value, String option) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + option + " erwartet eine Zahl: " + value);
+        }
+    }
+
+    static int nonNegative(String value, String option) {
+        long number = number(value, option);
+        if (number < 0 || number > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Option " + option + " erwartet eine Zahl ab 0: " + value);
+        }
+        return (int) number;
+    }
+}
@@ -0,0 +1,72 @@
+package org.uptrack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCliTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return ReportCli.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void run_withSeveralFormats_shouldPrintOneFilePerFormat() {
+        // Act
+        int exitCode = run("html", "CSV", "-o", tempDir.toString(), "--sample-users", "20",
+                "--sample-tasks", "100", "--charts");
+
+        // Assert
+        assertEquals(ReportCli.EXIT_OK, exitCode);
+        String[] paths = out.toString(StandardCharsets.UTF_8).trim().split("\\R");
+        assertEquals(2, paths.length);
+        assertTrue(paths[0].endsWith(".html"));
+        assertTrue(paths[1].endsWith(".csv"));
+        assertTrue(new File(paths[0]).isFile());
+        assertTrue(new File(paths[1]).isFile());
+    }
+
+    @Test
+    void run_withInvalidArguments_shouldReturnUsageError() {
+        // Act
+        int unknownOption = run("html", "--fast");
+        int unknownFormat = run("docx");
+        int missingValue = run("html", "-o");
+        int noFormat = run();
+
+        // Assert
+        assertEquals(ReportCli.EXIT_USAGE, unknownOption);
+        assertEquals(ReportCli.EXIT_USAGE, unknownFormat);
+        assertEquals(ReportCli.EXIT_USAGE, missingValue);
+        assertEquals(ReportCli.EXIT_USAGE, noFormat);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Unbekannte Option: --fast"));
+    }
+
+    @Test
+    void run_withUnwritableOutput_shouldReportFailure() throws Exception {
+        // Arrange
+        Path blocked = Files.createFile(tempDir.resolve("keinVerzeichnis"));
+
+        // Act
+        int exitCode = run("txt", "-o", blocked.resolve("unter").toString());
+
+        // Assert
+        assertEquals(ReportCli.EXIT_REPORT_FAILED, exitCode);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("txt"));
+    }
+}